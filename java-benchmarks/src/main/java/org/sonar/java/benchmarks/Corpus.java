@@ -0,0 +1,148 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.test.classpath.TestClasspathUtils;
+import org.sonar.plugins.java.api.JavaVersion;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Fixed set of source files taken from "java-checks-test-sources/default", parsed with the classpath of this module.
+ * Files which do not parse are left out, so that every benchmark runs on the same files.
+ */
+public final class Corpus {
+
+  public static final JavaVersion JAVA_VERSION = JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION;
+
+  private final List<File> classpath;
+  private final List<SourceFile> files;
+
+  private Corpus(List<File> classpath, List<SourceFile> files) {
+    this.classpath = classpath;
+    this.files = files;
+  }
+
+  /**
+   * @param directory relative to "java-checks-test-sources/default/src/main/java", e.g. "checks/regex"
+   */
+  public static Corpus load(String directory) {
+    TestClasspathUtils.Module module = TestClasspathUtils.DEFAULT_MODULE;
+    String modulePath = module.getPath();
+    if (modulePath == null) {
+      throw new IllegalStateException("Unable to find 'java-checks-test-sources/default' from " + System.getProperty("user.dir"));
+    }
+    Path sourceDirectory = Path.of(modulePath, "src", "main", "java").resolve(directory);
+    List<SourceFile> sourceFiles;
+    try (Stream<Path> paths = Files.walk(sourceDirectory)) {
+      sourceFiles = paths
+        .filter(path -> path.toString().endsWith(".java"))
+        .sorted()
+        .map(path -> read(sourceDirectory, path))
+        .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    Corpus corpus = new Corpus(module.getClassPath(), sourceFiles);
+    List<SourceFile> parsableFiles = new ArrayList<>();
+    for (SourceFile sourceFile : sourceFiles) {
+      try {
+        corpus.parse(sourceFile);
+        parsableFiles.add(sourceFile);
+      } catch (RuntimeException e) {
+        // syntax error, the file is not part of the corpus
+      }
+    }
+    if (parsableFiles.isEmpty()) {
+      throw new IllegalStateException("No parsable file in " + sourceDirectory);
+    }
+    return new Corpus(corpus.classpath, parsableFiles);
+  }
+
+  private static SourceFile read(Path sourceDirectory, Path path) {
+    try {
+      return new SourceFile(sourceDirectory.relativize(path).toString(), Files.readString(path, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public List<SourceFile> files() {
+    return files;
+  }
+
+  public List<File> classpath() {
+    return classpath;
+  }
+
+  public JParserConfig parserConfig() {
+    return JParserConfig.Mode.FILE_BY_FILE.create(JAVA_VERSION, classpath);
+  }
+
+  public JavaTree.CompilationUnitTreeImpl parse(SourceFile file) {
+    return JParser.parse(parserConfig().astParser(), JAVA_VERSION.toString(), file.unitName(), file.source());
+  }
+
+  public List<JavaTree.CompilationUnitTreeImpl> parseAll() {
+    List<JavaTree.CompilationUnitTreeImpl> trees = new ArrayList<>(files.size());
+    for (SourceFile file : files) {
+      trees.add(parse(file));
+    }
+    return trees;
+  }
+
+  /**
+   * @return all the trees of the given kind, in the order of the files
+   */
+  public static <T extends Tree> List<T> collect(List<? extends Tree> trees, Class<T> type, Tree.Kind... kinds) {
+    List<T> result = new ArrayList<>();
+    BaseTreeVisitor collector = new BaseTreeVisitor() {
+      @Override
+      protected void scan(@Nullable Tree tree) {
+        if (tree != null && tree.is(kinds)) {
+          result.add(type.cast(tree));
+        }
+        super.scan(tree);
+      }
+    };
+    trees.forEach(tree -> tree.accept(collector));
+    return result;
+  }
+
+  /**
+   * @param relativePath relative to the corpus directory
+   */
+  public record SourceFile(String relativePath, String source) {
+    public String unitName() {
+      return Path.of(relativePath).getFileName().toString();
+    }
+  }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.benchmarks.Corpus;
+
+/**
+ * Content hash of the files of the corpus with each {@link ContentHashAlgorithm}, read through a buffer like
+ * {@link FileHashingUtils} does. The files are kept in memory, so that only hashing is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ContentHashBenchmark {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  @Param({"checks"})
+  public String corpus;
+
+  @Param({"MD5", "MURMUR3_128"})
+  public ContentHashAlgorithm algorithm;
+
+  private List<byte[]> contents;
+
+  @Setup
+  public void setup() {
+    contents = Corpus.load(corpus).files().stream()
+      .map(file -> file.source().getBytes(StandardCharsets.UTF_8))
+      .toList();
+  }
+
+  @Benchmark
+  public void contentHash(Blackhole blackhole) throws IOException, NoSuchAlgorithmException {
+    byte[] buffer = new byte[BUFFER_SIZE];
+    for (byte[] content : contents) {
+      ContentHashAlgorithm.Hasher hasher = algorithm.newHasher();
+      try (InputStream in = new ByteArrayInputStream(content)) {
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          hasher.update(buffer, 0, read);
+        }
+      }
+      blackhole.consume(hasher.digest());
+    }
+  }
+
+}
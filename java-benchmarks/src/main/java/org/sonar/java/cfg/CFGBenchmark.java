@@ -0,0 +1,78 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.benchmarks.Corpus;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * {@link CFG#build} and {@link LiveVariables#analyze} on every method of the corpus having a body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CFGBenchmark {
+
+  @Param({"checks/regex"})
+  public String corpus;
+
+  private List<MethodTree> methods;
+  private List<CFG> cfgs;
+
+  @Setup
+  public void setup() {
+    methods = Corpus.collect(Corpus.load(corpus).parseAll(), MethodTree.class, Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR).stream()
+      .filter(method -> method.block() != null)
+      .toList();
+    cfgs = methods.stream()
+      .map(CFG::build)
+      .toList();
+  }
+
+  @Benchmark
+  public void build(Blackhole blackhole) {
+    for (MethodTree method : methods) {
+      blackhole.consume(CFG.build(method));
+    }
+  }
+
+  @Benchmark
+  public void liveVariables(Blackhole blackhole) {
+    for (CFG cfg : cfgs) {
+      blackhole.consume(LiveVariables.analyze(cfg));
+    }
+  }
+
+}
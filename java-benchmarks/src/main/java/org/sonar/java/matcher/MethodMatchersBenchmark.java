@@ -0,0 +1,98 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.matcher;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.java.benchmarks.Corpus;
+import org.sonar.java.checks.helpers.UnitTestUtils;
+import org.sonar.java.checks.regex.AbstractRegexCheck;
+import org.sonar.java.model.JavaTree;
+import org.sonar.plugins.java.api.semantic.MethodMatchers;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+import org.sonar.plugins.java.api.tree.NewClassTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * {@link MethodMatchers#matches} of the matchers of real rules against every method invocation and constructor call of the
+ * corpus: the regex methods shared by the regex checks, and the assertion methods looked up by the unit test checks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MethodMatchersBenchmark {
+
+  @Param({"checks/regex"})
+  public String corpus;
+
+  @Param({"regex", "assertions"})
+  public String matchers;
+
+  private MethodMatchers methodMatchers;
+  private List<MethodInvocationTree> methodInvocations;
+  private List<NewClassTree> newClasses;
+
+  @Setup
+  public void setup() {
+    methodMatchers = switch (matchers) {
+      case "regex" -> RegexMethods.MATCHERS;
+      case "assertions" -> UnitTestUtils.ASSERTION_INVOCATION_MATCHERS;
+      default -> throw new IllegalArgumentException("Unknown matchers: " + matchers);
+    };
+    List<JavaTree.CompilationUnitTreeImpl> trees = Corpus.load(corpus).parseAll();
+    methodInvocations = Corpus.collect(trees, MethodInvocationTree.class, Tree.Kind.METHOD_INVOCATION);
+    newClasses = Corpus.collect(trees, NewClassTree.class, Tree.Kind.NEW_CLASS);
+  }
+
+  @Benchmark
+  public int matches() {
+    int matches = 0;
+    for (MethodInvocationTree methodInvocation : methodInvocations) {
+      if (methodMatchers.matches(methodInvocation)) {
+        matches++;
+      }
+    }
+    for (NewClassTree newClass : newClasses) {
+      if (methodMatchers.matches(newClass)) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Gives access to the matchers of {@link AbstractRegexCheck}, shared by all the regex checks.
+   */
+  private abstract static class RegexMethods extends AbstractRegexCheck {
+    static final MethodMatchers MATCHERS = REGEX_METHODS;
+  }
+
+}
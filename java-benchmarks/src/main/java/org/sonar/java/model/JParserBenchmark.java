@@ -0,0 +1,95 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.benchmarks.Corpus;
+
+/**
+ * {@link JParser#parse} is made of the ECJ parsing and resolution, followed by {@link JParser#convert} to our own tree.
+ * Both are measured on the whole corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JParserBenchmark {
+
+  @Param({"checks/regex"})
+  public String corpus;
+
+  private Corpus sources;
+  private List<CompilationUnit> ecjTrees;
+
+  @Setup
+  public void setup() {
+    sources = Corpus.load(corpus);
+    ecjTrees = new ArrayList<>();
+    for (Corpus.SourceFile file : sources.files()) {
+      ecjTrees.add(ecjParse(file));
+    }
+  }
+
+  private CompilationUnit ecjParse(Corpus.SourceFile file) {
+    ASTParser astParser = sources.parserConfig().astParser();
+    astParser.setUnitName(file.unitName());
+    astParser.setSource(file.source().toCharArray());
+    return (CompilationUnit) astParser.createAST(null);
+  }
+
+  @Benchmark
+  public void parse(Blackhole blackhole) {
+    for (Corpus.SourceFile file : sources.files()) {
+      blackhole.consume(sources.parse(file));
+    }
+  }
+
+  @Benchmark
+  public void ecjParse(Blackhole blackhole) {
+    for (Corpus.SourceFile file : sources.files()) {
+      blackhole.consume(ecjParse(file));
+    }
+  }
+
+  @Benchmark
+  public void convert(Blackhole blackhole) {
+    List<Corpus.SourceFile> files = sources.files();
+    for (int i = 0; i < files.size(); i++) {
+      Corpus.SourceFile file = files.get(i);
+      blackhole.consume(JParser.convert(Corpus.JAVA_VERSION.toString(), file.unitName(), file.source(), ecjTrees.get(i)));
+    }
+  }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.benchmarks.Corpus;
+import org.sonar.java.checks.CognitiveComplexityMethodCheck;
+import org.sonar.java.checks.CollapsibleIfCandidateCheck;
+import org.sonar.java.checks.CollectionsEmptyConstantsCheck;
+import org.sonar.java.checks.DeadStoreCheck;
+import org.sonar.java.checks.HardcodedIpCheck;
+import org.sonar.java.checks.ImmediatelyReturnedVariableCheck;
+import org.sonar.java.checks.NestedIfStatementsCheck;
+import org.sonar.java.checks.OverrideAnnotationCheck;
+import org.sonar.java.checks.RedundantThrowsDeclarationCheck;
+import org.sonar.java.checks.ReturnEmptyArrayNotNullCheck;
+import org.sonar.java.checks.SillyEqualsCheck;
+import org.sonar.java.checks.StringConcatenationInLoopCheck;
+import org.sonar.java.checks.StringLiteralDuplicatedCheck;
+import org.sonar.java.checks.TryWithResourcesCheck;
+import org.sonar.java.checks.naming.BadMethodNameCheck;
+import org.sonar.java.checks.regex.DuplicatesInCharacterClassCheck;
+import org.sonar.java.checks.regex.EmptyStringRepetitionCheck;
+import org.sonar.java.checks.regex.RedosCheck;
+import org.sonar.java.checks.unused.UnusedLocalVariableCheck;
+import org.sonar.java.checks.unused.UnusedPrivateMethodCheck;
+import org.sonar.plugins.java.api.JavaCheck;
+
+/**
+ * {@link VisitorsBridge#visitFile} with a fixed selection of rules, covering subscription visitors, tree visitors,
+ * method matchers, regular expressions and control flow graphs. Issues are discarded, no rule being registered in
+ * {@link SonarComponents}.
+ * Trees are parsed again before each invocation, because rules memoize data (e.g. control flow graphs) on them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VisitorsBridgeBenchmark {
+
+  @Param({"checks/regex"})
+  public String corpus;
+
+  private Corpus sources;
+  private List<InputFile> inputFiles;
+  private List<JavaTree.CompilationUnitTreeImpl> trees;
+  private VisitorsBridge visitorsBridge;
+
+  @Setup
+  public void setup() {
+    sources = Corpus.load(corpus);
+    inputFiles = new ArrayList<>();
+    for (Corpus.SourceFile file : sources.files()) {
+      inputFiles.add(TestInputFileBuilder.create("", file.relativePath())
+        .setContents(file.source())
+        .setCharset(StandardCharsets.UTF_8)
+        .setLanguage("java")
+        .build());
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void setupInvocation() {
+    trees = sources.parseAll();
+    SensorContextTester sensorContext = SensorContextTester.create(Path.of(""));
+    SonarComponents sonarComponents = new SonarComponents(null, sensorContext.fileSystem(), null, null, null, null);
+    sonarComponents.setSensorContext(sensorContext);
+    visitorsBridge = new VisitorsBridge(checks(), sources.classpath(), sonarComponents, Corpus.JAVA_VERSION);
+  }
+
+  private static List<JavaCheck> checks() {
+    return List.of(
+      new BadMethodNameCheck(),
+      new CognitiveComplexityMethodCheck(),
+      new CollapsibleIfCandidateCheck(),
+      new CollectionsEmptyConstantsCheck(),
+      new DeadStoreCheck(),
+      new DuplicatesInCharacterClassCheck(),
+      new EmptyStringRepetitionCheck(),
+      new HardcodedIpCheck(),
+      new ImmediatelyReturnedVariableCheck(),
+      new NestedIfStatementsCheck(),
+      new OverrideAnnotationCheck(),
+      new RedosCheck(),
+      new RedundantThrowsDeclarationCheck(),
+      new ReturnEmptyArrayNotNullCheck(),
+      new SillyEqualsCheck(),
+      new StringConcatenationInLoopCheck(),
+      new StringLiteralDuplicatedCheck(),
+      new TryWithResourcesCheck(),
+      new UnusedLocalVariableCheck(),
+      new UnusedPrivateMethodCheck());
+  }
+
+  @Benchmark
+  public void visitFile() {
+    for (int i = 0; i < trees.size(); i++) {
+      visitorsBridge.setCurrentFile(inputFiles.get(i));
+      visitorsBridge.visitFile(trees.get(i), false);
+    }
+  }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.regex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.benchmarks.Corpus;
+import org.sonar.java.model.JavaTree;
+import org.sonar.plugins.java.api.semantic.MethodMatchers;
+import org.sonar.plugins.java.api.tree.ExpressionTree;
+import org.sonar.plugins.java.api.tree.LiteralTree;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
+
+/**
+ * {@link RegexCache#getRegexForLiterals} for the string literals given as regular expression to the JDK methods,
+ * with one {@link RegexCache} per file, like during the analysis, and with or without a {@link SharedRegexCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RegexCacheBenchmark {
+
+  private static final MethodMatchers REGEX_METHODS = MethodMatchers.or(
+    MethodMatchers.create()
+      .ofTypes("java.lang.String")
+      .names("matches", "replaceAll", "replaceFirst", "split")
+      .withAnyParameters()
+      .build(),
+    MethodMatchers.create()
+      .ofTypes("java.util.regex.Pattern")
+      .names("compile", "matches")
+      .withAnyParameters()
+      .build());
+
+  @Param({"checks/regex"})
+  public String corpus;
+
+  @Param({"false", "true"})
+  public boolean shared;
+
+  private List<List<LiteralTree>> regexesPerFile;
+
+  @Setup
+  public void setup() {
+    regexesPerFile = new ArrayList<>();
+    for (JavaTree.CompilationUnitTreeImpl tree : Corpus.load(corpus).parseAll()) {
+      List<LiteralTree> regexes = new ArrayList<>();
+      for (MethodInvocationTree mit : Corpus.collect(List.of(tree), MethodInvocationTree.class, Tree.Kind.METHOD_INVOCATION)) {
+        if (REGEX_METHODS.matches(mit) && !mit.arguments().isEmpty()) {
+          ExpressionTree regex = mit.arguments().get(0);
+          if (regex.is(Tree.Kind.STRING_LITERAL, Tree.Kind.TEXT_BLOCK)) {
+            regexes.add((LiteralTree) regex);
+          }
+        }
+      }
+      regexesPerFile.add(regexes);
+    }
+  }
+
+  @Benchmark
+  public void getRegexForLiterals(Blackhole blackhole) {
+    SharedRegexCache sharedCache = shared ? new SharedRegexCache() : null;
+    for (List<LiteralTree> regexes : regexesPerFile) {
+      RegexCache cache = new RegexCache(sharedCache);
+      for (LiteralTree regex : regexes) {
+        blackhole.consume(cache.getRegexForLiterals(new FlagSet(), regex));
+      }
+    }
+  }
+
+}
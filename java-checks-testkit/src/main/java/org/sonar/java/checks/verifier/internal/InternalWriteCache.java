@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.Map;
 import org.sonar.api.batch.sensor.cache.ReadCache;
 import org.sonar.api.batch.sensor.cache.WriteCache;
+import org.sonar.java.caching.FileCacheRecords;
 
 public class InternalWriteCache implements WriteCache {
 
@@ -37,6 +38,13 @@ public class InternalWriteCache implements WriteCache {
     return data;
   }
 
+  /**
+   * @return the data written to this cache, with the record of each file replaced by the entries it gathers, under their own keys.
+   */
+  public Map<String, byte[]> getEntries() {
+    return FileCacheRecords.withExpandedRecords(data);
+  }
+
   @Override
   public void write(String key, InputStream data) {
     try {
@@ -35,6 +35,7 @@ import org.sonar.java.SonarComponents;
 import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.java.ast.JavaAstScanner;
 import org.sonar.java.ast.visitors.CommentLinesVisitor;
+import org.sonar.java.caching.CacheContextImpl;
 import org.sonar.java.caching.DummyCache;
 import org.sonar.java.caching.JavaReadCacheImpl;
 import org.sonar.java.caching.JavaWriteCacheImpl;
@@ -314,10 +315,15 @@ public class JavaCheckVerifier implements CheckVerifier {
     this.isCacheEnabled = true;
     this.readCache = readCache;
     this.writeCache = writeCache;
-    this.cacheContext = new InternalCacheContext(
-      true,
-      readCache == null ? new DummyCache() : new JavaReadCacheImpl(readCache),
-      writeCache == null ? new DummyCache() : new JavaWriteCacheImpl(writeCache));
+    if (readCache != null && writeCache != null) {
+      // same cache context as an actual analysis, gathering the entries of each file in its record
+      this.cacheContext = CacheContextImpl.of(readCache, writeCache);
+    } else {
+      this.cacheContext = new InternalCacheContext(
+        true,
+        readCache == null ? new DummyCache() : new JavaReadCacheImpl(readCache),
+        writeCache == null ? new DummyCache() : new JavaWriteCacheImpl(writeCache));
+    }
     return this;
   }
 
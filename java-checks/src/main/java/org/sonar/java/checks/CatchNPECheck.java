@@ -16,7 +16,9 @@
  */
 package org.sonar.java.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.VisitorPruning;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
@@ -29,7 +31,7 @@ import org.sonar.plugins.java.api.tree.Tree.Kind;
 import org.sonar.plugins.java.api.tree.UnionTypeTree;
 
 @Rule(key = "S1696")
-public class CatchNPECheck extends BaseTreeVisitor implements JavaFileScanner {
+public class CatchNPECheck extends BaseTreeVisitor implements JavaFileScanner, VisitorPruning.Prunable {
 
   private JavaFileScannerContext context;
 
@@ -39,6 +41,11 @@ public class CatchNPECheck extends BaseTreeVisitor implements JavaFileScanner {
     scan(context.getTree());
   }
 
+  @Override
+  public Set<Tree.Kind> visitedKinds() {
+    return Set.of(Tree.Kind.CATCH);
+  }
+
   @Override
   public void visitCatch(CatchTree tree) {
     super.visitCatch(tree);
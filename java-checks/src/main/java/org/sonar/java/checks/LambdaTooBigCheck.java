@@ -17,9 +17,11 @@
 package org.sonar.java.checks;
 
 import java.util.Collections;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.java.ast.visitors.LinesOfCodeVisitor;
+import org.sonar.java.ast.visitors.VisitorPruning;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
@@ -28,7 +30,7 @@ import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 
 @Rule(key = "S5612")
-public class LambdaTooBigCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class LambdaTooBigCheck extends BaseTreeVisitor implements JavaFileScanner, VisitorPruning.Prunable {
 
   private static final int DEFAULT_MAX = 10;
 
@@ -45,6 +47,11 @@ public class LambdaTooBigCheck extends BaseTreeVisitor implements JavaFileScanne
     scan(context.getTree());
   }
 
+  @Override
+  public Set<Tree.Kind> visitedKinds() {
+    return Set.of(Tree.Kind.LAMBDA_EXPRESSION);
+  }
+
   @Override
   public void visitLambdaExpression(LambdaExpressionTree lambdaExpressionTree) {
     int lines = getNumberOfLines(lambdaExpressionTree);
@@ -17,6 +17,7 @@
 package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.VisitorPruning;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
@@ -29,9 +30,10 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
+import java.util.Set;
 
 @Rule(key = "S1141")
-public class NestedTryCatchCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class NestedTryCatchCheck extends BaseTreeVisitor implements JavaFileScanner, VisitorPruning.Prunable {
 
   private JavaFileScannerContext context;
   private Deque<Deque<Tree>> nestingLevel = new ArrayDeque<>();
@@ -43,6 +45,11 @@ public class NestedTryCatchCheck extends BaseTreeVisitor implements JavaFileScan
     scan(context.getTree());
   }
 
+  @Override
+  public Set<Tree.Kind> visitedKinds() {
+    return Set.of(Tree.Kind.TRY_STATEMENT);
+  }
+
   @Override
   public void visitClass(ClassTree tree) {
     nestingLevel.push(new ArrayDeque<>());
@@ -17,6 +17,7 @@
 package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.VisitorPruning;
 import org.sonar.plugins.java.api.JavaVersionAwareVisitor;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
@@ -30,9 +31,10 @@ import org.sonar.plugins.java.api.tree.NewArrayTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
 import java.util.List;
+import java.util.Set;
 
 @Rule(key = "S1710")
-public class RepeatAnnotationCheck extends BaseTreeVisitor implements JavaFileScanner, JavaVersionAwareVisitor {
+public class RepeatAnnotationCheck extends BaseTreeVisitor implements JavaFileScanner, JavaVersionAwareVisitor, VisitorPruning.Prunable {
 
   private JavaFileScannerContext context;
 
@@ -47,6 +49,11 @@ public class RepeatAnnotationCheck extends BaseTreeVisitor implements JavaFileSc
     scan(context.getTree());
   }
 
+  @Override
+  public Set<Tree.Kind> visitedKinds() {
+    return Set.of(Tree.Kind.ANNOTATION);
+  }
+
   @Override
   public void visitAnnotation(AnnotationTree annotationTree) {
     if (isArrayInitialized(annotationTree)) {
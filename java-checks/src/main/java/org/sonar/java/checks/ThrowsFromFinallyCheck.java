@@ -16,16 +16,19 @@
  */
 package org.sonar.java.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.VisitorPruning;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.ThrowStatementTree;
+import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TryStatementTree;
 
 @Rule(key = "S1163")
-public class ThrowsFromFinallyCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class ThrowsFromFinallyCheck extends BaseTreeVisitor implements JavaFileScanner, VisitorPruning.Prunable {
 
   private JavaFileScannerContext context;
 
@@ -38,6 +41,11 @@ public class ThrowsFromFinallyCheck extends BaseTreeVisitor implements JavaFileS
     scan(context.getTree());
   }
 
+  @Override
+  public Set<Tree.Kind> visitedKinds() {
+    return Set.of(Tree.Kind.TRY_STATEMENT);
+  }
+
   @Override
   public void visitTryStatement(TryStatementTree tree) {
     scan(tree.resourceList());
@@ -0,0 +1,77 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.checks.helpers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Set of package names, stored segment by segment, answering whether a package is one of them or one of their sub-packages
+ * in a single walk over the segments of its name.
+ */
+public final class PackagePrefixTrie {
+
+  private final Node root = new Node();
+
+  /**
+   * Adds the package and, implicitly, all its sub-packages. The empty name stands for the default package, which contains
+   * every package.
+   */
+  public void add(String packageName) {
+    Node node = root;
+    int start = 0;
+    while (start < packageName.length()) {
+      int end = endOfSegment(packageName, start);
+      node = node.children.computeIfAbsent(packageName.substring(start, end), k -> new Node());
+      start = end + 1;
+    }
+    node.terminal = true;
+  }
+
+  public void addAll(Iterable<String> packageNames) {
+    packageNames.forEach(this::add);
+  }
+
+  /**
+   * @return true if the package is one of the added packages or one of their sub-packages. Unlike {@link String#contains},
+   * "org.foo" is a prefix of "org.foo.bar" but neither of "org.foobar" nor of "com.org.foo".
+   */
+  public boolean containsPrefixOf(String packageName) {
+    Node node = root;
+    int start = 0;
+    while (!node.terminal && start < packageName.length()) {
+      int end = endOfSegment(packageName, start);
+      node = node.children.get(packageName.substring(start, end));
+      if (node == null) {
+        return false;
+      }
+      start = end + 1;
+    }
+    return node.terminal;
+  }
+
+  private static int endOfSegment(String packageName, int start) {
+    int end = packageName.indexOf('.', start);
+    return end < 0 ? packageName.length() : end;
+  }
+
+  private static final class Node {
+    private final Map<String, Node> children = new HashMap<>();
+    private boolean terminal = false;
+  }
+
+}
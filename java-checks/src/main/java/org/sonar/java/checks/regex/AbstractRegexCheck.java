@@ -113,9 +113,23 @@ public abstract class AbstractRegexCheck extends IssuableSubscriptionVisitor imp
 
   private RegexScannerContext regexContext;
 
+  /**
+   * Whether this check finds its regexes like this class does, in which case the discovery is shared with the other regex
+   * checks of the file through {@link RegexScannerContext#regexSite}. Checks overriding {@link #visitNode},
+   * {@link #getMethodInvocationMatchers}, {@link #filterAnnotation}, {@link #onMethodInvocationFound},
+   * {@link #onAnnotationFound} or {@link #getRegexLiteralExpression} must return false.
+   */
+  protected boolean sharesRegexDiscovery() {
+    return true;
+  }
+
   // We want to report only one issue per element for one rule.
   private final HashSet<RegexSyntaxElement> reportedRegexTrees = new HashSet<>();
 
+  // Regexes on which a previous run of checkRegexUnlessWithoutIssues reported nothing, in any file of the analysis
+  private final RegexAnalysisCache<Boolean> regexesWithoutIssues = new RegexAnalysisCache<>();
+  private int reportIssueCalls;
+
   @Override
   public final void setContext(JavaFileScannerContext context) {
     this.regexContext = (RegexScannerContext) context;
@@ -140,7 +154,11 @@ public abstract class AbstractRegexCheck extends IssuableSubscriptionVisitor imp
 
   @Override
   public void visitNode(Tree tree) {
-    if (tree.is(Tree.Kind.ANNOTATION)) {
+    if (sharesRegexDiscovery()) {
+      ExpressionTree methodInvocationOrAnnotation = (ExpressionTree) tree;
+      regexContext.regexSite(methodInvocationOrAnnotation, this::findRegex)
+        .ifPresent(result -> checkRegex(result, methodInvocationOrAnnotation));
+    } else if (tree.is(Tree.Kind.ANNOTATION)) {
       AnnotationTree annotation = (AnnotationTree) tree;
       if (filterAnnotation(annotation)) {
         onAnnotationFound(annotation);
@@ -153,16 +171,29 @@ public abstract class AbstractRegexCheck extends IssuableSubscriptionVisitor imp
     }
   }
 
+  private Optional<RegexParseResult> findRegex(ExpressionTree methodInvocationOrAnnotation) {
+    if (methodInvocationOrAnnotation.is(Tree.Kind.ANNOTATION)) {
+      AnnotationTree annotation = (AnnotationTree) methodInvocationOrAnnotation;
+      return filterAnnotation(annotation) ? regexOfAnnotation(annotation) : Optional.empty();
+    }
+    MethodInvocationTree mit = (MethodInvocationTree) methodInvocationOrAnnotation;
+    return REGEX_METHODS.matches(mit) ? regexOfMethodInvocation(mit) : Optional.empty();
+  }
+
   protected void onMethodInvocationFound(MethodInvocationTree mit) {
+    regexOfMethodInvocation(mit).ifPresent(result -> checkRegex(result, mit));
+  }
+
+  private Optional<RegexParseResult> regexOfMethodInvocation(MethodInvocationTree mit) {
     ExpressionTree regexExpression = getRegexLiteralExpression(mit);
-    if (regexExpression != null) {
-      FlagSet flags = getFlags(mit);
-      if (!flags.contains(Pattern.LITERAL)) {
-        getLiterals(regexExpression)
-          .map(literals -> regexForLiterals(flags, literals))
-          .ifPresent(result -> checkRegex(result, mit));
-      }
+    if (regexExpression == null) {
+      return Optional.empty();
+    }
+    FlagSet flags = getFlags(mit);
+    if (flags.contains(Pattern.LITERAL)) {
+      return Optional.empty();
     }
+    return getLiterals(regexExpression).map(literals -> regexForLiterals(flags, literals));
   }
 
   @Nullable
@@ -184,12 +215,15 @@ public abstract class AbstractRegexCheck extends IssuableSubscriptionVisitor imp
   }
 
   protected void onAnnotationFound(AnnotationTree annotation) {
+    regexOfAnnotation(annotation).ifPresent(result -> checkRegex(result, annotation));
+  }
+
+  private Optional<RegexParseResult> regexOfAnnotation(AnnotationTree annotation) {
     ExpressionTree regexExpression = getRegexLiteralExpression(annotation);
-    if (regexExpression != null) {
-      getLiterals(regexExpression)
-        .map(literals -> regexForLiterals(getFlags(annotation), literals))
-        .ifPresent(result -> checkRegex(result, annotation));
+    if (regexExpression == null) {
+      return Optional.empty();
     }
+    return getLiterals(regexExpression).map(literals -> regexForLiterals(getFlags(annotation), literals));
   }
 
   private static class AnnotationFlagsVisitor extends BaseTreeVisitor {
@@ -288,7 +322,23 @@ public abstract class AbstractRegexCheck extends IssuableSubscriptionVisitor imp
 
   public abstract void checkRegex(RegexParseResult regexForLiterals, ExpressionTree methodInvocationOrAnnotation);
 
+  /**
+   * Runs an analysis whose issues only depend on the text and flags of the regex and on the given options, unless the same
+   * analysis already reported no issue on an identical regex of this file or of a previously analyzed one.
+   */
+  protected final void checkRegexUnlessWithoutIssues(RegexParseResult regexForLiterals, @Nullable Object options, Runnable analysis) {
+    if (regexesWithoutIssues.get(regexForLiterals, options) != null) {
+      return;
+    }
+    int reportIssueCallsBefore = reportIssueCalls;
+    analysis.run();
+    if (reportIssueCalls == reportIssueCallsBefore) {
+      regexesWithoutIssues.put(regexForLiterals, options, Boolean.TRUE);
+    }
+  }
+
   public final void reportIssue(RegexSyntaxElement regexTree, String message, @Nullable Integer cost, List<RegexCheck.RegexIssueLocation> secondaries) {
+    reportIssueCalls++;
     if (reportedRegexTrees.add(regexTree)) {
       regexContext.reportIssue(this, regexTree, message, cost, secondaries);
     }
@@ -310,6 +360,7 @@ public abstract class AbstractRegexCheck extends IssuableSubscriptionVisitor imp
   }
 
   public final void reportIssue(Tree javaTree, String message, @Nullable Integer cost, List<RegexCheck.RegexIssueLocation> secondaries) {
+    reportIssueCalls++;
     regexContext.reportIssue(this, javaTree, message, cost, secondaries);
   }
 
@@ -159,6 +159,11 @@ public abstract class AbstractRegexCheckTrackingMatchers extends AbstractRegexCh
     // onMethodInvocationFound when exiting a method invocation, not when entering it)
   }
 
+  @Override
+  protected boolean sharesRegexDiscovery() {
+    return false;
+  }
+
   private void onConstructorFound(NewClassTree tree) {
     for (ExpressionTree argument : tree.arguments()) {
       getRegex(argument).ifPresent(escapingRegexes::add);
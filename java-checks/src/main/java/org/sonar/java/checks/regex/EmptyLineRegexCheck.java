@@ -91,6 +91,11 @@ public class EmptyLineRegexCheck extends AbstractRegexCheck {
     return false;
   }
 
+  @Override
+  protected boolean sharesRegexDiscovery() {
+    return false;
+  }
+
   @Override
   public void checkRegex(RegexParseResult regexForLiterals, ExpressionTree methodInvocationOrAnnotation) {
     MethodInvocationTree mit = (MethodInvocationTree) methodInvocationOrAnnotation;
@@ -26,7 +26,8 @@ public class ImpossibleBoundariesCheck extends AbstractRegexCheck {
 
   @Override
   public void checkRegex(RegexParseResult regexForLiterals, ExpressionTree methodInvocationOrAnnotation) {
-    new ImpossibleBoundaryFinder(this::reportIssueFromCommons).visit(regexForLiterals);
+    checkRegexUnlessWithoutIssues(regexForLiterals, null,
+      () -> new ImpossibleBoundaryFinder(this::reportIssueFromCommons).visit(regexForLiterals));
   }
 
 }
@@ -26,7 +26,8 @@ public class PossessiveQuantifierContinuationCheck extends AbstractRegexCheck {
 
   @Override
   public void checkRegex(RegexParseResult regexForLiterals, ExpressionTree methodInvocationOrAnnotation) {
-    new PossessiveQuantifierContinuationFinder(this::reportIssueFromCommons, regexForLiterals.getFinalState()).visit(regexForLiterals);
+    checkRegexUnlessWithoutIssues(regexForLiterals, null,
+      () -> new PossessiveQuantifierContinuationFinder(this::reportIssueFromCommons, regexForLiterals.getFinalState()).visit(regexForLiterals));
   }
 
 }
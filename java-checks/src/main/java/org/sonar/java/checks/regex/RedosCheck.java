@@ -77,6 +77,12 @@ public class RedosCheck extends AbstractRegexCheckTrackingMatchType {
   private final RegexReachabilityChecker reachabilityChecker = new RegexReachabilityChecker(false);
   private final IntersectAutomataChecker intersectionChecker = new IntersectAutomataChecker(false);
 
+  // The Java version only changes the message, so it is not part of the key
+  private final RegexAnalysisCache<Backtracking> backtrackingOfRegexes = new RegexAnalysisCache<>();
+
+  private record Backtracking(BacktrackingType type, boolean containsBackReference) {
+  }
+
   // Java 9 introduced a loop optimization that's applied to greedy repetitions in regexes that don't use capturing groups.
   // Without this optimization any loop where for the same input multiple paths can be taken through the loop's body,
   // has exponential runtime. With the optimization such loops, if they are greedy, have either quadratic runtime (if
@@ -124,6 +130,16 @@ public class RedosCheck extends AbstractRegexCheckTrackingMatchType {
     if (regexForLiterals.getResult().getText().length() > MAX_REGEX_LENGTH) {
       return;
     }
+    Backtracking backtracking = backtrackingOfRegexes.computeIfAbsent(regexForLiterals, matchType,
+      () -> findBacktracking(regexForLiterals, matchType));
+    regexContainsBackReference = backtracking.containsBackReference();
+    foundBacktrackingType = backtracking.type();
+    message().ifPresent(message ->
+      reportIssue(methodOrAnnotationName(methodInvocationOrAnnotation), message, null, Collections.emptyList())
+    );
+  }
+
+  private Backtracking findBacktracking(RegexParseResult regexForLiterals, MatchType matchType) {
     regexContainsBackReference = false;
     foundBacktrackingType = BacktrackingType.NO_ISSUE;
     reachabilityChecker.clearCache();
@@ -132,9 +148,7 @@ public class RedosCheck extends AbstractRegexCheckTrackingMatchType {
     boolean isUsedForPartialMatch = matchType == MatchType.PARTIAL || matchType == MatchType.BOTH;
     RedosFinder visitor = new RedosFinder(regexForLiterals.getStartState(), regexForLiterals.getFinalState(), isUsedForFullMatch, isUsedForPartialMatch);
     visitor.visit(regexForLiterals);
-    message().ifPresent(message ->
-      reportIssue(methodOrAnnotationName(methodInvocationOrAnnotation), message, null, Collections.emptyList())
-    );
+    return new Backtracking(foundBacktrackingType, regexContainsBackReference);
   }
 
   private void addBacktracking(BacktrackingType newBacktrackingType) {
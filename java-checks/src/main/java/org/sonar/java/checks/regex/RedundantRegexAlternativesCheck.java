@@ -26,6 +26,7 @@ public class RedundantRegexAlternativesCheck extends AbstractRegexCheck {
 
   @Override
   public void checkRegex(RegexParseResult regexForLiterals, ExpressionTree methodInvocationOrAnnotation) {
-    new RedundantRegexAlternativesFinder(this::reportIssueFromCommons).visit(regexForLiterals);
+    checkRegexUnlessWithoutIssues(regexForLiterals, null,
+      () -> new RedundantRegexAlternativesFinder(this::reportIssueFromCommons).visit(regexForLiterals));
   }
 }
@@ -0,0 +1,91 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.checks.regex;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonarsource.analyzer.commons.regex.RegexParseResult;
+
+/**
+ * Bounded cache of the results of an analysis of regular expressions, kept by a check for all the files of an analysis.
+ * Entries are keyed on the text of the regular expression, its initial flags and the options of the analysis, and the least
+ * recently used entries are evicted first. Regular expressions with syntax errors are never cached.
+ */
+final class RegexAnalysisCache<V> {
+
+  static final int DEFAULT_MAX_SIZE = 1_000;
+
+  private final Map<Key, V> cache;
+
+  RegexAnalysisCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  RegexAnalysisCache(int maxSize) {
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  V computeIfAbsent(RegexParseResult regex, @Nullable Object options, Supplier<V> analysis) {
+    V result = get(regex, options);
+    if (result == null) {
+      result = analysis.get();
+      put(regex, options, result);
+    }
+    return result;
+  }
+
+  @CheckForNull
+  V get(RegexParseResult regex, @Nullable Object options) {
+    Key key = key(regex, options);
+    return key == null ? null : cache.get(key);
+  }
+
+  void put(RegexParseResult regex, @Nullable Object options, V result) {
+    Key key = key(regex, options);
+    if (key != null) {
+      cache.put(key, result);
+    }
+  }
+
+  @CheckForNull
+  private static Key key(RegexParseResult regex, @Nullable Object options) {
+    if (!regex.getSyntaxErrors().isEmpty()) {
+      return null;
+    }
+    return new Key(regex.getResult().getText(), regex.getInitialFlags().getMask(), options);
+  }
+
+  int size() {
+    return cache.size();
+  }
+
+  private record Key(String regex, int flags, @Nullable Object options) {
+    private Key {
+      Objects.requireNonNull(regex);
+    }
+  }
+
+}
@@ -27,7 +27,8 @@ public class ReluctantQuantifierWithEmptyContinuationCheck extends AbstractRegex
 
   @Override
   protected void checkRegex(RegexParseResult regexForLiterals, ExpressionTree methodInvocationOrAnnotation, MatchType matchType) {
-    new ReluctantQuantifierWithEmptyContinuationFinder(this::reportIssueFromCommons, matchType).visit(regexForLiterals);
+    checkRegexUnlessWithoutIssues(regexForLiterals, matchType,
+      () -> new ReluctantQuantifierWithEmptyContinuationFinder(this::reportIssueFromCommons, matchType).visit(regexForLiterals));
   }
 
 }
@@ -45,6 +45,11 @@ public class StringReplaceCheck extends AbstractRegexCheck {
     return false;
   }
 
+  @Override
+  protected boolean sharesRegexDiscovery() {
+    return false;
+  }
+
   @Override
   public void checkRegex(RegexParseResult regexForLiterals, ExpressionTree methodInvocationOrAnnotation) {
     RegexTree regex = regexForLiterals.getResult();
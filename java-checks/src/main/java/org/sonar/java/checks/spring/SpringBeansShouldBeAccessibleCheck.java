@@ -32,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.check.Rule;
+import org.sonar.java.checks.helpers.PackagePrefixTrie;
 import org.sonar.java.checks.helpers.SpringUtils;
 import org.sonar.java.model.DefaultJavaFileScannerContext;
 import org.sonar.java.model.DefaultModuleScannerContext;
@@ -75,9 +76,9 @@ public class SpringBeansShouldBeAccessibleCheck extends IssuableSubscriptionVisi
    */
   private final Map<String, List<AnalyzerMessage>> messagesPerPackage = new HashMap<>();
   /**
-   * These are the packages that will be scanned by Spring in search of components
+   * These are the packages that will be scanned by Spring in search of components, with their sub-packages
    */
-  private final Set<String> packagesScannedBySpringAtProjectLevel = new HashSet<>();
+  private final PackagePrefixTrie packagesScannedBySpringAtProjectLevel = new PackagePrefixTrie();
 
   /**
    * Used to track the set of packages scanned by this file to cache when exiting the file.
@@ -102,7 +103,7 @@ public class SpringBeansShouldBeAccessibleCheck extends IssuableSubscriptionVisi
     var defaultContext = (DefaultModuleScannerContext) context;
     messagesPerPackage.entrySet().stream()
       // support sub-packages
-      .filter(entry -> packagesScannedBySpringAtProjectLevel.stream().noneMatch(entry.getKey()::contains))
+      .filter(entry -> !packagesScannedBySpringAtProjectLevel.containsPrefixOf(entry.getKey()))
       .forEach(entry -> entry.getValue().forEach(defaultContext::reportIssue));
   }
 
@@ -17,35 +17,32 @@
 package org.sonar.java.filters;
 
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.sonar.api.scan.issue.filter.FilterableIssue;
 import org.sonar.java.model.LineUtils;
 import org.sonar.plugins.java.api.JavaCheck;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 
-public abstract class AnyRuleIssueFilter extends BaseTreeVisitor implements JavaIssueFilter {
+public abstract class AnyRuleIssueFilter extends TreeVisitorIssueFilter {
 
   private String componentKey;
-  private final Set<Integer> excludedLines = new HashSet<>();
+  private final LineIntervals excludedLines = new LineIntervals();
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  boolean startFile(JavaFileScannerContext context) {
     componentKey = context.getInputFile().key();
     excludedLines.clear();
-    scan(context.getTree());
+    return true;
   }
 
   @Override
   public boolean accept(FilterableIssue issue) {
-    return !(issue.componentKey().equals(componentKey) && excludedLines.contains(issue.line()));
+    Integer line = issue.line();
+    return !(issue.componentKey().equals(componentKey) && line != null && excludedLines.contains(line));
   }
 
   @Override
@@ -54,10 +51,6 @@ public abstract class AnyRuleIssueFilter extends BaseTreeVisitor implements Java
   }
 
   public void excludeLines(Tree tree) {
-    excludedLines.addAll(filteredLines(tree));
-  }
-
-  private static Set<Integer> filteredLines(Tree tree) {
     SyntaxToken firstSyntaxToken = tree.firstToken();
     SyntaxToken lastSyntaxToken = tree.lastToken();
     if (firstSyntaxToken != null && lastSyntaxToken != null) {
@@ -70,8 +63,7 @@ public abstract class AnyRuleIssueFilter extends BaseTreeVisitor implements Java
         startLine = LineUtils.startLine(trivias.get(0));
       }
 
-      return IntStream.rangeClosed(startLine, endLine).boxed().collect(Collectors.toSet());
+      excludedLines.add(startLine, endLine);
     }
-    return new HashSet<>();
   }
 }
@@ -0,0 +1,99 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.filters;
+
+import java.util.List;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.ImportTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.VariableTree;
+
+/**
+ * Single walk of the tree of a file, giving each visited node to several filters before visiting its children, instead
+ * of each filter walking the whole tree.
+ * <p>
+ * Only the kinds of trees visited by the filters of {@link PostAnalysisIssueFilter} are given to the filters: a filter
+ * overriding another visit method requires the same method to be overridden here.
+ */
+final class IssueFilterTraversal extends BaseTreeVisitor {
+
+  private final List<TreeVisitorIssueFilter> filters;
+
+  IssueFilterTraversal(List<TreeVisitorIssueFilter> filters) {
+    this.filters = filters;
+  }
+
+  /**
+   * Visits the tree of the file with the filters applying to it.
+   */
+  static void scanFile(JavaFileScannerContext context, List<TreeVisitorIssueFilter> filters) {
+    List<TreeVisitorIssueFilter> applyingFilters = filters.stream()
+      .filter(filter -> filter.startFile(context))
+      .toList();
+    if (!applyingFilters.isEmpty()) {
+      new IssueFilterTraversal(applyingFilters).scan(context.getTree());
+    }
+    applyingFilters.forEach(TreeVisitorIssueFilter::endFile);
+  }
+
+  private void visitNode(Tree tree) {
+    for (TreeVisitorIssueFilter filter : filters) {
+      filter.visitNode(tree);
+    }
+  }
+
+  @Override
+  public void visitImport(ImportTree tree) {
+    visitNode(tree);
+    super.visitImport(tree);
+  }
+
+  @Override
+  public void visitClass(ClassTree tree) {
+    visitNode(tree);
+    super.visitClass(tree);
+  }
+
+  @Override
+  public void visitMethod(MethodTree tree) {
+    visitNode(tree);
+    super.visitMethod(tree);
+  }
+
+  @Override
+  public void visitVariable(VariableTree tree) {
+    visitNode(tree);
+    super.visitVariable(tree);
+  }
+
+  @Override
+  public void visitAssignmentExpression(AssignmentExpressionTree tree) {
+    visitNode(tree);
+    super.visitAssignmentExpression(tree);
+  }
+
+  @Override
+  public void visitIdentifier(IdentifierTree tree) {
+    visitNode(tree);
+    super.visitIdentifier(tree);
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.filters;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Set of lines stored as disjoint intervals, sorted by their first line. Excluding the lines of a tree costs one
+ * interval whatever its number of lines, and looking up a line is logarithmic in the number of intervals.
+ */
+public class LineIntervals {
+
+  /**
+   * Last line of the intervals, by their first line. Intervals never overlap nor touch each other.
+   */
+  private final NavigableMap<Integer, Integer> intervals = new TreeMap<>();
+
+  public void add(int startLine, int endLine) {
+    if (startLine > endLine) {
+      return;
+    }
+    int start = startLine;
+    int end = endLine;
+    Map.Entry<Integer, Integer> previous = intervals.floorEntry(start);
+    if (previous != null && previous.getValue() >= start - 1) {
+      start = previous.getKey();
+      end = Math.max(end, previous.getValue());
+    }
+    NavigableMap<Integer, Integer> merged = intervals.subMap(start, true, end + 1, true);
+    for (int mergedEnd : merged.values()) {
+      end = Math.max(end, mergedEnd);
+    }
+    merged.clear();
+    intervals.put(start, end);
+  }
+
+  public void remove(int startLine, int endLine) {
+    if (startLine > endLine) {
+      return;
+    }
+    Map.Entry<Integer, Integer> previous = intervals.lowerEntry(startLine);
+    if (previous != null && previous.getValue() >= startLine) {
+      intervals.put(previous.getKey(), startLine - 1);
+      if (previous.getValue() > endLine) {
+        intervals.put(endLine + 1, previous.getValue());
+        return;
+      }
+    }
+    NavigableMap<Integer, Integer> removed = intervals.subMap(startLine, true, endLine, true);
+    Map.Entry<Integer, Integer> last = removed.lastEntry();
+    removed.clear();
+    if (last != null && last.getValue() > endLine) {
+      intervals.put(endLine + 1, last.getValue());
+    }
+  }
+
+  public boolean contains(int line) {
+    Map.Entry<Integer, Integer> interval = intervals.floorEntry(line);
+    return interval != null && interval.getValue() >= line;
+  }
+
+  public void clear() {
+    intervals.clear();
+  }
+
+  public boolean isEmpty() {
+    return intervals.isEmpty();
+  }
+
+  /**
+   * @return the intervals, like "[3-11, 15]"
+   */
+  @Override
+  public String toString() {
+    return intervals.entrySet().stream()
+      .map(interval -> interval.getKey().equals(interval.getValue()) ? interval.getKey().toString() : (interval.getKey() + "-" + interval.getValue()))
+      .collect(Collectors.joining(", ", "[", "]"));
+  }
+}
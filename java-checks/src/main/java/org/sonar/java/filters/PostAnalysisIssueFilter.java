@@ -16,6 +16,7 @@
  */
 package org.sonar.java.filters;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -49,8 +50,19 @@ public class PostAnalysisIssueFilter implements JavaFileScanner, SonarJavaIssueF
       && chain.accept(issue);
   }
 
+  /**
+   * The filters visiting the tree of the file share a single traversal of the tree.
+   */
   @Override
   public void scanFile(JavaFileScannerContext context) {
-    issueFilters().forEach(filter -> filter.scanFile(context));
+    List<TreeVisitorIssueFilter> treeVisitorFilters = new ArrayList<>();
+    for (JavaIssueFilter filter : issueFilters()) {
+      if (filter instanceof TreeVisitorIssueFilter treeVisitorFilter) {
+        treeVisitorFilters.add(treeVisitorFilter);
+      } else {
+        filter.scanFile(context);
+      }
+    }
+    IssueFilterTraversal.scanFile(context, treeVisitorFilters);
   }
 }
@@ -0,0 +1,70 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.filters;
+
+import javax.annotation.Nullable;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Issue filter computing the lines to exclude while visiting the tree of a file. Its visit methods handle the visited
+ * tree before visiting its children, so that the filter can either scan a file on its own, or be given the nodes of a
+ * traversal shared with other filters by {@link IssueFilterTraversal}.
+ */
+public abstract class TreeVisitorIssueFilter extends BaseTreeVisitor implements JavaIssueFilter {
+
+  private boolean visitingSingleNode = false;
+
+  @Override
+  public void scanFile(JavaFileScannerContext context) {
+    if (startFile(context)) {
+      scan(context.getTree());
+      endFile();
+    }
+  }
+
+  /**
+   * Resets the excluded lines for the given file.
+   *
+   * @return false when the filter does not apply to the file, which then does not have to be visited
+   */
+  abstract boolean startFile(JavaFileScannerContext context);
+
+  void endFile() {
+    // nothing to do by default
+  }
+
+  /**
+   * Visits the given tree without its children.
+   */
+  final void visitNode(Tree tree) {
+    visitingSingleNode = true;
+    try {
+      tree.accept(this);
+    } finally {
+      visitingSingleNode = false;
+    }
+  }
+
+  @Override
+  protected void scan(@Nullable Tree tree) {
+    if (!visitingSingleNode) {
+      super.scan(tree);
+    }
+  }
+}
@@ -133,6 +133,8 @@ class MissingPackageInfoCheckTest {
     InternalWriteCache localWriteCache = new InternalWriteCache().bind(localReadCache);
     doReturn(inputStream).when(localReadCache).read("java:S1228;S4032:package:" + cachedFile.key());
     doReturn(true).when(localReadCache).contains(any());
+    // no record for the file, its entries are read from their own keys
+    doReturn(false).when(localReadCache).contains("java:fileRecord:" + cachedFile.key());
     doReturn(new ByteArrayInputStream(cachedHash))
       .when(localReadCache).read("java:contentHash:MD5:" + cachedFile.key());
 
@@ -156,9 +158,12 @@ class MissingPackageInfoCheckTest {
       .withCheck(new MissingPackageInfoCheck());
 
     verifier.verifyNoIssues();
-    verifier.verifyNoIssues();
+    // the entries of the file are written again in its record, which is already in the cache
+    assertThatThrownBy(verifier::verifyNoIssues)
+      .isInstanceOf(AnalysisException.class)
+      .hasRootCauseInstanceOf(IllegalArgumentException.class);
     assertThat(logTester.logs(Level.TRACE))
-      .anyMatch(msg -> msg.matches("Could not store data to cache key '[^']+': .+"));
+      .anyMatch(msg -> msg.startsWith("Failed to write the cache record of file "));
   }
 
   @Test
@@ -0,0 +1,68 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.checks.helpers;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PackagePrefixTrieTest {
+
+  @Test
+  void empty_trie_contains_nothing() {
+    PackagePrefixTrie trie = new PackagePrefixTrie();
+    assertThat(trie.containsPrefixOf("org.foo")).isFalse();
+    assertThat(trie.containsPrefixOf("")).isFalse();
+  }
+
+  @Test
+  void contains_added_packages_and_their_sub_packages() {
+    PackagePrefixTrie trie = new PackagePrefixTrie();
+    trie.addAll(List.of("org.foo", "com.bar.baz"));
+
+    assertThat(trie.containsPrefixOf("org.foo")).isTrue();
+    assertThat(trie.containsPrefixOf("org.foo.bar")).isTrue();
+    assertThat(trie.containsPrefixOf("com.bar.baz.qix")).isTrue();
+
+    assertThat(trie.containsPrefixOf("org")).isFalse();
+    assertThat(trie.containsPrefixOf("com.bar")).isFalse();
+    assertThat(trie.containsPrefixOf("org.foobar")).isFalse();
+    assertThat(trie.containsPrefixOf("org.fo")).isFalse();
+    assertThat(trie.containsPrefixOf("com.org.foo")).isFalse();
+    assertThat(trie.containsPrefixOf("")).isFalse();
+  }
+
+  @Test
+  void shorter_package_covers_longer_ones_added_before() {
+    PackagePrefixTrie trie = new PackagePrefixTrie();
+    trie.add("org.foo.bar");
+    assertThat(trie.containsPrefixOf("org.foo.qix")).isFalse();
+    trie.add("org.foo");
+    assertThat(trie.containsPrefixOf("org.foo.qix")).isTrue();
+    assertThat(trie.containsPrefixOf("org.foo.bar.baz")).isTrue();
+  }
+
+  @Test
+  void default_package_contains_every_package() {
+    PackagePrefixTrie trie = new PackagePrefixTrie();
+    trie.add("");
+    assertThat(trie.containsPrefixOf("")).isTrue();
+    assertThat(trie.containsPrefixOf("org.foo")).isTrue();
+  }
+
+}
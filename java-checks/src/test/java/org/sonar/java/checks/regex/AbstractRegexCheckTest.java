@@ -231,6 +231,18 @@ class AbstractRegexCheckTest {
       .verifyIssues();
   }
 
+  @Test
+  void checks_finding_regexes_like_the_base_class_share_the_regex_sites() {
+    assertThat(new ImpossibleBoundariesCheck().sharesRegexDiscovery()).isTrue();
+    assertThat(new PossessiveQuantifierContinuationCheck().sharesRegexDiscovery()).isTrue();
+    assertThat(new RegexComplexityCheck().sharesRegexDiscovery()).isTrue();
+    // other matchers or annotations
+    assertThat(new StringReplaceCheck().sharesRegexDiscovery()).isFalse();
+    assertThat(new EmptyLineRegexCheck().sharesRegexDiscovery()).isFalse();
+    // other visit of the method invocations
+    assertThat(new RedosCheck().sharesRegexDiscovery()).isFalse();
+  }
+
   private static TestCase getArg(String expression, String... preStatements) {
     CompilationUnitTree cut = JParserTestUtils.parse(String.format(JAVA_CODE, Arrays.stream(preStatements).collect(Collectors.joining("\n")), expression));
     ClassTree a = (ClassTree) cut.types().get(0);
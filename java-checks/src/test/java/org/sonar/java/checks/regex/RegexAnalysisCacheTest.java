@@ -0,0 +1,95 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.checks.regex;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.checks.helpers.JParserTestUtils;
+import org.sonar.java.regex.RegexCache;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.LiteralTree;
+import org.sonar.plugins.java.api.tree.VariableTree;
+import org.sonarsource.analyzer.commons.regex.RegexParseResult;
+import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegexAnalysisCacheTest {
+
+  @Test
+  void results_are_shared_by_identical_regexes_of_different_files() {
+    RegexParseResult regexOfFirstFile = parse("\"(a|b)*c\"", new FlagSet());
+    RegexParseResult regexOfSecondFile = parse("\"(a|b)*c\"", new FlagSet());
+
+    RegexAnalysisCache<String> cache = new RegexAnalysisCache<>();
+    AtomicInteger analyses = new AtomicInteger();
+    assertThat(cache.computeIfAbsent(regexOfFirstFile, null, () -> "result" + analyses.incrementAndGet())).isEqualTo("result1");
+    assertThat(cache.computeIfAbsent(regexOfSecondFile, null, () -> "result" + analyses.incrementAndGet())).isEqualTo("result1");
+    assertThat(analyses).hasValue(1);
+  }
+
+  @Test
+  void results_depend_on_the_flags_and_the_options() {
+    RegexParseResult regex = parse("\"a*\"", new FlagSet());
+    RegexParseResult caseInsensitiveRegex = parse("\"a*\"", new FlagSet(Pattern.CASE_INSENSITIVE));
+
+    RegexAnalysisCache<String> cache = new RegexAnalysisCache<>();
+    cache.put(regex, null, "default");
+    assertThat(cache.get(regex, null)).isEqualTo("default");
+    assertThat(cache.get(caseInsensitiveRegex, null)).isNull();
+    assertThat(cache.get(regex, "option")).isNull();
+  }
+
+  @Test
+  void regexes_with_syntax_errors_are_not_cached() {
+    RegexParseResult invalidRegex = parse("\"(a\"", new FlagSet());
+
+    RegexAnalysisCache<String> cache = new RegexAnalysisCache<>();
+    cache.put(invalidRegex, null, "invalid");
+    assertThat(cache.get(invalidRegex, null)).isNull();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void least_recently_used_results_are_evicted() {
+    RegexParseResult a = parse("\"a\"", new FlagSet());
+    RegexParseResult b = parse("\"b\"", new FlagSet());
+    RegexParseResult c = parse("\"c\"", new FlagSet());
+
+    RegexAnalysisCache<String> cache = new RegexAnalysisCache<>(2);
+    cache.put(a, null, "a");
+    cache.put(b, null, "b");
+    assertThat(cache.get(a, null)).isEqualTo("a");
+    cache.put(c, null, "c");
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.get(a, null)).isEqualTo("a");
+    assertThat(cache.get(b, null)).isNull();
+    assertThat(cache.get(c, null)).isEqualTo("c");
+  }
+
+  private static RegexParseResult parse(String stringLiteral, FlagSet flags) {
+    CompilationUnitTree cut = JParserTestUtils.parse("class A { String s = " + stringLiteral + "; }");
+    List<?> members = ((ClassTree) cut.types().get(0)).members();
+    LiteralTree literal = (LiteralTree) ((VariableTree) members.get(0)).initializer();
+    return new RegexCache().getRegexForLiterals(flags, literal);
+  }
+
+}
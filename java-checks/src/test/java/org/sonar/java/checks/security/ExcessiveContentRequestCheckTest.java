@@ -106,7 +106,7 @@ class ExcessiveContentRequestCheckTest {
       verify(check, times(3)).scanWithoutParsing(any());
       verify(check, times(3)).leaveFile(any());
 
-      assertThat(writeCache.getData()).containsAllEntriesOf(expectedFinalCacheState);
+      assertThat(writeCache.getEntries()).containsAllEntriesOf(expectedFinalCacheState);
       List<String> logs = logTester.getLogs(Level.TRACE).stream().map(LogAndArguments::getFormattedMsg).toList();
       assertThat(logs).
         contains(
@@ -138,7 +138,7 @@ class ExcessiveContentRequestCheckTest {
       verify(check, times(2)).scanWithoutParsing(any());
       verify(check, times(1)).leaveFile(any());
 
-      assertThat(writeCache.getData()).containsAllEntriesOf(expectedFinalCacheState);
+      assertThat(writeCache.getEntries()).containsAllEntriesOf(expectedFinalCacheState);
     }
 
     @Test
@@ -162,7 +162,7 @@ class ExcessiveContentRequestCheckTest {
       verify(check, times(1)).scanWithoutParsing(any());
       verify(check, times(2)).leaveFile(any());
 
-      assertThat(writeCache.getData()).containsAllEntriesOf(expectedFinalCacheState);
+      assertThat(writeCache.getEntries()).containsAllEntriesOf(expectedFinalCacheState);
     }
 
     @Test
@@ -184,7 +184,7 @@ class ExcessiveContentRequestCheckTest {
       verify(check, times(3)).scanWithoutParsing(any());
       verify(check, never()).leaveFile(any());
 
-      assertThat(writeCache.getData()).containsAllEntriesOf(expectedFinalCacheState);
+      assertThat(writeCache.getEntries()).containsAllEntriesOf(expectedFinalCacheState);
     }
 
     @Test
@@ -206,11 +206,10 @@ class ExcessiveContentRequestCheckTest {
         .isInstanceOf(AnalysisException.class)
         .hasRootCause(expectedException);
 
+      // the entries of a file are written in its record once the file is done
       assertThat(logTester.getLogs(Level.TRACE))
         .map(LogAndArguments::getFormattedMsg)
-        .contains(
-          "Failed to write to cache for file " + safeSourceFile
-        );
+        .anyMatch(msg -> msg.startsWith("Failed to write the cache record of file "));
     }
 
     @Test
@@ -274,7 +273,7 @@ class ExcessiveContentRequestCheckTest {
         "Cached entry is unreadable for rule java:S5693 on file " + safeSourceFile
       );
 
-      assertThat(writeCache.getData()).containsAllEntriesOf(expectedFinalCacheState);
+      assertThat(writeCache.getEntries()).containsAllEntriesOf(expectedFinalCacheState);
     }
 
     @Test
@@ -205,6 +205,8 @@ class SpringBeansShouldBeAccessibleCheckTest {
 
     doReturn(inputStream).when(localReadCache).read("java:S4605:targeted:" + cachedFile.key());
     doReturn(true).when(localReadCache).contains(any());
+    // no record for the file, its entries are read from their own keys
+    doReturn(false).when(localReadCache).contains("java:fileRecord:" + cachedFile.key());
     doReturn(new ByteArrayInputStream(cachedHash))
       .when(localReadCache).read("java:contentHash:MD5:" + cachedFile.key());
 
@@ -228,11 +230,12 @@ class SpringBeansShouldBeAccessibleCheckTest {
       .withCheck(new SpringBeansShouldBeAccessibleCheck());
 
     verifier.verifyNoIssues();
-    verifier.verifyNoIssues();
-
-    assertThat(logTester.logs(Level.TRACE).stream().filter(
-      msg -> msg.matches("Tried to write multiple times to cache key '[^']+'\\. Ignoring writes after the first\\.")
-    )).hasSize(1);
+    // the entries of the file are written again in its record, which is already in the cache
+    assertThatThrownBy(verifier::verifyNoIssues)
+      .isInstanceOf(AnalysisException.class)
+      .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    assertThat(logTester.logs(Level.TRACE))
+      .anyMatch(msg -> msg.startsWith("Failed to write the cache record of file "));
   }
 
   @Test
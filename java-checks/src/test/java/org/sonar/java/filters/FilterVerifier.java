@@ -47,6 +47,8 @@ import org.sonar.java.reporting.AnalyzerMessage;
 import org.sonar.java.testing.JavaFileScannerContextForTests;
 import org.sonar.java.testing.VisitorsBridgeForTests;
 import org.sonar.plugins.java.api.JavaCheck;
+import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 
@@ -69,7 +71,8 @@ public class FilterVerifier {
   public void verify(String filename, JavaIssueFilter filter, JavaCheck... extraJavaChecks) {
     IssueCollector issueCollector = new IssueCollector();
     List<JavaCheck> visitors = new ArrayList<>();
-    visitors.add(filter);
+    // filters visiting the tree are verified as run by PostAnalysisIssueFilter
+    visitors.add(filter instanceof TreeVisitorIssueFilter treeVisitorFilter ? new IssueFilterTraversalScanner(treeVisitorFilter) : filter);
     visitors.add(issueCollector);
 
     // instantiate the rules filtered by the filter
@@ -171,6 +174,20 @@ public class FilterVerifier {
     }
   }
 
+  private static class IssueFilterTraversalScanner implements JavaFileScanner {
+
+    private final TreeVisitorIssueFilter filter;
+
+    IssueFilterTraversalScanner(TreeVisitorIssueFilter filter) {
+      this.filter = filter;
+    }
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      IssueFilterTraversal.scanFile(context, List.of(filter));
+    }
+  }
+
   private static SonarComponents sonarComponents(InputFile inputFile) {
     SensorContextTester context = SensorContextTester.create(new File("")).setRuntime(SonarRuntimeImpl.forSonarLint(Version.create(6, 7)));
     context.setSettings(new MapSettings().setProperty(SonarComponents.FAIL_ON_EXCEPTION_KEY, true));
@@ -0,0 +1,110 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.filters;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.scan.issue.filter.FilterableIssue;
+import org.sonar.java.ast.JavaAstScanner;
+import org.sonar.java.checks.verifier.TestUtils;
+import org.sonar.java.model.JavaVersionImpl;
+import org.sonar.java.testing.VisitorsBridgeForTests;
+import org.sonar.plugins.java.api.JavaCheck;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.sonar.java.test.classpath.TestClasspathUtils.DEFAULT_MODULE;
+
+class IssueFilterTraversalTest {
+
+  @Test
+  void all_the_visit_methods_of_the_filters_are_dispatched() {
+    Set<String> dispatchedVisitMethods = declaredVisitMethods(IssueFilterTraversal.class);
+    for (JavaIssueFilter filter : new PostAnalysisIssueFilter().issueFilters()) {
+      for (Class<?> c = filter.getClass(); c != TreeVisitorIssueFilter.class; c = c.getSuperclass()) {
+        assertThat(dispatchedVisitMethods)
+          .as("visit methods of " + c.getSimpleName())
+          .containsAll(declaredVisitMethods(c));
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "src/test/files/filters/LombokFilter.java",
+    "src/test/files/filters/SuppressWarningFilter.java",
+    "src/test/files/filters/GeneratedCodeFilter.java"
+  })
+  void shared_traversal_excludes_the_same_lines_as_separate_scans(String filename) {
+    PostAnalysisIssueFilter postAnalysisIssueFilter = new PostAnalysisIssueFilter();
+    List<JavaIssueFilter> separateFilters = List.of(
+      new EclipseI18NFilter(),
+      new LombokFilter(),
+      new GoogleAutoFilter(),
+      new SuppressWarningFilter(),
+      new GeneratedCodeFilter(),
+      new SpringFilter());
+    List<JavaCheck> visitors = new ArrayList<>(separateFilters);
+    visitors.add(postAnalysisIssueFilter);
+    List<File> classpath = new ArrayList<>(DEFAULT_MODULE.getClassPath());
+    classpath.add(new File("target/test-classes"));
+    InputFile inputFile = TestUtils.inputFile(filename);
+    JavaAstScanner.scanSingleFileForTests(inputFile, new VisitorsBridgeForTests(visitors, classpath, null, new JavaVersionImpl()));
+
+    List<JavaIssueFilter> sharedFilters = postAnalysisIssueFilter.issueFilters();
+    assertThat(sharedFilters).extracting(Object::getClass).containsExactlyElementsOf(separateFilters.stream().map(Object::getClass).toList());
+    for (int i = 0; i < separateFilters.size(); i++) {
+      JavaIssueFilter separateFilter = separateFilters.get(i);
+      JavaIssueFilter sharedFilter = sharedFilters.get(i);
+      if (separateFilter instanceof BaseTreeVisitorIssueFilter separateTreeVisitorFilter) {
+        assertThat(excludedLines((BaseTreeVisitorIssueFilter) sharedFilter)).isEqualTo(excludedLines(separateTreeVisitorFilter));
+      }
+      for (int line = 1; line <= inputFile.lines(); line++) {
+        FilterableIssue issue = mock(FilterableIssue.class);
+        when(issue.componentKey()).thenReturn(inputFile.key());
+        when(issue.ruleKey()).thenReturn(RuleKey.of("java", "S1068"));
+        when(issue.line()).thenReturn(line);
+        assertThat(sharedFilter.accept(issue)).as(separateFilter.getClass().getSimpleName() + " at line " + line).isEqualTo(separateFilter.accept(issue));
+      }
+    }
+  }
+
+  private static TreeMap<String, String> excludedLines(BaseTreeVisitorIssueFilter filter) {
+    return filter.excludedLinesByRule().entrySet().stream()
+      .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toString(), (a, b) -> a, TreeMap::new));
+  }
+
+  private static Set<String> declaredVisitMethods(Class<?> c) {
+    return Arrays.stream(c.getDeclaredMethods())
+      .map(Method::getName)
+      .filter(name -> name.startsWith("visit") && !"visitNode".equals(name))
+      .collect(Collectors.toSet());
+  }
+}
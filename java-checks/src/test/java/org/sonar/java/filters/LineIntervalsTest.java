@@ -0,0 +1,92 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.filters;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LineIntervalsTest {
+
+  @Test
+  void empty() {
+    LineIntervals lines = new LineIntervals();
+    assertThat(lines.isEmpty()).isTrue();
+    assertThat(lines.contains(1)).isFalse();
+    assertThat(lines).hasToString("[]");
+
+    lines.add(3, 2);
+    assertThat(lines.isEmpty()).isTrue();
+  }
+
+  @Test
+  void added_intervals_are_merged() {
+    LineIntervals lines = new LineIntervals();
+    lines.add(10, 12);
+    lines.add(1, 2);
+    lines.add(20, 20);
+    assertThat(lines).hasToString("[1-2, 10-12, 20]");
+    assertThat(lines.contains(2)).isTrue();
+    assertThat(lines.contains(3)).isFalse();
+    assertThat(lines.contains(9)).isFalse();
+    assertThat(lines.contains(10)).isTrue();
+    assertThat(lines.contains(20)).isTrue();
+    assertThat(lines.contains(21)).isFalse();
+
+    // touching intervals
+    lines.add(3, 4);
+    assertThat(lines).hasToString("[1-4, 10-12, 20]");
+    // included interval
+    lines.add(11, 11);
+    assertThat(lines).hasToString("[1-4, 10-12, 20]");
+    // interval overlapping several ones
+    lines.add(8, 20);
+    assertThat(lines).hasToString("[1-4, 8-20]");
+    lines.add(2, 30);
+    assertThat(lines).hasToString("[1-30]");
+  }
+
+  @Test
+  void removed_intervals_split_or_drop_intervals() {
+    LineIntervals lines = new LineIntervals();
+    lines.add(1, 30);
+    lines.remove(10, 12);
+    assertThat(lines).hasToString("[1-9, 13-30]");
+    assertThat(lines.contains(9)).isTrue();
+    assertThat(lines.contains(10)).isFalse();
+    assertThat(lines.contains(12)).isFalse();
+    assertThat(lines.contains(13)).isTrue();
+
+    lines.remove(5, 15);
+    assertThat(lines).hasToString("[1-4, 16-30]");
+    lines.remove(16, 16);
+    assertThat(lines).hasToString("[1-4, 17-30]");
+    lines.remove(30, 40);
+    assertThat(lines).hasToString("[1-4, 17-29]");
+    lines.remove(0, 17);
+    assertThat(lines).hasToString("[18-29]");
+    lines.remove(12, 11);
+    assertThat(lines).hasToString("[18-29]");
+    lines.remove(1, 100);
+    assertThat(lines.isEmpty()).isTrue();
+
+    lines.add(1, 5);
+    lines.clear();
+    assertThat(lines.isEmpty()).isTrue();
+  }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.eclipse.jdt.core.dom;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.eclipse.jdt.internal.compiler.batch.Main;
+import org.eclipse.jdt.internal.compiler.util.Util;
+
+/**
+ * Classpath entries of ECJ, with their opened jars and their package indexes, shared by the name environments of several
+ * calls to {@link #createASTs}. {@link ASTParser#createASTs} instead opens every jar of the classpath again for each call.
+ * <p>
+ * The entries are opened once by {@link #create} and closed once by {@link #cleanup}, the name environments built on them
+ * must not be cleaned up in between. The entries are lazily initialized and mutable (e.g. the package cache of a jar), so the
+ * calls to {@link #createASTs} must not run concurrently.
+ */
+public final class SharedClasspath {
+
+  private final List<FileSystem.Classpath> entries;
+
+  private SharedClasspath(List<FileSystem.Classpath> entries) {
+    this.entries = entries;
+  }
+
+  /**
+   * Same entries as the ones created by {@link ASTParser#setEnvironment(String[], String[], String[], boolean)} without source path.
+   */
+  public static SharedClasspath create(String[] classpath, boolean includeRunningVMBootclasspath) {
+    ArrayList<FileSystem.Classpath> entries = new ArrayList<>();
+    if (includeRunningVMBootclasspath) {
+      Util.collectRunningVMBootclasspath(entries);
+    }
+    Main main = new Main(new PrintWriter(System.out), new PrintWriter(System.err), false, null, null);
+    for (String path : classpath) {
+      main.processPathEntries(Main.DEFAULT_SIZE_CLASSPATH, entries, path, null, false, false);
+    }
+    if (main.pendingErrors != null && !main.pendingErrors.isEmpty()) {
+      throw new IllegalStateException("invalid environment settings");
+    }
+    // Opened upfront, once for all the name environments
+    for (FileSystem.Classpath entry : entries) {
+      try {
+        entry.initialize();
+      } catch (IOException e) {
+        // left to the name environments, which ignore the entries that cannot be opened
+      }
+    }
+    return new SharedClasspath(Collections.unmodifiableList(entries));
+  }
+
+  /**
+   * Equivalent of {@link ASTParser#createASTs(String[], String[], String[], FileASTRequestor, IProgressMonitor)} for a parser
+   * resolving bindings with bindings recovery.
+   */
+  public void createASTs(String[] sourceFilePaths, String[] encodings, FileASTRequestor requestor, int apiLevel, Map<String, String> compilerOptions,
+    IProgressMonitor monitor) {
+    CompilationUnitResolverDiscovery.getInstance().resolve(sourceFilePaths, encodings, new String[0], requestor, apiLevel, compilerOptions, entries,
+      ICompilationUnit.ENABLE_BINDINGS_RECOVERY, monitor);
+  }
+
+  /**
+   * Closes the jars, see SONARJAVA-3609.
+   */
+  public void cleanup() {
+    entries.forEach(FileSystem.Classpath::reset);
+  }
+
+}
@@ -16,6 +16,10 @@
  */
 package org.sonar.java;
 
+/**
+ * Tracks the progress of an analysis split in batches. Batches can be processed concurrently, in which case
+ * the current batch size is the total size of the batches in progress.
+ */
 public class AnalysisProgress {
   private final int totalFileCount;
   private int currentBatchSize;
@@ -27,24 +31,28 @@ public class AnalysisProgress {
     analysedFileCount = 0;
   }
 
-  public void startBatch(int currentBatchSize) {
-    this.currentBatchSize = currentBatchSize;
+  public synchronized void startBatch(int batchSize) {
+    this.currentBatchSize += batchSize;
+  }
+
+  public synchronized void endBatch() {
+    endBatch(currentBatchSize);
   }
 
-  public void endBatch() {
-    this.analysedFileCount += currentBatchSize;
-    this.currentBatchSize = 0;
+  public synchronized void endBatch(int batchSize) {
+    this.analysedFileCount += batchSize;
+    this.currentBatchSize -= batchSize;
   }
 
-  public boolean isFirstBatch() {
+  public synchronized boolean isFirstBatch() {
     return analysedFileCount == 0;
   }
 
-  public boolean isLastBatch() {
+  public synchronized boolean isLastBatch() {
     return analysedFileCount + currentBatchSize == totalFileCount;
   }
 
-  public double toGlobalPercentage(double currentBatchPercentage) {
+  public synchronized double toGlobalPercentage(double currentBatchPercentage) {
     if (totalFileCount == 0) {
       return 0;
     }
@@ -17,19 +17,35 @@
 package org.sonar.java;
 
 import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
+import org.eclipse.jdt.core.dom.SharedClasspath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
@@ -61,6 +77,7 @@ public class JavaFrontend {
   private final JavaAstScanner astScanner;
   private final JavaAstScanner astScannerForTests;
   private final JavaAstScanner astScannerForGeneratedFiles;
+  private final Object analysisLock = new Object();
 
   public JavaFrontend(JavaVersion javaVersion, @Nullable SonarComponents sonarComponents, @Nullable Measurer measurer,
                       JavaResourceLocator javaResourceLocator, @Nullable SonarJavaIssueFilter postAnalysisIssueFilter, JavaCheck... visitors) {
@@ -213,38 +230,151 @@ public class JavaFrontend {
     long batchModeSizeInKB = getBatchModeSizeInKB();
     if (batchModeSizeInKB < 0L || batchModeSizeInKB >= Long.MAX_VALUE / 1_000L) {
       LOG.info("{} in a single batch.", logUsingBatch);
-      scanBatch(context, allInputFiles, analysisProgress);
+      scanBatch(context, allInputFiles, analysisProgress, null, this::analysisCancelled, false);
     } else {
       long batchSize = batchModeSizeInKB * 1_000L;
       LOG.info("{} with batch size {} KB.", logUsingBatch, batchModeSizeInKB);
-      BatchGenerator generator = new BatchGenerator(allInputFiles.iterator(), batchSize);
+      BatchGenerator generator = new BatchGenerator(groupByDirectory(allInputFiles).iterator(), batchSize);
+      int batchModeThreads = getBatchModeThreads();
+      if (batchModeThreads > 1) {
+        LOG.info("Parsing up to {} batches concurrently.", batchModeThreads);
+        // The classpath entries of ECJ are lazily initialized and mutable, they cannot be shared by concurrent batches
+        scanBatchesConcurrently(context, generator, analysisProgress, batchModeThreads);
+      } else {
+        scanBatchesSequentially(context, generator, analysisProgress, batchSize);
+      }
+    }
+  }
+
+  private void scanBatchesSequentially(BatchModeContext context, BatchGenerator generator, AnalysisProgress analysisProgress, long batchSize) {
+    // The jars of the classpath are opened once for all the batches, instead of once per batch
+    SharedClasspath sharedClasspath = JParserConfig.sharedClasspath(context.getClasspath());
+    try {
+      AdaptiveBatchSize adaptiveBatchSize = isBatchModeSizeConfigured()
+        ? null
+        : new AdaptiveBatchSize(batchSize, AdaptiveBatchSize::heapOccupancyAfterLastGC);
       while (generator.hasNext()) {
         List<InputFile> batch = generator.next();
-        scanBatch(context, batch, analysisProgress);
+        long start = System.nanoTime();
+        scanBatch(context, batch, analysisProgress, sharedClasspath, this::analysisCancelled, false);
+        if (adaptiveBatchSize != null) {
+          generator.setBatchSizeInBytes(adaptiveBatchSize.batchDone(BatchGenerator.sizeInBytes(batch), System.nanoTime() - start));
+        }
+      }
+    } finally {
+      sharedClasspath.cleanup();
+    }
+  }
+
+  /**
+   * Parses the batches on a pool of workers. Every batch has its own ECJ environment and classpath entries, so parsing and
+   * semantic resolution run concurrently, while the analysis of the files (checks, issue reporting, caching) is serialized through {@link #analysisLock}
+   * because the visitors are shared between batches. The end of analysis is triggered once, by the caller, after all the batches
+   * are done. The batches are all submitted upfront, so they keep the initial batch size.
+   */
+  private void scanBatchesConcurrently(BatchModeContext context, BatchGenerator generator, AnalysisProgress analysisProgress, int threads) {
+    AtomicInteger workerCount = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "Java batch analyzer " + workerCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    // Set when a batch failed, so that the batches still running stop at their next file
+    AtomicBoolean stopped = new AtomicBoolean();
+    BooleanSupplier isCanceled = () -> stopped.get() || analysisCancelled();
+    try {
+      List<Future<?>> batches = new ArrayList<>();
+      while (generator.hasNext()) {
+        List<InputFile> batch = generator.next();
+        batches.add(executor.submit(() -> scanBatch(context, batch, analysisProgress, null, isCanceled, true)));
+      }
+      for (Future<?> batch : batches) {
+        waitForBatch(batch);
+      }
+    } finally {
+      stopped.set(true);
+      executor.shutdownNow();
+      awaitTermination(executor);
+    }
+  }
+
+  /**
+   * Waits for the batches still running, so that no file is analyzed after the end of analysis nor concurrently with the next
+   * steps of the sensor.
+   */
+  private static void awaitTermination(ExecutorService executor) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+          break;
+        }
+        LOG.debug("Waiting for the batches still running to stop.");
+      } catch (InterruptedException e) {
+        interrupted = true;
       }
     }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
   }
 
-  private <T extends InputFile> void scanBatch(BatchModeContext context, List<T> batchFiles, AnalysisProgress analysisProgress) {
+  private static void waitForBatch(Future<?> batch) {
+    try {
+      batch.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AnalysisException("Analysis cancelled", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new AnalysisException(BATCH_ERROR_MESSAGE, e);
+    }
+  }
+
+  /**
+   * @param sharedClasspath the classpath entries shared with the other batches, cleaned up by the caller, or null to open the
+   *                        classpath for this batch only
+   * @param concurrent      whether other batches are parsed at the same time, in which case parsing is not measured
+   */
+  private <T extends InputFile> void scanBatch(BatchModeContext context, List<T> batchFiles, AnalysisProgress analysisProgress,
+    @Nullable SharedClasspath sharedClasspath, BooleanSupplier isCanceled, boolean concurrent) {
     analysisProgress.startBatch(batchFiles.size());
     Set<Runnable> environmentsCleaners = new HashSet<>();
     boolean shouldIgnoreUnnamedModuleForSplitPackage = sonarComponents!= null && sonarComponents.shouldIgnoreUnnamedModuleForSplitPackage();
-    JParserConfig.Mode.BATCH
-      .create(javaVersion, context.getClasspath(), shouldIgnoreUnnamedModuleForSplitPackage)
-      .parse(batchFiles, this::analysisCancelled, analysisProgress, (input, result) -> scanAsBatchCallback(input, result, context, environmentsCleaners));
+    JParserConfig config = JParserConfig.Mode.BATCH.create(javaVersion, context.getClasspath(), shouldIgnoreUnnamedModuleForSplitPackage);
+    if (sharedClasspath != null) {
+      config.withSharedClasspath(sharedClasspath);
+    }
+    if (concurrent) {
+      // Only the analysis of the files, serialized through analysisLock, is measured
+      config.withoutPerformanceMeasures();
+    }
+    config.parse(batchFiles, isCanceled, analysisProgress, (input, result) -> scanAsBatchCallback(input, result, context, environmentsCleaners));
     // Due to a bug in ECJ, JAR files remain locked after the analysis on Windows, we unlock them manually, at the end of each batches. See SONARJAVA-3609.
-    environmentsCleaners.forEach(Runnable::run);
-    analysisProgress.endBatch();
+    // The name environments built on a shared classpath hold no other entry than the shared ones, which are unlocked once by the
+    // owner of the shared classpath, after the last batch: cleaning up these environments would reset entries still in use.
+    if (sharedClasspath == null) {
+      environmentsCleaners.forEach(Runnable::run);
+    }
+    analysisProgress.endBatch(batchFiles.size());
   }
 
-  private static void scanAsBatchCallback(InputFile inputFile, JParserConfig.Result result, BatchModeContext context, Set<Runnable> environmentsCleaners) {
-    JavaAstScanner scanner = context.selectScanner(inputFile);
-    Duration duration = PerformanceMeasure.start(context.descriptor(inputFile));
-    scanner.simpleScan(inputFile, result, ast ->
-      // In batch mode, we delay the cleaning of the environment as it will be used in later processing.
-      environmentsCleaners.add(ast.sema.getEnvironmentCleaner())
-    );
-    duration.stop();
+  private void scanAsBatchCallback(InputFile inputFile, JParserConfig.Result result, BatchModeContext context, Set<Runnable> environmentsCleaners) {
+    synchronized (analysisLock) {
+      JavaAstScanner scanner = context.selectScanner(inputFile);
+      Duration duration = PerformanceMeasure.start(context.descriptor(inputFile));
+      scanner.simpleScan(inputFile, result, ast ->
+        // In batch mode, we delay the cleaning of the environment as it will be used in later processing.
+        environmentsCleaners.add(ast.sema.getEnvironmentCleaner())
+      );
+      duration.stop();
+    }
   }
 
   interface BatchModeContext {
@@ -326,8 +456,98 @@ public class JavaFrontend {
 
   }
 
+  /**
+   * Orders the files so that the files of a directory, which usually are the files of a package, are next to each other and
+   * end up in the same batches, where ECJ resolves the bindings they have in common once. The directories keep the order of
+   * their first file.
+   */
+  static List<InputFile> groupByDirectory(List<InputFile> inputFiles) {
+    Map<File, List<InputFile>> filesByDirectory = new LinkedHashMap<>();
+    for (InputFile inputFile : inputFiles) {
+      filesByDirectory.computeIfAbsent(inputFile.file().getParentFile(), directory -> new ArrayList<>()).add(inputFile);
+    }
+    List<InputFile> result = new ArrayList<>(inputFiles.size());
+    filesByDirectory.values().forEach(result::addAll);
+    return result;
+  }
+
+  /**
+   * Size of the next batch, computed from the heap occupancy and the duration of the last batch, when the batch size is not
+   * configured. The size is halved when more than {@link #HIGH_HEAP_OCCUPANCY} of the heap is still used after the last
+   * garbage collection. It grows by half when less than {@link #LOW_HEAP_OCCUPANCY} of the heap is used and when, at the
+   * speed of the last batch, the bigger batch would still be parsed and analyzed within {@link #TARGET_BATCH_DURATION_NANOS}.
+   * It stays between a quarter and ten times the initial size.
+   */
+  static class AdaptiveBatchSize {
+    static final double HIGH_HEAP_OCCUPANCY = 0.7;
+    static final double LOW_HEAP_OCCUPANCY = 0.4;
+    static final long TARGET_BATCH_DURATION_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final long minSizeInBytes;
+    private final long maxSizeInBytes;
+    private final DoubleSupplier heapOccupancy;
+    private long sizeInBytes;
+
+    AdaptiveBatchSize(long initialSizeInBytes, DoubleSupplier heapOccupancy) {
+      this.sizeInBytes = initialSizeInBytes;
+      this.minSizeInBytes = initialSizeInBytes / 4;
+      this.maxSizeInBytes = initialSizeInBytes * 10;
+      this.heapOccupancy = heapOccupancy;
+    }
+
+    long batchDone(long batchSizeInBytes, long batchDurationNanos) {
+      double occupancy = heapOccupancy.getAsDouble();
+      long nextSize = sizeInBytes;
+      if (occupancy > HIGH_HEAP_OCCUPANCY) {
+        nextSize = Math.max(minSizeInBytes, sizeInBytes / 2);
+      } else if (occupancy < LOW_HEAP_OCCUPANCY) {
+        long biggerSize = Math.min(maxSizeInBytes, sizeInBytes + sizeInBytes / 2);
+        double nanosPerByte = batchSizeInBytes == 0 ? 0 : (batchDurationNanos / (double) batchSizeInBytes);
+        if (biggerSize * nanosPerByte <= TARGET_BATCH_DURATION_NANOS) {
+          nextSize = biggerSize;
+        }
+      }
+      if (nextSize != sizeInBytes) {
+        LOG.debug("Heap occupancy {}%, next batch size {} KB.", Math.round(occupancy * 100), nextSize / 1_000L);
+        sizeInBytes = nextSize;
+      }
+      return sizeInBytes;
+    }
+
+    /**
+     * Ratio of the maximum heap that was still used after the last garbage collection of each heap memory pool. The current usage
+     * of the pools that were not collected yet is used instead, as their usage after the last collection is still 0.
+     */
+    static double heapOccupancyAfterLastGC() {
+      return heapOccupancyAfterLastGC(ManagementFactory.getMemoryPoolMXBeans(), ManagementFactory.getGarbageCollectorMXBeans(),
+        Runtime.getRuntime().maxMemory());
+    }
+
+    @VisibleForTesting
+    static double heapOccupancyAfterLastGC(List<MemoryPoolMXBean> pools, List<GarbageCollectorMXBean> collectors, long maxMemory) {
+      Set<String> collectedPools = new HashSet<>();
+      for (GarbageCollectorMXBean collector : collectors) {
+        if (collector.getCollectionCount() > 0) {
+          collectedPools.addAll(Arrays.asList(collector.getMemoryPoolNames()));
+        }
+      }
+      long used = 0L;
+      for (MemoryPoolMXBean pool : pools) {
+        if (pool.getType() != MemoryType.HEAP) {
+          continue;
+        }
+        MemoryUsage collectionUsage = pool.getCollectionUsage();
+        MemoryUsage usage = collectionUsage != null && collectedPools.contains(pool.getName()) ? collectionUsage : pool.getUsage();
+        if (usage != null) {
+          used += usage.getUsed();
+        }
+      }
+      return used / (double) maxMemory;
+    }
+  }
+
   static class BatchGenerator {
-    public final long batchSizeInBytes;
+    private long batchSizeInBytes;
     private final Iterator<InputFile> source;
     private InputFile buffer = null;
 
@@ -341,6 +561,21 @@ public class JavaFrontend {
       return buffer != null || source.hasNext();
     }
 
+    public long batchSizeInBytes() {
+      return batchSizeInBytes;
+    }
+
+    /**
+     * Size threshold of the next batches.
+     */
+    public void setBatchSizeInBytes(long batchSizeInBytes) {
+      this.batchSizeInBytes = batchSizeInBytes;
+    }
+
+    static long sizeInBytes(List<InputFile> batch) {
+      return batch.stream().mapToLong(inputFile -> inputFile.file().length()).sum();
+    }
+
     public List<InputFile> next() {
       List<InputFile> batch = clearBuffer();
       long batchSize = batch.isEmpty() ? 0L : batch.get(0).file().length();
@@ -388,6 +623,16 @@ public class JavaFrontend {
     return sonarComponents == null ? -1L : sonarComponents.getBatchModeSizeInKB();
   }
 
+  @VisibleForTesting
+  boolean isBatchModeSizeConfigured() {
+    return sonarComponents != null && sonarComponents.isBatchModeSizeConfigured();
+  }
+
+  @VisibleForTesting
+  int getBatchModeThreads() {
+    return sonarComponents == null ? 1 : sonarComponents.getBatchModeThreads();
+  }
+
   private boolean isCacheEnabled() {
     return sonarComponents != null && CacheContextImpl.of(sonarComponents).isCacheEnabled();
   }
@@ -27,8 +27,7 @@ import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.issue.NoSonarFilter;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.Metric;
-import org.sonar.java.ast.visitors.CognitiveComplexityVisitor;
-import org.sonar.java.ast.visitors.SubscriptionVisitor;
+import org.sonar.java.ast.visitors.FusableSubscriptionVisitor;
 import org.sonar.java.metrics.MetricsScannerContext;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
@@ -36,7 +35,7 @@ import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.NewClassTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
-public class Measurer extends SubscriptionVisitor {
+public class Measurer extends FusableSubscriptionVisitor {
 
   private final SensorContext sensorContext;
   private final NoSonarFilter noSonarFilter;
@@ -69,19 +68,31 @@ public class Measurer extends SubscriptionVisitor {
 
   @Override
   public void scanFile(JavaFileScannerContext context) {
-    sonarFile = context.getInputFile();
-    var metricsComputer = ((MetricsScannerContext)context).getMetricsComputer();
-    noSonarFilter.noSonarInFile(sonarFile, metricsComputer.getNoSonarLines(context.getTree()));
-    if(isSonarLintContext()) {
+    if (isSonarLintContext()) {
       // No need to compute metrics on SonarLint side, but the no sonar filter is still required
+      setContext(context);
       return;
     }
+    super.scanFile(context);
+  }
+
+  @Override
+  public void setContext(JavaFileScannerContext context) {
+    sonarFile = context.getInputFile();
+    var metricsComputer = ((MetricsScannerContext)context).getMetricsComputer();
+    noSonarFilter.noSonarInFile(sonarFile, metricsComputer.getNoSonarLines(context.getTree()));
     classTrees.clear();
     methods = 0;
     classes = 0;
     super.setContext(context);
-    scanTree(context.getTree());
-    //leave file.
+  }
+
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
+    if (isSonarLintContext()) {
+      return;
+    }
+    var metricsComputer = ((MetricsScannerContext)context).getMetricsComputer();
     saveMetricOnFile(CoreMetrics.CLASSES, classes);
     saveMetricOnFile(CoreMetrics.FUNCTIONS, methods);
     saveMetricOnFile(CoreMetrics.COMPLEXITY, metricsComputer.getComplexityNodes(context.getTree()).size());
@@ -89,7 +100,7 @@ public class Measurer extends SubscriptionVisitor {
     saveMetricOnFile(CoreMetrics.STATEMENTS, metricsComputer.getNumberOfStatements(context.getTree()));
     saveMetricOnFile(CoreMetrics.NCLOC, metricsComputer.getLinesOfCode(context.getTree()));
 
-    saveMetricOnFile(CoreMetrics.COGNITIVE_COMPLEXITY, CognitiveComplexityVisitor.compilationUnitComplexity(context.getTree()));
+    saveMetricOnFile(CoreMetrics.COGNITIVE_COMPLEXITY, metricsComputer.getCompilationUnitComplexity(context.getTree()));
   }
 
   private boolean isSonarLintContext() {
@@ -59,7 +59,9 @@ import org.sonar.api.rule.RuleKey;
 import org.sonar.api.rule.RuleScope;
 import org.sonar.api.utils.Version;
 import org.sonar.java.annotations.VisibleForTesting;
+import org.sonar.java.caching.ContentHashAlgorithm;
 import org.sonar.java.caching.ContentHashCache;
+import org.sonar.java.caching.ContentHashRegistry;
 import org.sonar.java.classpath.ClasspathForMain;
 import org.sonar.java.classpath.ClasspathForTest;
 import org.sonar.java.exceptions.ApiMismatchException;
@@ -89,6 +91,10 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
   public static final String SONAR_AUTOSCAN_CHECK_FILTERING = "sonar.internal.analysis.autoscan.filtering";
   public static final String SONAR_BATCH_SIZE_KEY = "sonar.java.experimental.batchModeSizeInKB";
   public static final String SONAR_FILE_BY_FILE = "sonar.java.fileByFile";
+  /**
+   * Number of batches that can be parsed concurrently in batch mode. By default, batches are processed one at a time.
+   */
+  public static final String SONAR_BATCH_MODE_THREADS_KEY = "sonar.java.experimental.batchModeThreads";
   /**
    * Describes if an optimized analysis of unchanged by skipping some rules is enabled.
    * By default, the property is not set (null), leaving SQ/SC to decide whether to enable this behavior.
@@ -96,6 +102,12 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
    */
   public static final String SONAR_CAN_SKIP_UNCHANGED_FILES_KEY = "sonar.java.skipUnchanged";
 
+  /**
+   * Selects the algorithm used to hash the content of files when deciding whether they changed since the previous analysis.
+   * Supported values are the names of {@link ContentHashAlgorithm}, MD5 being the default.
+   */
+  public static final String SONAR_CONTENT_HASH_ALGORITHM_KEY = "sonar.java.caching.contentHashAlgorithm";
+
   /**
    * Describes whether input files should be parsed while ignoring unnamed split modules.
    * In practice, enabling this parameter should help developers in the Android ecosystem and those
@@ -128,7 +140,13 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
   private UnaryOperator<List<JavaCheck>> checkFilter = UnaryOperator.identity();
   private final Set<RuleKey> additionalAutoScanCompatibleRuleKeys;
 
-  private boolean alreadyLoggedSkipStatus = false;
+  // Per-analysis state of the "skip unchanged files" optimization, reset with the sensor context
+  @Nullable
+  private Boolean canSkipUnchangedFilesInContext;
+  @Nullable
+  private ContentHashCache contentHashCache;
+  @Nullable
+  private Map<String, Boolean> fileSkipDecisions;
 
   public SonarComponents(FileLinesContextFactory fileLinesContextFactory, FileSystem fs,
     ClasspathForMain javaClasspath, ClasspathForTest javaTestClasspath,
@@ -224,6 +242,9 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
 
   public void setSensorContext(SensorContext context) {
     this.context = context;
+    this.canSkipUnchangedFilesInContext = null;
+    this.contentHashCache = null;
+    this.fileSkipDecisions = null;
   }
 
   public void setCheckFilter(UnaryOperator<List<JavaCheck>> checkFilter) {
@@ -468,7 +489,14 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
   public boolean isAutoScan() {
     return (context.config().getBoolean(SONAR_BATCH_MODE_KEY).orElse(false) ||
       context.config().getBoolean(SONAR_AUTOSCAN).orElse(false)) &&
-      !context.config().hasKey(SONAR_BATCH_SIZE_KEY);
+      !isBatchModeSizeConfigured();
+  }
+
+  /**
+   * @return true when the batch mode size is set, false when it is computed from the available memory and adjusted during the analysis
+   */
+  public boolean isBatchModeSizeConfigured() {
+    return context.config().hasKey(SONAR_BATCH_SIZE_KEY);
   }
 
   public boolean isAutoScanCheckFiltering() {
@@ -488,6 +516,15 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
     return config.getLong(SONAR_BATCH_SIZE_KEY).orElse(computeIdealBatchSize());
   }
 
+  /**
+   * Returns the number of batches that can be parsed concurrently, as read from configuration.
+   *
+   * @return the number of workers, at least 1.
+   */
+  public int getBatchModeThreads() {
+    return Math.max(1, context.config().getInt(SONAR_BATCH_MODE_THREADS_KEY).orElse(1));
+  }
+
   public boolean shouldIgnoreUnnamedModuleForSplitPackage() {
     return context.config().getBoolean(SONAR_IGNORE_UNNAMED_MODULE_FOR_SPLIT_PACKAGE).orElse(false);
   }
@@ -560,43 +597,84 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
   }
 
 
+  /**
+   * Decides whether the given file can be skipped. The decision, and the content hash it relies on, are computed once per file
+   * and analysis, and shared by every caller.
+   */
   public boolean fileCanBeSkipped(InputFile inputFile) {
-    var contentHashCache = new ContentHashCache(this);
-    if (inputFile instanceof GeneratedFile) {
-      // Generated files should not be skipped as we cannot assess the change status of the source file
-      return false;
+    if (inputFile instanceof GeneratedFile generatedFile) {
+      // The change status of the sources of a generated file is only known when its generator could reuse the generated code
+      // from the cache, otherwise it should not be skipped
+      return generatedFile.hasUnchangedSources() && canSkipUnchangedFilesInContext();
     }
-    boolean canSkipInContext;
-    try {
-      canSkipInContext = canSkipUnchangedFiles();
-      if (!alreadyLoggedSkipStatus) {
-        if (canSkipInContext) {
-          LOG.info("The Java analyzer is running in a context where unchanged files can be skipped. Full analysis is performed " +
-            "for changed files, optimized analysis for unchanged files.");
-        } else {
-          LOG.info("The Java analyzer cannot skip unchanged files in this context. A full analysis is performed for all files.");
-        }
-        alreadyLoggedSkipStatus = true;
-      }
-    } catch (ApiMismatchException e) {
-      if (!alreadyLoggedSkipStatus) {
-        LOG.info(
-          "Cannot determine whether the context allows skipping unchanged files: canSkipUnchangedFiles not part of sonar-plugin-api. " +
-            "Not skipping. {}",
-          e.getCause().getMessage()
-        );
-        alreadyLoggedSkipStatus = true;
-      }
-      contentHashCache.writeToCache(inputFile);
-      return false;
+    if (fileSkipDecisions == null) {
+      fileSkipDecisions = new HashMap<>();
     }
-    if (!canSkipInContext) {
+    return fileSkipDecisions.computeIfAbsent(inputFile.key(), key -> computeFileCanBeSkipped(inputFile));
+  }
+
+  private boolean computeFileCanBeSkipped(InputFile inputFile) {
+    var contentHashCache = contentHashCache();
+    if (!canSkipUnchangedFilesInContext()) {
       contentHashCache.writeToCache(inputFile);
       return false;
     }
     return contentHashCache.hasSameHashCached(inputFile);
   }
 
+  public ContentHashAlgorithm getContentHashAlgorithm() {
+    return getContentHashAlgorithm(context);
+  }
+
+  /**
+   * @return the algorithm configured with {@link #SONAR_CONTENT_HASH_ALGORITHM_KEY} to hash the content of the files of the analysis
+   */
+  public static ContentHashAlgorithm getContentHashAlgorithm(SensorContext context) {
+    Optional<String> configuredAlgorithm = Optional.ofNullable(context.config())
+      .flatMap(config -> config.get(SONAR_CONTENT_HASH_ALGORITHM_KEY));
+    if (configuredAlgorithm.isEmpty()) {
+      return ContentHashAlgorithm.MD5;
+    }
+    return ContentHashAlgorithm.fromName(configuredAlgorithm.get()).orElseGet(() -> {
+      LOG.warn("Unsupported value '{}' for property '{}', falling back to {}.", configuredAlgorithm.get(), SONAR_CONTENT_HASH_ALGORITHM_KEY,
+        ContentHashAlgorithm.MD5);
+      return ContentHashAlgorithm.MD5;
+    });
+  }
+
+  private ContentHashCache contentHashCache() {
+    if (contentHashCache == null) {
+      contentHashCache = new ContentHashCache(this, new ContentHashRegistry(getContentHashAlgorithm()));
+    }
+    return contentHashCache;
+  }
+
+  /**
+   * Resolves {@link #canSkipUnchangedFiles()} once per analysis, as it relies on reflection and logs its outcome.
+   */
+  private boolean canSkipUnchangedFilesInContext() {
+    if (canSkipUnchangedFilesInContext != null) {
+      return canSkipUnchangedFilesInContext;
+    }
+    try {
+      canSkipUnchangedFilesInContext = canSkipUnchangedFiles();
+      if (canSkipUnchangedFilesInContext) {
+        LOG.info("The Java analyzer is running in a context where unchanged files can be skipped. Full analysis is performed " +
+          "for changed files, optimized analysis for unchanged files.");
+      } else {
+        LOG.info("The Java analyzer cannot skip unchanged files in this context. A full analysis is performed for all files.");
+      }
+    } catch (ApiMismatchException e) {
+      LOG.info(
+        "Cannot determine whether the context allows skipping unchanged files: canSkipUnchangedFiles not part of sonar-plugin-api. " +
+          "Not skipping. {}",
+        e.getCause().getMessage()
+      );
+      canSkipUnchangedFilesInContext = false;
+    }
+    return canSkipUnchangedFilesInContext;
+  }
+
   public InputComponent project() {
     return context.project();
   }
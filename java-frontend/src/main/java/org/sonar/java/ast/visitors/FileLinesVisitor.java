@@ -17,10 +17,9 @@
 package org.sonar.java.ast.visitors;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.FileLinesContext;
@@ -28,6 +27,7 @@ import org.sonar.java.SonarComponents;
 import org.sonar.java.cfg.CFG;
 import org.sonar.java.model.ModifiersUtils;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.LambdaExpressionTree;
@@ -40,7 +40,6 @@ import org.sonar.plugins.java.api.tree.TypeTree;
 import org.sonar.plugins.java.api.tree.VariableTree;
 
 import static org.sonar.java.model.LineUtils.startLine;
-import static org.sonar.plugins.java.api.tree.Tree.Kind.BLOCK;
 import static org.sonar.plugins.java.api.tree.Tree.Kind.BOOLEAN_LITERAL;
 import static org.sonar.plugins.java.api.tree.Tree.Kind.CATCH;
 import static org.sonar.plugins.java.api.tree.Tree.Kind.CHAR_LITERAL;
@@ -67,11 +66,11 @@ import static org.sonar.plugins.java.api.tree.Tree.Kind.WHILE_STATEMENT;
 /**
  * Saves information about lines directly into Sonar by using {@link FileLinesContext}.
  */
-public class FileLinesVisitor extends SubscriptionVisitor {
+public class FileLinesVisitor extends FusableSubscriptionVisitor {
 
   private final SonarComponents sonarComponents;
-  private final Set<Integer> linesOfCode = new HashSet<>();
-  private final Set<Integer> executableLines = new HashSet<>();
+  private BitSet linesOfCode = new BitSet();
+  private BitSet executableLines = new BitSet();
 
   public FileLinesVisitor(SonarComponents sonarComponents) {
     this.sonarComponents = sonarComponents;
@@ -89,18 +88,22 @@ public class FileLinesVisitor extends SubscriptionVisitor {
   }
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
-    super.scanFile(context);
+  public void setContext(JavaFileScannerContext context) {
+    super.setContext(context);
+    int lines = context.getInputFile().lines();
+    linesOfCode = new BitSet(lines + 1);
+    executableLines = new BitSet(lines + 1);
+  }
+
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
     InputFile currentFile = context.getInputFile();
     FileLinesContext fileLinesContext = sonarComponents.fileLinesContextFor(currentFile);
     for (int line = 1; line <= currentFile.lines(); line++) {
-      fileLinesContext.setIntValue(CoreMetrics.NCLOC_DATA_KEY, line, linesOfCode.contains(line) ? 1 : 0);
-      fileLinesContext.setIntValue(CoreMetrics.EXECUTABLE_LINES_DATA_KEY, line, executableLines.contains(line) ? 1 : 0);
+      fileLinesContext.setIntValue(CoreMetrics.NCLOC_DATA_KEY, line, linesOfCode.get(line) ? 1 : 0);
+      fileLinesContext.setIntValue(CoreMetrics.EXECUTABLE_LINES_DATA_KEY, line, executableLines.get(line) ? 1 : 0);
     }
     fileLinesContext.save();
-
-    linesOfCode.clear();
-    executableLines.clear();
   }
 
   @Override
@@ -115,17 +118,18 @@ public class FileLinesVisitor extends SubscriptionVisitor {
         trees = visitVariable((VariableTree) tree);
         break;
       case LAMBDA_EXPRESSION:
-        trees = visitLambda((LambdaExpressionTree) tree);
+        // reuse the CFG memoized on the tree, also used by rules
+        computeExecutableLines(((LambdaExpressionTree) tree).cfg());
         break;
       case METHOD,
         CONSTRUCTOR:
-        trees = visitMethod((MethodTree) tree);
+        visitMethod((MethodTree) tree);
         break;
       case FOR_STATEMENT,
         FOR_EACH_STATEMENT,
         WHILE_STATEMENT,
         DO_STATEMENT:
-        executableLines.add(startLine(tree.lastToken()));
+        executableLines.set(startLine(tree.lastToken()));
         break;
       default:
         // Do nothing particular
@@ -145,33 +149,30 @@ public class FileLinesVisitor extends SubscriptionVisitor {
     return Collections.emptyList();
   }
 
-  private static List<? extends Tree> visitLambda(LambdaExpressionTree lambda) {
-    Tree body = lambda.body();
-    if(body.is(BLOCK)) {
-      return ((BlockTree) body).body();
-    }
-    return Collections.singletonList(body);
-  }
-
-  private List<? extends Tree> visitMethod(MethodTree tree) {
+  private void visitMethod(MethodTree tree) {
     BlockTree methodBody = tree.block();
     if(methodBody != null) {
       // get the last
       TypeTree returnType = tree.returnType();
       if(returnType == null || "void".equals(returnType.firstToken().text())) {
-        executableLines.add(startLine(methodBody.closeBraceToken()));
+        executableLines.set(startLine(methodBody.closeBraceToken()));
+      }
+      if (!methodBody.body().isEmpty()) {
+        // reuse the CFG memoized on the tree, also used by rules
+        computeExecutableLines(tree.cfg());
       }
-      return methodBody.body();
     }
-    return Collections.emptyList();
   }
 
   private void computeExecutableLines(List<? extends Tree> trees) {
     if(trees.isEmpty()) {
       return;
     }
+    computeExecutableLines(CFG.buildCFG(trees));
+  }
+
+  private void computeExecutableLines(ControlFlowGraph cfg) {
     // rely on cfg to get every instructions and get most of the token.
-    CFG cfg = CFG.buildCFG(trees);
     cfg.blocks()
       .stream()
       .flatMap(b->b.elements().stream())
@@ -180,12 +181,12 @@ public class FileLinesVisitor extends SubscriptionVisitor {
           if (t.is(NEW_CLASS)) {
             NewClassTree newClassTree = (NewClassTree) t;
             new ExecutableLinesTokenVisitor().scanTree(newClassTree.identifier());
-            executableLines.add(startLine(newClassTree.newKeyword()));
+            executableLines.set(startLine(newClassTree.newKeyword()));
           } else if (t.is(TRY_STATEMENT)) {
             // add last token of try statements
-            executableLines.add(startLine(t.lastToken()));
+            executableLines.set(startLine(t.lastToken()));
           } else {
-            executableLines.add(startLine(t));
+            executableLines.set(startLine(t));
           }
         }
       );
@@ -193,7 +194,7 @@ public class FileLinesVisitor extends SubscriptionVisitor {
 
   @Override
   public void visitToken(SyntaxToken syntaxToken) {
-    linesOfCode.add(startLine(syntaxToken));
+    linesOfCode.set(startLine(syntaxToken));
   }
 
   private static boolean isConstant(VariableTree variableTree) {
@@ -215,7 +216,7 @@ public class FileLinesVisitor extends SubscriptionVisitor {
 
     @Override
     public void visitToken(SyntaxToken syntaxToken) {
-      executableLines.add(startLine(syntaxToken));
+      executableLines.set(startLine(syntaxToken));
     }
   }
 }
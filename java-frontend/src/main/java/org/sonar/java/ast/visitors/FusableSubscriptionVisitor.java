@@ -0,0 +1,37 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.ast.visitors;
+
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+
+/**
+ * {@link SubscriptionVisitor} whose whole work on a file is done by {@link #setContext}, the node callbacks and
+ * {@link #leaveFile}. Such visitors do not drive the visit of the tree and are run within the same traversal as the rules,
+ * instead of walking the whole file once more on their own.
+ */
+public abstract class FusableSubscriptionVisitor extends SubscriptionVisitor {
+
+  /**
+   * Scans the file on its own, when the visitor is not run with the rules, and completes the work on the file.
+   */
+  @Override
+  public void scanFile(JavaFileScannerContext context) {
+    super.scanFile(context);
+    leaveFile(context);
+  }
+
+}
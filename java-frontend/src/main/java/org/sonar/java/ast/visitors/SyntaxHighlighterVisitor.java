@@ -45,7 +45,7 @@ import org.sonar.plugins.java.api.tree.SyntaxTrivia.CommentKind;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.YieldStatementTree;
 
-public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
+public class SyntaxHighlighterVisitor extends FusableSubscriptionVisitor {
 
   private final SonarComponents sonarComponents;
   private final Map<Tree.Kind, TypeOfText> typesByKind;
@@ -96,11 +96,13 @@ public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
   }
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     highlighting = sonarComponents.highlightableFor(context.getInputFile());
+    super.setContext(context);
+  }
 
-    super.scanFile(context);
-
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
     highlighting.save();
   }
 
@@ -0,0 +1,100 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.ast.visitors;
+
+import java.util.BitSet;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.ListTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Lets the analysis skip the scanners which declare that they have nothing to do on a file, because none of the kinds
+ * of trees they visit appear in it.
+ * <p>
+ * The kinds of the nodes of a compilation unit are computed once per file, for the trees implementing {@link Indexed},
+ * whatever the number of scanners.
+ */
+public final class VisitorPruning {
+
+  private VisitorPruning() {
+  }
+
+  /**
+   * Scanner which only does something from the trees of the {@link #visitedKinds() visited kinds}: scanning a file
+   * containing none of them has no effect, neither issues nor state kept for the next files.
+   */
+  public interface Prunable {
+    Set<Tree.Kind> visitedKinds();
+  }
+
+  /**
+   * Trees memoizing the kinds of all their nodes.
+   */
+  public interface Indexed {
+    @Nullable
+    BitSet descendantKinds();
+
+    void setDescendantKinds(BitSet descendantKinds);
+  }
+
+  public static boolean containsAny(CompilationUnitTree tree, Set<Tree.Kind> kinds) {
+    if (!(tree instanceof Indexed indexed)) {
+      return true;
+    }
+    BitSet descendantKinds = indexed.descendantKinds();
+    if (descendantKinds == null) {
+      KindsCollector collector = new KindsCollector();
+      collector.scan(tree);
+      descendantKinds = collector.kinds;
+      indexed.setDescendantKinds(descendantKinds);
+    }
+    for (Tree.Kind kind : kinds) {
+      if (descendantKinds.get(kind.ordinal())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Walks like {@link BaseTreeVisitor} and collects the kinds of the trees it reaches.
+   */
+  private static class KindsCollector extends BaseTreeVisitor {
+
+    private final BitSet kinds = new BitSet();
+
+    @Override
+    protected void scan(@Nullable Tree tree) {
+      if (tree == null) {
+        return;
+      }
+      kinds.set(tree.kind().ordinal());
+      if (tree instanceof ListTree<?> listTree) {
+        // ListTree#accept directly dispatches its elements
+        for (Tree element : listTree) {
+          scan(element);
+        }
+      } else {
+        tree.accept(this);
+      }
+    }
+  }
+
+}
@@ -17,10 +17,14 @@
 package org.sonar.java.caching;
 
 import java.util.Optional;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
 import org.sonar.java.SonarComponents;
 import org.sonar.plugins.java.api.caching.CacheContext;
 import org.sonar.plugins.java.api.caching.JavaReadCache;
@@ -39,11 +43,14 @@ public class CacheContextImpl implements CacheContext {
   private final boolean isCacheEnabled;
   private final JavaReadCache readCache;
   private final JavaWriteCache writeCache;
+  @Nullable
+  private final FileCacheRecords fileCacheRecords;
 
-  private CacheContextImpl(boolean isCacheEnabled, JavaReadCache readCache, JavaWriteCache writeCache) {
+  private CacheContextImpl(boolean isCacheEnabled, JavaReadCache readCache, JavaWriteCache writeCache, @Nullable FileCacheRecords fileCacheRecords) {
     this.isCacheEnabled = isCacheEnabled;
     this.readCache = readCache;
     this.writeCache = writeCache;
+    this.fileCacheRecords = fileCacheRecords;
   }
 
   public static CacheContextImpl of(@Nullable SonarComponents sonarComponents) {
@@ -80,14 +87,23 @@ public class CacheContextImpl implements CacheContext {
 
   private static CacheContextImpl dummyCache() {
     var dummyCache = new DummyCache();
-    return new CacheContextImpl(false, dummyCache, dummyCache);
+    return new CacheContextImpl(false, dummyCache, dummyCache, null);
   }
 
   private static CacheContextImpl fromSensorContext(SensorContext context) {
+    return of(context.previousCache(), context.nextCache());
+  }
+
+  /**
+   * @return an enabled cache context reading from the cache of the previous analysis and writing to the cache of the next one,
+   * gathering the entries of each file in its record.
+   */
+  public static CacheContextImpl of(ReadCache previousCache, WriteCache nextCache) {
     return new CacheContextImpl(
       true,
-      new JavaReadCacheImpl(context.previousCache()),
-      new JavaWriteCacheImpl(context.nextCache())
+      new JavaReadCacheImpl(previousCache),
+      new JavaWriteCacheImpl(nextCache),
+      new FileCacheRecords(previousCache, nextCache)
     );
   }
 
@@ -100,11 +116,12 @@ public class CacheContextImpl implements CacheContext {
       // appropriate.)
       false,
       new JavaReadCacheImpl(sonarLintCache),
-      new JavaWriteCacheImpl(sonarLintCache)
+      new JavaWriteCacheImpl(sonarLintCache),
+      null
     );
   }
 
-  private static boolean isCachingEnabled(SensorContext context) {
+  public static boolean isCachingEnabled(SensorContext context) {
     return
       Optional.ofNullable(context.config())
         .flatMap(config -> config.getBoolean(SONAR_CACHING_ENABLED_KEY))
@@ -127,4 +144,24 @@ public class CacheContextImpl implements CacheContext {
   public JavaWriteCache getWriteCache() {
     return writeCache;
   }
+
+  /**
+   * Records gathering the cache entries of each file, null when caching is disabled.
+   */
+  @CheckForNull
+  public FileCacheRecords fileCacheRecords() {
+    return fileCacheRecords;
+  }
+
+  /**
+   * @return the cache context to give to the checks scanning the given file, storing the entries of this file in its record.
+   * {@link FileCacheRecords#flush(InputFile)} has to be called once the file is done.
+   */
+  public CacheContextImpl forFile(InputFile inputFile) {
+    if (fileCacheRecords == null) {
+      return this;
+    }
+    var fileRecordCache = new FileRecordCache(fileCacheRecords, inputFile, readCache, writeCache);
+    return new CacheContextImpl(isCacheEnabled, fileRecordCache, fileRecordCache, null);
+  }
 }
@@ -0,0 +1,84 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Algorithms that can be used to compute the content hash of a file. The name of the algorithm is part of the cache key,
+ * so that hashes computed with another algorithm are never compared with each other.
+ */
+public enum ContentHashAlgorithm {
+
+  MD5 {
+    @Override
+    public Hasher newHasher() throws NoSuchAlgorithmException {
+      MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+      return new Hasher() {
+        @Override
+        public void update(byte[] bytes, int offset, int length) {
+          messageDigest.update(bytes, offset, length);
+        }
+
+        @Override
+        public byte[] digest() {
+          return messageDigest.digest();
+        }
+      };
+    }
+  },
+
+  /**
+   * Non-cryptographic 128-bit hash, much cheaper to compute than {@link #MD5} and good enough to detect content changes.
+   */
+  MURMUR3_128 {
+    @Override
+    public Hasher newHasher() {
+      return new Murmur3Hash128();
+    }
+  };
+
+  private final String cacheKeyPrefix;
+
+  ContentHashAlgorithm() {
+    this.cacheKeyPrefix = String.format("java:contentHash:%s:", name());
+  }
+
+  public abstract Hasher newHasher() throws NoSuchAlgorithmException;
+
+  public String cacheKeyPrefix() {
+    return cacheKeyPrefix;
+  }
+
+  public static Optional<ContentHashAlgorithm> fromName(String name) {
+    String normalizedName = name.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+    return Arrays.stream(values())
+      .filter(algorithm -> algorithm.name().equals(normalizedName))
+      .findFirst();
+  }
+
+  public interface Hasher {
+    void update(byte[] bytes, int offset, int length);
+
+    byte[] digest();
+  }
+
+}
@@ -29,14 +29,19 @@ import org.sonar.java.SonarComponents;
 public class ContentHashCache {
 
   private static final Logger LOG = LoggerFactory.getLogger(ContentHashCache.class);
-  private static final String CONTENT_HASH_KEY = String.format("java:contentHash:%s:", FileHashingUtils.HASH_ALGORITHM);
   private static final String HASH_COMPUTE_FAIL_MSG = "Failed to compute content hash for file %s";
 
   private ReadCache readCache;
   private WriteCache writeCache;
   private final boolean enabled;
+  private final ContentHashRegistry contentHashRegistry;
 
   public ContentHashCache(SonarComponents sonarComponents) {
+    this(sonarComponents, new ContentHashRegistry());
+  }
+
+  public ContentHashCache(SonarComponents sonarComponents, ContentHashRegistry contentHashRegistry) {
+    this.contentHashRegistry = contentHashRegistry;
     CacheContextImpl cacheContext = CacheContextImpl.of(sonarComponents);
     enabled = cacheContext.isCacheEnabled();
 
@@ -60,7 +65,7 @@ public class ContentHashCache {
     try {
       LOG.trace("Reading cache for the file {}", inputFile.key());
       byte[] cachedHash = readCache.read(cacheKey).readAllBytes();
-      byte[] fileHash = FileHashingUtils.inputFileContentHash(inputFile);
+      byte[] fileHash = contentHashRegistry.contentHash(inputFile);
       boolean isHashEqual = MessageDigest.isEqual(fileHash, cachedHash);
       if (isHashEqual) {
         copyFromPrevious(inputFile);
@@ -93,7 +98,7 @@ public class ContentHashCache {
     LOG.trace("Writing to the cache for file {}", inputFile.key());
     String cacheKey = getCacheKey(inputFile);
     try {
-      writeCache.write(cacheKey, FileHashingUtils.inputFileContentHash(inputFile));
+      writeCache.write(cacheKey, contentHashRegistry.contentHash(inputFile));
       return true;
     } catch (IllegalArgumentException e) {
       LOG.trace(String.format("Tried to write multiple times to cache key %s. Ignoring writes after the first.", cacheKey));
@@ -108,7 +113,7 @@ public class ContentHashCache {
     writeCache.copyFromPrevious(getCacheKey(inputFile));
   }
 
-  private static String getCacheKey(InputFile inputFile) {
-    return CONTENT_HASH_KEY + inputFile.key();
+  private String getCacheKey(InputFile inputFile) {
+    return contentHashRegistry.algorithm().cacheKeyPrefix() + inputFile.key();
   }
 }
@@ -0,0 +1,60 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import org.sonar.api.batch.fs.InputFile;
+
+/**
+ * Keeps the content hash of every file computed during an analysis, so that a file is read and hashed only once,
+ * whether the hash is used to decide if the file can be skipped or to be written to the cache.
+ */
+public class ContentHashRegistry {
+
+  private final ContentHashAlgorithm algorithm;
+  private final Map<String, byte[]> hashesByFileKey = new HashMap<>();
+
+  public ContentHashRegistry() {
+    this(ContentHashAlgorithm.MD5);
+  }
+
+  public ContentHashRegistry(ContentHashAlgorithm algorithm) {
+    this.algorithm = algorithm;
+  }
+
+  public ContentHashAlgorithm algorithm() {
+    return algorithm;
+  }
+
+  public synchronized byte[] contentHash(InputFile inputFile) throws IOException, NoSuchAlgorithmException {
+    String key = inputFile.key();
+    byte[] hash = hashesByFileKey.get(key);
+    if (hash == null) {
+      hash = FileHashingUtils.inputFileContentHash(inputFile, algorithm);
+      hashesByFileKey.put(key, hash);
+    }
+    return hash;
+  }
+
+  public synchronized int size() {
+    return hashesByFileKey.size();
+  }
+
+}
@@ -0,0 +1,267 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
+import org.sonar.java.AnalysisException;
+import org.sonarsource.performance.measure.PerformanceMeasure;
+
+/**
+ * Gathers the cache entries of a file, written by the checks of this plugin under keys starting with {@code java:S} and ending
+ * with the key of the file, into a single record. The other keys, like the content hashes of the files or the entries of
+ * custom rules, keep their own entries in the cache.
+ * <p>
+ * The record of the previous analysis is read once per file, and the record of the next analysis is written, or copied when
+ * all its entries are copied from the previous analysis, once the file is done. Failing to write or copy a record fails like
+ * failing to write or copy an entry, with an {@link AnalysisException}.
+ * <p>
+ * A record is made of the number of entries followed, for each entry, by the key of the entry without the key of the file,
+ * the length of its data and its data.
+ * <p>
+ * Entries missing from the record of the previous analysis are read from their own keys, as they were written before records
+ * existed, and are copied under their own keys.
+ */
+public class FileCacheRecords {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FileCacheRecords.class);
+  private static final String CACHE_KEY_PREFIX = "java:fileRecord:";
+  private static final String ENTRY_KEY_PREFIX = "java:S";
+
+  private final ReadCache readCache;
+  private final WriteCache writeCache;
+  private final Map<String, PendingRecord> pendingRecords = new HashMap<>();
+
+  public FileCacheRecords(ReadCache readCache, WriteCache writeCache) {
+    this.readCache = readCache;
+    this.writeCache = writeCache;
+  }
+
+  public static boolean isFileEntry(InputFile inputFile, String key) {
+    return key.startsWith(ENTRY_KEY_PREFIX) && key.endsWith(inputFile.key());
+  }
+
+  @CheckForNull
+  public synchronized byte[] read(InputFile inputFile, String key) {
+    return pendingRecord(inputFile).previousEntry(entryName(inputFile, key), key);
+  }
+
+  public synchronized boolean contains(InputFile inputFile, String key) {
+    return read(inputFile, key) != null;
+  }
+
+  public synchronized void write(InputFile inputFile, String key, byte[] data) {
+    pendingRecord(inputFile).add(entryName(inputFile, key), key, data, false);
+  }
+
+  public synchronized void copyFromPrevious(InputFile inputFile, String key) {
+    PendingRecord pendingRecord = pendingRecord(inputFile);
+    String entryName = entryName(inputFile, key);
+    byte[] data = pendingRecord.recordEntry(entryName);
+    if (data != null) {
+      pendingRecord.add(entryName, key, data, true);
+    } else if (readCache.contains(key)) {
+      writeCache.copyFromPrevious(key);
+    } else {
+      throw new IllegalArgumentException(String.format("No cache data available for key '%s'", key));
+    }
+  }
+
+  /**
+   * Writes the record of the file to the cache of the next analysis, and forgets about the file.
+   *
+   * @throws AnalysisException when the record cannot be written or copied
+   */
+  public synchronized void flush(InputFile inputFile) {
+    PendingRecord pendingRecord = pendingRecords.remove(inputFile.key());
+    if (pendingRecord == null || pendingRecord.entries.isEmpty()) {
+      return;
+    }
+    String recordKey = recordKey(inputFile.key());
+    PerformanceMeasure.Duration duration = PerformanceMeasure.start("FileCacheRecords.flush");
+    try {
+      if (pendingRecord.isCopyOfPrevious()) {
+        writeCache.copyFromPrevious(recordKey);
+      } else {
+        writeCache.write(recordKey, encode(pendingRecord.entries));
+      }
+    } catch (IllegalArgumentException e) {
+      String message = String.format("Failed to write the cache record of file %s", inputFile);
+      LOG.trace(message);
+      throw new AnalysisException(message, e);
+    } finally {
+      duration.stop();
+    }
+  }
+
+  /**
+   * @return the files whose record has not been flushed yet.
+   */
+  public synchronized List<InputFile> pendingFiles() {
+    return pendingRecords.values().stream().map(pendingRecord -> pendingRecord.inputFile).toList();
+  }
+
+  /**
+   * @return the given data of a cache, with the record of each file replaced by the entries it gathers, under their own keys.
+   */
+  public static Map<String, byte[]> withExpandedRecords(Map<String, byte[]> cacheData) {
+    Map<String, byte[]> entries = new HashMap<>();
+    cacheData.forEach((key, data) -> {
+      if (!key.startsWith(CACHE_KEY_PREFIX)) {
+        entries.put(key, data);
+        return;
+      }
+      String fileKey = key.substring(CACHE_KEY_PREFIX.length());
+      try {
+        decode(new ByteArrayInputStream(data)).forEach((entryName, entryData) -> entries.put(entryName + fileKey, entryData));
+      } catch (IOException e) {
+        throw new CacheReadException(String.format("Unable to read data for key '%s'", key), e);
+      }
+    });
+    return entries;
+  }
+
+  private PendingRecord pendingRecord(InputFile inputFile) {
+    return pendingRecords.computeIfAbsent(inputFile.key(), k -> new PendingRecord(inputFile));
+  }
+
+  private static String entryName(InputFile inputFile, String key) {
+    return key.substring(0, key.length() - inputFile.key().length());
+  }
+
+  private static String recordKey(String fileKey) {
+    return CACHE_KEY_PREFIX + fileKey;
+  }
+
+  static byte[] encode(Map<String, byte[]> entries) {
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(bytes)) {
+      out.writeInt(entries.size());
+      for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeInt(entry.getValue().length);
+        out.write(entry.getValue());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  static Map<String, byte[]> decode(InputStream data) throws IOException {
+    var in = new DataInputStream(data);
+    int size = in.readInt();
+    Map<String, byte[]> entries = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      String entryName = in.readUTF();
+      byte[] entryData = new byte[in.readInt()];
+      in.readFully(entryData);
+      entries.put(entryName, entryData);
+    }
+    return entries;
+  }
+
+  private class PendingRecord {
+    private final InputFile inputFile;
+    private boolean previousLoaded = false;
+    /**
+     * Entries of the record of the previous analysis, null when the previous analysis did not write any record for the file.
+     */
+    @Nullable
+    private Map<String, byte[]> previousEntries = null;
+    private final Map<String, byte[]> entries = new LinkedHashMap<>();
+    private int copiedEntries = 0;
+
+    PendingRecord(InputFile inputFile) {
+      this.inputFile = inputFile;
+    }
+
+    @CheckForNull
+    byte[] previousEntry(String entryName, String key) {
+      byte[] data = recordEntry(entryName);
+      return data != null ? data : readEntryWithoutRecord(key);
+    }
+
+    @CheckForNull
+    byte[] recordEntry(String entryName) {
+      loadPrevious();
+      return previousEntries != null ? previousEntries.get(entryName) : null;
+    }
+
+    void add(String entryName, String key, byte[] data, boolean copied) {
+      if (entries.containsKey(entryName)) {
+        throw new IllegalArgumentException(String.format("Same key cannot be written to multiple times (%s)", key));
+      }
+      entries.put(entryName, data);
+      if (copied) {
+        copiedEntries++;
+      }
+    }
+
+    boolean isCopyOfPrevious() {
+      return previousEntries != null && copiedEntries == entries.size() && copiedEntries == previousEntries.size();
+    }
+
+    private void loadPrevious() {
+      if (previousLoaded) {
+        return;
+      }
+      previousLoaded = true;
+      String recordKey = recordKey(inputFile.key());
+      if (!readCache.contains(recordKey)) {
+        return;
+      }
+      PerformanceMeasure.Duration duration = PerformanceMeasure.start("FileCacheRecords.read");
+      try (var in = readCache.read(recordKey)) {
+        previousEntries = decode(in);
+      } catch (IOException e) {
+        throw new CacheReadException(String.format("Unable to read data for key '%s'", recordKey), e);
+      } finally {
+        duration.stop();
+      }
+    }
+
+    @CheckForNull
+    private byte[] readEntryWithoutRecord(String key) {
+      if (!readCache.contains(key)) {
+        return null;
+      }
+      try (var in = readCache.read(key)) {
+        return in.readAllBytes();
+      } catch (IOException e) {
+        throw new CacheReadException(String.format("Unable to read data for key '%s'", key), e);
+      }
+    }
+  }
+
+}
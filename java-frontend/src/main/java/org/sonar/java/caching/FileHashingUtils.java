@@ -16,35 +16,61 @@
  */
 package org.sonar.java.caching;
 
-import org.sonar.api.batch.fs.InputFile;
-
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.security.MessageDigest;
+import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
-
-import static java.nio.charset.StandardCharsets.UTF_8;
+import org.sonar.api.batch.fs.InputFile;
 
 public class FileHashingUtils {
 
+  private static final int BUFFER_SIZE = 8192;
+
   private FileHashingUtils() {
   }
 
-  public static final String HASH_ALGORITHM = "MD5";
+  public static final String HASH_ALGORITHM = ContentHashAlgorithm.MD5.name();
 
   public static byte[] inputFileContentHash(InputFile inputFile) throws IOException, NoSuchAlgorithmException {
-    byte[] contentBytes = inputFile.contents().getBytes(StandardCharsets.UTF_8);
-    MessageDigest messageDigest = MessageDigest.getInstance(HASH_ALGORITHM);
-    return messageDigest.digest(contentBytes);
+    return inputFileContentHash(inputFile, ContentHashAlgorithm.MD5);
+  }
+
+  /**
+   * Hashes the raw bytes of the file, streamed from {@link InputFile#inputStream()} without decoding its content, followed
+   * by the name of its charset: the same bytes decoded with another charset make another source.
+   */
+  public static byte[] inputFileContentHash(InputFile inputFile, ContentHashAlgorithm algorithm) throws IOException, NoSuchAlgorithmException {
+    try (InputStream in = inputFile.inputStream()) {
+      return hash(in, inputFile.charset(), algorithm);
+    }
   }
 
   public static byte[] inputFileContentHash(String filepath) throws IOException, NoSuchAlgorithmException {
-    File file = new File(filepath);
-    String contents = new String(Files.readAllBytes(file.toPath()), UTF_8);
-    MessageDigest messageDigest = MessageDigest.getInstance(HASH_ALGORITHM);
-    return messageDigest.digest(contents.getBytes(UTF_8));
+    return inputFileContentHash(filepath, ContentHashAlgorithm.MD5);
+  }
+
+  /**
+   * Hashes the file at the given path as a UTF-8 source, like {@link #inputFileContentHash(InputFile, ContentHashAlgorithm)}.
+   */
+  public static byte[] inputFileContentHash(String filepath, ContentHashAlgorithm algorithm) throws IOException, NoSuchAlgorithmException {
+    try (InputStream in = Files.newInputStream(Path.of(filepath))) {
+      return hash(in, StandardCharsets.UTF_8, algorithm);
+    }
+  }
+
+  private static byte[] hash(InputStream in, Charset charset, ContentHashAlgorithm algorithm) throws IOException, NoSuchAlgorithmException {
+    ContentHashAlgorithm.Hasher hasher = algorithm.newHasher();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      hasher.update(buffer, 0, read);
+    }
+    byte[] charsetName = charset.name().getBytes(StandardCharsets.UTF_8);
+    hasher.update(charsetName, 0, charsetName.length);
+    return hasher.digest();
   }
 
 }
@@ -0,0 +1,111 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import javax.annotation.CheckForNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.plugins.java.api.caching.JavaReadCache;
+import org.sonar.plugins.java.api.caching.JavaWriteCache;
+
+/**
+ * Cache seen by the checks while they scan a file: the entries of the file go to its {@link FileCacheRecords record}, the others
+ * to the caches of the analysis.
+ */
+class FileRecordCache implements JavaReadCache, JavaWriteCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FileRecordCache.class);
+
+  private final FileCacheRecords records;
+  private final InputFile inputFile;
+  private final JavaReadCache readCache;
+  private final JavaWriteCache writeCache;
+
+  FileRecordCache(FileCacheRecords records, InputFile inputFile, JavaReadCache readCache, JavaWriteCache writeCache) {
+    this.records = records;
+    this.inputFile = inputFile;
+    this.readCache = readCache;
+    this.writeCache = writeCache;
+  }
+
+  @Override
+  public InputStream read(String key) {
+    if (!FileCacheRecords.isFileEntry(inputFile, key)) {
+      return readCache.read(key);
+    }
+    byte[] data = records.read(inputFile, key);
+    if (data == null) {
+      throw new IllegalArgumentException(String.format("No cache data available for key '%s'", key));
+    }
+    return new ByteArrayInputStream(data);
+  }
+
+  @CheckForNull
+  @Override
+  public byte[] readBytes(String key) {
+    if (!FileCacheRecords.isFileEntry(inputFile, key)) {
+      return readCache.readBytes(key);
+    }
+    byte[] data = records.read(inputFile, key);
+    if (data == null) {
+      LOG.trace("Cache miss for key '{}'", key);
+    }
+    return data;
+  }
+
+  @Override
+  public boolean contains(String key) {
+    return FileCacheRecords.isFileEntry(inputFile, key) ? records.contains(inputFile, key) : readCache.contains(key);
+  }
+
+  @Override
+  public void write(String key, InputStream data) {
+    if (!FileCacheRecords.isFileEntry(inputFile, key)) {
+      writeCache.write(key, data);
+      return;
+    }
+    try {
+      records.write(inputFile, key, data.readAllBytes());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void write(String key, byte[] data) {
+    if (FileCacheRecords.isFileEntry(inputFile, key)) {
+      records.write(inputFile, key, data);
+    } else {
+      writeCache.write(key, data);
+    }
+  }
+
+  @Override
+  public void copyFromPrevious(String key) {
+    if (FileCacheRecords.isFileEntry(inputFile, key)) {
+      records.copyFromPrevious(inputFile, key);
+    } else {
+      writeCache.copyFromPrevious(key);
+    }
+  }
+
+}
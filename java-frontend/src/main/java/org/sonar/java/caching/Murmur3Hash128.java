@@ -0,0 +1,124 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Streaming implementation of the x64 128-bit variant of MurmurHash3, with a seed of 0.
+ * The digest is made of the two 64-bit halves of the hash, in little-endian order.
+ */
+class Murmur3Hash128 implements ContentHashAlgorithm.Hasher {
+
+  private static final VarHandle LONG_LITTLE_ENDIAN = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final int BLOCK_SIZE = 16;
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  private long h1 = 0L;
+  private long h2 = 0L;
+  private long totalLength = 0L;
+  private final byte[] tail = new byte[BLOCK_SIZE];
+  private int tailLength = 0;
+
+  @Override
+  public void update(byte[] bytes, int offset, int length) {
+    totalLength += length;
+    int index = offset;
+    int end = offset + length;
+    if (tailLength > 0) {
+      int missing = Math.min(BLOCK_SIZE - tailLength, length);
+      System.arraycopy(bytes, index, tail, tailLength, missing);
+      tailLength += missing;
+      index += missing;
+      if (tailLength < BLOCK_SIZE) {
+        return;
+      }
+      mixBlock((long) LONG_LITTLE_ENDIAN.get(tail, 0), (long) LONG_LITTLE_ENDIAN.get(tail, 8));
+      tailLength = 0;
+    }
+    for (; index + BLOCK_SIZE <= end; index += BLOCK_SIZE) {
+      mixBlock((long) LONG_LITTLE_ENDIAN.get(bytes, index), (long) LONG_LITTLE_ENDIAN.get(bytes, index + 8));
+    }
+    tailLength = end - index;
+    System.arraycopy(bytes, index, tail, 0, tailLength);
+  }
+
+  @Override
+  public byte[] digest() {
+    long k1 = 0L;
+    long k2 = 0L;
+    for (int i = tailLength - 1; i >= 8; i--) {
+      k2 ^= (tail[i] & 0xFFL) << ((i - 8) * 8);
+    }
+    if (tailLength > 8) {
+      h2 ^= mixK2(k2);
+    }
+    for (int i = Math.min(tailLength, 8) - 1; i >= 0; i--) {
+      k1 ^= (tail[i] & 0xFFL) << (i * 8);
+    }
+    if (tailLength > 0) {
+      h1 ^= mixK1(k1);
+    }
+
+    h1 ^= totalLength;
+    h2 ^= totalLength;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+    h1 += h2;
+    h2 += h1;
+
+    byte[] result = new byte[BLOCK_SIZE];
+    LONG_LITTLE_ENDIAN.set(result, 0, h1);
+    LONG_LITTLE_ENDIAN.set(result, 8, h2);
+    return result;
+  }
+
+  private void mixBlock(long k1, long k2) {
+    h1 ^= mixK1(k1);
+    h1 = Long.rotateLeft(h1, 27);
+    h1 += h2;
+    h1 = h1 * 5 + 0x52dce729;
+
+    h2 ^= mixK2(k2);
+    h2 = Long.rotateLeft(h2, 31);
+    h2 += h1;
+    h2 = h2 * 5 + 0x38495ab5;
+  }
+
+  private static long mixK1(long k1) {
+    return Long.rotateLeft(k1 * C1, 31) * C2;
+  }
+
+  private static long mixK2(long k2) {
+    return Long.rotateLeft(k2 * C2, 33) * C1;
+  }
+
+  private static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+
+}
@@ -16,13 +16,18 @@
  */
 package org.sonar.java.cfg;
 
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
@@ -38,26 +43,41 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
 import org.sonar.plugins.java.api.tree.VariableTree;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
-import org.sonarsource.analyzer.commons.collections.SetUtils;
 
 public class LiveVariables {
 
   private final CFG cfg;
-  private final Map<CFG.Block, Set<Symbol>> out = new HashMap<>();
-  private final Map<CFG.Block, Set<Symbol>> in = new HashMap<>();
   private final boolean includeFields;
+  /**
+   * Symbols of the CFG, numbered in order of discovery: the index of a symbol is its bit in the sets below.
+   */
+  private final List<Symbol> symbols = new ArrayList<>();
+  private final Map<Symbol, Integer> symbolIndexes = new HashMap<>();
+  /**
+   * Bitsets of live symbols, indexed by {@link CFG.Block#id()}, which is the position of the block in
+   * {@link CFG#reversedBlocks()}.
+   */
+  private long[][] out;
+  private long[][] in;
 
   private LiveVariables(CFG cfg, boolean includeFields) {
     this.cfg = cfg;
     this.includeFields = includeFields;
   }
 
+  @CheckForNull
   public Set<Symbol> getOut(CFG.Block block) {
-    return out.get(block);
+    return isAnalyzed(block) ? new SymbolSet(out[block.id()]) : null;
   }
 
+  @CheckForNull
   public Set<Symbol> getIn(CFG.Block block) {
-    return in.get(block);
+    return isAnalyzed(block) ? new SymbolSet(in[block.id()]) : null;
+  }
+
+  private boolean isAnalyzed(CFG.Block block) {
+    List<CFG.Block> blocks = cfg.reversedBlocks();
+    return block.id() < blocks.size() && blocks.get(block.id()) == block;
   }
 
   /**
@@ -76,51 +96,172 @@ public class LiveVariables {
 
   private static LiveVariables analyze(CFG cfg, boolean includeFields) {
     LiveVariables liveVariables = new LiveVariables(cfg, includeFields);
+    List<CFG.Block> blocks = cfg.reversedBlocks();
+    int blockCount = blocks.size();
     // Generate kill/gen for each block in isolation
-    Map<CFG.Block, Set<Symbol>> kill = new HashMap<>();
-    Map<CFG.Block, Set<Symbol>> gen = new HashMap<>();
-    for (CFG.Block block : liveVariables.cfg.reversedBlocks()) {
+    List<Set<Symbol>> blockKills = new ArrayList<>(blockCount);
+    List<Set<Symbol>> blockGens = new ArrayList<>(blockCount);
+    for (CFG.Block block : blocks) {
       Set<Symbol> blockKill = new HashSet<>();
       Set<Symbol> blockGen = new HashSet<>();
       liveVariables.processBlockElements(block, blockKill, blockGen);
-      kill.put(block, blockKill);
-      gen.put(block, blockGen);
+      blockKills.add(blockKill);
+      blockGens.add(blockGen);
     }
-    liveVariables.analyzeCFG(liveVariables.in, kill, gen);
+    long[][] kill = new long[blockCount][];
+    long[][] gen = new long[blockCount][];
+    for (int i = 0; i < blockCount; i++) {
+      kill[i] = liveVariables.toBits(blockKills.get(i));
+      gen[i] = liveVariables.toBits(blockGens.get(i));
+    }
+    liveVariables.analyzeCFG(kill, gen);
     // out of exit block are empty by definition.
-    if (!liveVariables.out.get(liveVariables.cfg.reversedBlocks().get(0)).isEmpty()) {
+    if (!isEmpty(liveVariables.out[blocks.get(0).id()])) {
       throw new IllegalStateException("Out of exit block should be empty");
     }
+    return liveVariables;
+  }
 
-    // Make things immutable.
-    for (Map.Entry<CFG.Block, Set<Symbol>> blockSetEntry : liveVariables.out.entrySet()) {
-      blockSetEntry.setValue(Collections.unmodifiableSet(blockSetEntry.getValue()));
+  private void analyzeCFG(long[][] kill, long[][] gen) {
+    List<CFG.Block> blocks = cfg.reversedBlocks();
+    int blockCount = blocks.size();
+    int words = wordCount();
+    in = new long[blockCount][words];
+    out = new long[blockCount][words];
+    for (int i = 0; i < blockCount; i++) {
+      kill[i] = Arrays.copyOf(kill[i], words);
+      gen[i] = Arrays.copyOf(gen[i], words);
     }
 
-    return liveVariables;
+    // Deduplicated circular work list, seeded so that successors are processed before their predecessors
+    int[] workList = new int[blockCount];
+    boolean[] queued = new boolean[blockCount];
+    int head = 0;
+    int size = 0;
+    for (int id : backwardOrder(blocks, cfg.entryBlock())) {
+      workList[size] = id;
+      queued[id] = true;
+      size++;
+    }
+    long[] newIn = new long[words];
+    while (size > 0) {
+      int id = workList[head];
+      head = (head + 1) % blockCount;
+      size--;
+      queued[id] = false;
+      CFG.Block block = blocks.get(id);
+
+      long[] blockOut = out[id];
+      for (CFG.Block successor : block.successors()) {
+        or(blockOut, in[successor.id()]);
+      }
+      for (CFG.Block exception : block.exceptions()) {
+        or(blockOut, in[exception.id()]);
+      }
+      // in = gen and (out - kill)
+      long[] blockGen = gen[id];
+      long[] blockKill = kill[id];
+      for (int w = 0; w < words; w++) {
+        newIn[w] = blockGen[w] | (blockOut[w] & ~blockKill[w]);
+      }
+      if (Arrays.equals(newIn, in[id])) {
+        continue;
+      }
+      System.arraycopy(newIn, 0, in[id], 0, words);
+      for (CFG.Block predecessor : block.predecessors()) {
+        int predecessorId = predecessor.id();
+        if (!queued[predecessorId]) {
+          queued[predecessorId] = true;
+          workList[(head + size) % blockCount] = predecessorId;
+          size++;
+        }
+      }
+    }
   }
 
-  private void analyzeCFG(Map<CFG.Block, Set<Symbol>> in, Map<CFG.Block, Set<Symbol>> kill, Map<CFG.Block, Set<Symbol>> gen) {
-    Deque<CFG.Block> workList = new LinkedList<>();
-    workList.addAll(cfg.reversedBlocks());
-    while (!workList.isEmpty()) {
-      CFG.Block block = workList.removeFirst();
+  /**
+   * Post-order of the blocks from the entry block, i.e. reverse post-order of the reversed graph, which is the best
+   * order for a backward analysis. Blocks not reachable from the entry block come last.
+   */
+  private static int[] backwardOrder(List<CFG.Block> blocks, CFG.Block entry) {
+    int blockCount = blocks.size();
+    int[] order = new int[blockCount];
+    int count = 0;
+    boolean[] visited = new boolean[blockCount];
+    Deque<CFG.Block> stack = new ArrayDeque<>();
+    Deque<Iterator<CFG.Block>> children = new ArrayDeque<>();
+    visited[entry.id()] = true;
+    stack.push(entry);
+    children.push(successorsAndExceptions(entry));
+    while (!stack.isEmpty()) {
+      Iterator<CFG.Block> next = children.peek();
+      if (next.hasNext()) {
+        CFG.Block child = next.next();
+        if (!visited[child.id()]) {
+          visited[child.id()] = true;
+          stack.push(child);
+          children.push(successorsAndExceptions(child));
+        }
+      } else {
+        children.pop();
+        order[count] = stack.pop().id();
+        count++;
+      }
+    }
+    for (CFG.Block block : blocks) {
+      if (!visited[block.id()]) {
+        order[count] = block.id();
+        count++;
+      }
+    }
+    return order;
+  }
 
-      Set<Symbol> blockOut = out.computeIfAbsent(block, k -> new HashSet<>());
-      block.successors().stream().map(in::get).filter(Objects::nonNull).forEach(blockOut::addAll);
-      block.exceptions().stream().map(in::get).filter(Objects::nonNull).forEach(blockOut::addAll);
-      // in = gen and (out - kill)
-      Set<Symbol> newIn = new HashSet<>(gen.get(block));
-      newIn.addAll(SetUtils.difference(blockOut, kill.get(block)));
+  private static Iterator<CFG.Block> successorsAndExceptions(CFG.Block block) {
+    Set<CFG.Block> exceptions = block.exceptions();
+    if (exceptions.isEmpty()) {
+      return block.successors().iterator();
+    }
+    List<CFG.Block> all = new ArrayList<>(block.successors());
+    all.addAll(exceptions);
+    return all.iterator();
+  }
 
-      if (newIn.equals(in.get(block))) {
-        continue;
+  private long[] toBits(Set<Symbol> symbolSet) {
+    // words are resized once all the symbols are known
+    long[] bits = new long[0];
+    for (Symbol symbol : symbolSet) {
+      int index = symbolIndexes.computeIfAbsent(symbol, k -> {
+        symbols.add(k);
+        return symbols.size() - 1;
+      });
+      if ((index >> 6) >= bits.length) {
+        bits = Arrays.copyOf(bits, (index >> 6) + 1);
       }
-      in.put(block, newIn);
-      block.predecessors().forEach(workList::addLast);
+      bits[index >> 6] |= 1L << index;
+    }
+    return bits;
+  }
+
+  private int wordCount() {
+    return (symbols.size() + 63) >> 6;
+  }
+
+  private static void or(long[] target, long[] source) {
+    for (int w = 0; w < source.length; w++) {
+      target[w] |= source[w];
     }
   }
 
+  private static boolean isEmpty(long[] bits) {
+    for (long word : bits) {
+      if (word != 0L) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private void processBlockElements(CFG.Block block, Set<Symbol> blockKill, Set<Symbol> blockGen) {
     // process elements from bottom to top
     Set<Tree> assignmentLHS = new HashSet<>();
@@ -223,4 +364,70 @@ public class LiveVariables {
     return extractorFromClass.usedVariables();
   }
 
+  /**
+   * Unmodifiable view over a bitset of live symbols.
+   */
+  private class SymbolSet extends AbstractSet<Symbol> {
+    private final long[] bits;
+
+    SymbolSet(long[] bits) {
+      this.bits = bits;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      Integer index = symbolIndexes.get(o);
+      return index != null && (bits[index >> 6] & (1L << index)) != 0L;
+    }
+
+    @Override
+    public int size() {
+      int size = 0;
+      for (long word : bits) {
+        size += Long.bitCount(word);
+      }
+      return size;
+    }
+
+    @Override
+    public Iterator<Symbol> iterator() {
+      return new Iterator<>() {
+        private int next = nextSetBit(0);
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public Symbol next() {
+          if (next < 0) {
+            throw new NoSuchElementException();
+          }
+          Symbol symbol = symbols.get(next);
+          next = nextSetBit(next + 1);
+          return symbol;
+        }
+      };
+    }
+
+    private int nextSetBit(int from) {
+      int w = from >> 6;
+      if (w >= bits.length) {
+        return -1;
+      }
+      long word = bits[w] & (-1L << from);
+      while (true) {
+        if (word != 0L) {
+          return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+        w++;
+        if (w == bits.length) {
+          return -1;
+        }
+        word = bits[w];
+      }
+    }
+  }
+
 }
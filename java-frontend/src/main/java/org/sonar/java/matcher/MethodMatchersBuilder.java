@@ -18,7 +18,9 @@ package org.sonar.java.matcher;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import javax.annotation.CheckForNull;
@@ -47,16 +49,30 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
   @Nullable
   private final Predicate<List<Type>> parametersPredicate;
 
+  /**
+   * All the names accepted by {@link #namePredicate}, or null when it accepts any name or relies on a custom predicate.
+   */
+  @Nullable
+  private final Set<String> names;
+
+  /**
+   * All the numbers of parameters accepted by {@link #parametersPredicate}, or null when it accepts any number of
+   * parameters or relies on a custom predicate.
+   */
+  @Nullable
+  private final Set<Integer> arities;
+
   public MethodMatchersBuilder() {
-    this.typePredicate = null;
-    this.namePredicate = null;
-    this.parametersPredicate = null;
+    this(null, null, null, Collections.emptySet(), Collections.emptySet());
   }
 
-  private MethodMatchersBuilder(@Nullable Predicate<Type> typePredicate, @Nullable Predicate<String> namePredicate, @Nullable Predicate<List<Type>> parametersPredicate) {
+  private MethodMatchersBuilder(@Nullable Predicate<Type> typePredicate, @Nullable Predicate<String> namePredicate, @Nullable Predicate<List<Type>> parametersPredicate,
+    @Nullable Set<String> names, @Nullable Set<Integer> arities) {
     this.typePredicate = typePredicate;
     this.namePredicate = namePredicate;
     this.parametersPredicate = parametersPredicate;
+    this.names = names;
+    this.arities = arities;
   }
 
   private static <T> Predicate<T> substituteAny(Predicate<T> predicate, String... elements) {
@@ -108,15 +124,17 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public NameBuilder ofType(Predicate<Type> typePredicate) {
-    return new MethodMatchersBuilder(or(this.typePredicate, typePredicate), namePredicate, parametersPredicate);
+    return new MethodMatchersBuilder(or(this.typePredicate, typePredicate), namePredicate, parametersPredicate, names, arities);
   }
 
   @Override
   public ParametersBuilder names(String... names) {
-    return name(substituteAnyAndCreateEfficientPredicate(
+    Predicate<String> predicate = substituteAnyAndCreateEfficientPredicate(
       names,
       name -> name::equals,
-      nameList -> nameList::contains));
+      nameList -> nameList::contains);
+    Set<String> acceptedNames = Arrays.asList(names).contains(ANY) ? null : new HashSet<>(Arrays.asList(names));
+    return new MethodMatchersBuilder(typePredicate, or(this.namePredicate, predicate), parametersPredicate, union(this.names, acceptedNames), arities);
   }
 
   @Override
@@ -131,7 +149,7 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public ParametersBuilder name(Predicate<String> namePredicate) {
-    return new MethodMatchersBuilder(typePredicate, or(this.namePredicate, namePredicate), parametersPredicate);
+    return new MethodMatchersBuilder(typePredicate, or(this.namePredicate, namePredicate), parametersPredicate, null, arities);
   }
 
   @Override
@@ -142,7 +160,9 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
   }
 
   private ParametersBuilder addParametersMatcher(List<Predicate<Type>> parametersType) {
-    return addParametersMatcher((List<Type> actualTypes) -> exactMatchesParameters(parametersType, actualTypes));
+    Predicate<List<Type>> predicate = (List<Type> actualTypes) -> exactMatchesParameters(parametersType, actualTypes);
+    return new MethodMatchersBuilder(typePredicate, namePredicate, or(this.parametersPredicate, predicate), names,
+      union(arities, Set.of(parametersType.size())));
   }
 
   @Override
@@ -160,7 +180,7 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public ParametersBuilder addParametersMatcher(Predicate<List<Type>> parametersPredicate) {
-    return new MethodMatchersBuilder(typePredicate, namePredicate, or(this.parametersPredicate, parametersPredicate));
+    return new MethodMatchersBuilder(typePredicate, namePredicate, or(this.parametersPredicate, parametersPredicate), names, null);
   }
 
   private static boolean exactMatchesParameters(List<Predicate<Type>> expectedTypes, List<Type> actualTypes) {
@@ -183,8 +203,11 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public boolean matches(MethodInvocationTree mit) {
-    IdentifierTree id = getIdentifier(mit);
-    return matches(id.symbol(), getCallSiteType(mit));
+    Symbol symbol = getIdentifier(mit).symbol();
+    // the call site type is only computed for methods having the searched name and arity
+    return symbol.isMethodSymbol()
+      && hasSearchedNameAndArity((Symbol.MethodSymbol) symbol)
+      && hasSearchedType((Symbol.MethodSymbol) symbol, getCallSiteType(mit));
   }
 
   @Override
@@ -216,8 +239,16 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
     return symbol.isMethodSymbol() && isSearchedMethod((Symbol.MethodSymbol) symbol, callSiteType);
   }
 
+  /**
+   * Names of the matched methods, used to index matchers by name. Null when any name can be matched.
+   */
   @CheckForNull
-  private static Type getCallSiteType(MethodReferenceTree referenceTree) {
+  Set<String> searchedNames() {
+    return names;
+  }
+
+  @CheckForNull
+  static Type getCallSiteType(MethodReferenceTree referenceTree) {
     Tree expression = referenceTree.expression();
     if (expression instanceof ExpressionTree expressionTree) {
       return expressionTree.symbolType();
@@ -226,7 +257,7 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
   }
 
   @CheckForNull
-  private static Type getCallSiteType(MethodInvocationTree mit) {
+  static Type getCallSiteType(MethodInvocationTree mit) {
     ExpressionTree methodSelect = mit.methodSelect();
     // methodSelect can only be Tree.Kind.IDENTIFIER or Tree.Kind.MEMBER_SELECT
     if (methodSelect.is(Tree.Kind.IDENTIFIER)) {
@@ -237,7 +268,25 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
     }
   }
 
-  private boolean isSearchedMethod(Symbol.MethodSymbol symbol, @Nullable Type callSiteType) {
+  boolean isSearchedMethod(Symbol.MethodSymbol symbol, @Nullable Type callSiteType) {
+    return hasSearchedNameAndArity(symbol) && hasSearchedType(symbol, callSiteType);
+  }
+
+  /**
+   * Cheap checks, rejecting most of the methods before looking at their parameter and owner types.
+   */
+  boolean hasSearchedNameAndArity(Symbol.MethodSymbol symbol) {
+    String name = symbol.name();
+    if (names != null && !names.contains(name)) {
+      return false;
+    }
+    List<Type> parameterTypes = symbol.parameterTypes();
+    return (arities == null || arities.contains(parameterTypes.size()))
+      && namePredicate.test(name)
+      && parametersPredicate.test(parameterTypes);
+  }
+
+  boolean hasSearchedType(Symbol.MethodSymbol symbol, @Nullable Type callSiteType) {
     Type type = callSiteType;
     if (type == null) {
       Symbol owner = symbol.owner();
@@ -245,13 +294,10 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
         type = owner.type();
       }
     }
-    return type != null &&
-      namePredicate.test(symbol.name()) &&
-      parametersPredicate.test(symbol.parameterTypes()) &&
-      typePredicate.test(type);
+    return type != null && typePredicate.test(type);
   }
 
-  private static IdentifierTree getIdentifier(MethodInvocationTree mit) {
+  static IdentifierTree getIdentifier(MethodInvocationTree mit) {
     // methodSelect can only be Tree.Kind.IDENTIFIER or Tree.Kind.MEMBER_SELECT
     if (mit.methodSelect().is(Tree.Kind.IDENTIFIER)) {
       return (IdentifierTree) mit.methodSelect();
@@ -263,4 +309,14 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
     return accumulator != null ? accumulator.or(next) : next;
   }
 
+  @CheckForNull
+  private static <T> Set<T> union(@Nullable Set<T> accumulator, @Nullable Set<T> next) {
+    if (accumulator == null || next == null) {
+      return null;
+    }
+    Set<T> union = new HashSet<>(accumulator);
+    union.addAll(next);
+    return union;
+  }
+
 }
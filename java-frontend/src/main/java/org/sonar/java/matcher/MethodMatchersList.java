@@ -17,45 +17,159 @@
 package org.sonar.java.matcher;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.sonar.plugins.java.api.semantic.MethodMatchers;
 import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.semantic.Type;
 import org.sonar.plugins.java.api.tree.MethodInvocationTree;
 import org.sonar.plugins.java.api.tree.MethodReferenceTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.NewClassTree;
+import org.sonar.plugins.java.api.tree.Tree;
 
+/**
+ * Matches when any of its matchers matches. Matchers created with {@link MethodMatchersBuilder} are indexed by the names
+ * of the methods they search, so that a method is only compared to the matchers having its name. The call site type is
+ * computed once per tree, and only when a matcher accepts the name and arity of the method.
+ */
 public class MethodMatchersList implements MethodMatchers {
 
-  private List<? extends MethodMatchers> matchers;
+  private final List<MethodMatchers> matchers;
+
+  /**
+   * Builders which can match a method of a given name. The builders matching any name are part of every entry.
+   */
+  private final Map<String, List<MethodMatchersBuilder>> buildersByName = new HashMap<>();
+  private final List<MethodMatchersBuilder> buildersOfAnyName = new ArrayList<>();
+  private final List<MethodMatchers> otherMatchers = new ArrayList<>();
 
   public MethodMatchersList(List<? extends MethodMatchers> matchers) {
     this.matchers = new ArrayList<>(matchers);
+    this.matchers.forEach(this::index);
+    buildersByName.values().forEach(builders -> builders.addAll(buildersOfAnyName));
+  }
+
+  private void index(MethodMatchers matcher) {
+    if (matcher instanceof MethodMatchersList list) {
+      list.matchers.forEach(this::index);
+    } else if (matcher instanceof MethodMatchersBuilder builder) {
+      Set<String> names = builder.searchedNames();
+      if (names == null) {
+        buildersOfAnyName.add(builder);
+      } else {
+        names.forEach(name -> buildersByName.computeIfAbsent(name, k -> new ArrayList<>()).add(builder));
+      }
+    } else if (matcher != NoneMethodMatchers.getInstance()) {
+      otherMatchers.add(matcher);
+    }
   }
 
   @Override
   public boolean matches(NewClassTree newClassTree) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(newClassTree));
+    if (matchesBuilders(newClassTree.methodSymbol(), newClassTree)) {
+      return true;
+    }
+    for (MethodMatchers matcher : otherMatchers) {
+      if (matcher.matches(newClassTree)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
   public boolean matches(MethodInvocationTree mit) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(mit));
+    if (matchesBuilders(MethodMatchersBuilder.getIdentifier(mit).symbol(), mit)) {
+      return true;
+    }
+    for (MethodMatchers matcher : otherMatchers) {
+      if (matcher.matches(mit)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
   public boolean matches(MethodTree methodTree) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(methodTree));
+    if (methodTree.symbol().enclosingClass() != null && matchesBuilders(methodTree.symbol(), methodTree)) {
+      return true;
+    }
+    for (MethodMatchers matcher : otherMatchers) {
+      if (matcher.matches(methodTree)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
   public boolean matches(MethodReferenceTree methodReferenceTree) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(methodReferenceTree));
+    if (matchesBuilders(methodReferenceTree.method().symbol(), methodReferenceTree)) {
+      return true;
+    }
+    for (MethodMatchers matcher : otherMatchers) {
+      if (matcher.matches(methodReferenceTree)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
   public boolean matches(Symbol symbol) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(symbol));
+    if (matchesBuilders(symbol, null)) {
+      return true;
+    }
+    for (MethodMatchers matcher : otherMatchers) {
+      if (matcher.matches(symbol)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param callSite tree from which the call site type is computed, or null when the owner of the symbol is used
+   */
+  private boolean matchesBuilders(Symbol symbol, @Nullable Tree callSite) {
+    if (!symbol.isMethodSymbol()) {
+      return false;
+    }
+    Symbol.MethodSymbol methodSymbol = (Symbol.MethodSymbol) symbol;
+    boolean callSiteTypeComputed = false;
+    Type callSiteType = null;
+    for (MethodMatchersBuilder builder : buildersByName.getOrDefault(methodSymbol.name(), buildersOfAnyName)) {
+      if (builder.hasSearchedNameAndArity(methodSymbol)) {
+        if (!callSiteTypeComputed) {
+          callSiteType = callSiteType(callSite);
+          callSiteTypeComputed = true;
+        }
+        if (builder.hasSearchedType(methodSymbol, callSiteType)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @CheckForNull
+  private static Type callSiteType(@Nullable Tree callSite) {
+    if (callSite instanceof MethodInvocationTree mit) {
+      return MethodMatchersBuilder.getCallSiteType(mit);
+    }
+    if (callSite instanceof MethodReferenceTree methodReferenceTree) {
+      return MethodMatchersBuilder.getCallSiteType(methodReferenceTree);
+    }
+    if (callSite instanceof MethodTree methodTree) {
+      return methodTree.symbol().enclosingClass().type();
+    }
+    return null;
   }
 
 }
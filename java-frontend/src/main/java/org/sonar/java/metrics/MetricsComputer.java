@@ -16,13 +16,13 @@
  */
 package org.sonar.java.metrics;
 
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.CheckForNull;
 import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.java.ast.visitors.CognitiveComplexityVisitor;
-import org.sonar.java.ast.visitors.CommentLinesVisitor;
 import org.sonar.java.ast.visitors.ComplexityVisitor;
 import org.sonar.java.ast.visitors.LinesOfCodeVisitor;
 import org.sonar.java.ast.visitors.MethodNestingLevelVisitor;
@@ -34,112 +34,115 @@ import org.sonar.plugins.java.api.tree.Tree;
 
 public class MetricsComputer {
 
-  private final Map<Integer, List<Tree>> methodComplexityNodes = new HashMap<>();
-  private final Map<Integer, CognitiveComplexityVisitor.Result> methodComplexity = new HashMap<>();
-  private final Map<Integer, Integer> compilationUnityComplexity = new HashMap<>();
-  private final Map<Integer, Integer> methodNumberOfAccessedVariables = new HashMap<>();
-  private final Map<Integer, Integer> treeLinesOfCode = new HashMap<>();
-  private final Map<Integer, Integer> treeNumberOfStatements = new HashMap<>();
-  private final Map<Integer, Integer> treeNumberOfCommentedLines = new HashMap<>();
-  private final Map<Integer, Set<Integer>> treeNoSonarLines = new HashMap<>();
-  private final Map<Integer, Integer> methodNestingLevel = new HashMap<>();
+  private final Map<Tree, List<Tree>> methodComplexityNodes = new IdentityHashMap<>();
+  private final Map<Tree, CognitiveComplexityVisitor.Result> methodComplexity = new IdentityHashMap<>();
+  private final Map<Tree, Integer> compilationUnityComplexity = new IdentityHashMap<>();
+  private final Map<Tree, Integer> methodNumberOfAccessedVariables = new IdentityHashMap<>();
+  private final Map<Tree, Integer> treeLinesOfCode = new IdentityHashMap<>();
+  private final Map<Tree, Integer> treeNumberOfStatements = new IdentityHashMap<>();
+  private final Map<Tree, Integer> methodNestingLevel = new IdentityHashMap<>();
+  private TokenMetrics tokenMetrics;
 
   ComplexityVisitor complexityVisitor = new ComplexityVisitor();
 
   public List<Tree> getComplexityNodes(Tree tree) {
-    return methodComplexityNodes.computeIfAbsent(tree.hashCode(), k -> complexityVisitor.getNodes(tree));
+    return methodComplexityNodes.computeIfAbsent(tree, k -> complexityVisitor.getNodes(tree));
   }
 
   public CognitiveComplexityVisitor.Result getMethodComplexity(MethodTree tree) {
-    return methodComplexity.computeIfAbsent(tree.hashCode(), k -> CognitiveComplexityVisitor.methodComplexity(tree));
+    return methodComplexity.computeIfAbsent(tree, k -> CognitiveComplexityVisitor.methodComplexity(tree));
   }
 
   NumberOfAccessedVariablesVisitor methodBodyVisitor = new NumberOfAccessedVariablesVisitor();
 
   public int getNumberOfAccessedVariables(MethodTree tree) {
-    return methodNumberOfAccessedVariables.computeIfAbsent(tree.hashCode(), k -> methodBodyVisitor.getNumberOfAccessedVariables(tree));
+    return methodNumberOfAccessedVariables.computeIfAbsent(tree, k -> methodBodyVisitor.getNumberOfAccessedVariables(tree));
   }
 
   LinesOfCodeVisitor linesOfCodeVisitor = new LinesOfCodeVisitor();
 
   public int getLinesOfCode(Tree tree) {
-    return treeLinesOfCode.computeIfAbsent(tree.hashCode(), k -> linesOfCodeVisitor.linesOfCode(tree));
+    if (TokenMetrics.hasContiguousTokens(tree)) {
+      TokenMetrics metrics = tokenMetricsOfEnclosingCompilationUnit(tree);
+      if (metrics != null) {
+        return metrics.linesOfCode(tree);
+      }
+    }
+    return treeLinesOfCode.computeIfAbsent(tree, k -> linesOfCodeVisitor.linesOfCode(tree));
   }
 
   StatementVisitor numberOfStatementsVisitor = new StatementVisitor();
 
   public int getNumberOfStatements(Tree tree) {
-    return treeNumberOfStatements.computeIfAbsent(tree.hashCode(), k -> numberOfStatementsVisitor.numberOfStatements(tree));
+    return treeNumberOfStatements.computeIfAbsent(tree, k -> numberOfStatementsVisitor.numberOfStatements(tree));
   }
 
-  CommentLinesVisitor commentedLineVisitor = new CommentLinesVisitor();
-
   public Integer getNumberOfCommentedLines(CompilationUnitTree tree) {
-    return treeNumberOfCommentedLines.computeIfAbsent(tree.hashCode(), k -> {
-      commentedLineVisitor.analyzeCommentLines(tree);
-      return commentedLineVisitor.commentLinesMetric();
-    });
+    return tokenMetrics(tree).commentLinesMetric();
   }
 
   public Set<Integer> getNoSonarLines(CompilationUnitTree tree) {
-    return treeNoSonarLines.computeIfAbsent(tree.hashCode(), k -> {
-      commentedLineVisitor.analyzeCommentLines(tree);
-      return commentedLineVisitor.noSonarLines();
-    });
+    return tokenMetrics(tree).noSonarLines();
+  }
+
+  private TokenMetrics tokenMetrics(CompilationUnitTree tree) {
+    if (tokenMetrics == null || tokenMetrics.compilationUnit() != tree) {
+      tokenMetrics = new TokenMetrics(tree);
+    }
+    return tokenMetrics;
+  }
+
+  @CheckForNull
+  private TokenMetrics tokenMetricsOfEnclosingCompilationUnit(Tree tree) {
+    Tree root = tree;
+    while (root.parent() != null) {
+      root = root.parent();
+    }
+    return root instanceof CompilationUnitTree compilationUnit ? tokenMetrics(compilationUnit) : null;
   }
 
   public int getCompilationUnitComplexity(CompilationUnitTree tree) {
-    return compilationUnityComplexity.computeIfAbsent(tree.hashCode(), k -> CognitiveComplexityVisitor.compilationUnitComplexity(tree));
+    return compilationUnityComplexity.computeIfAbsent(tree, k -> CognitiveComplexityVisitor.compilationUnitComplexity(tree));
   }
 
   MethodNestingLevelVisitor methodNestingVisitor = new MethodNestingLevelVisitor();
 
   public int getMethodNestingLevel(MethodTree tree) {
-    return methodNestingLevel.computeIfAbsent(tree.hashCode(), k -> methodNestingVisitor.getMaxNestingLevel(tree));
+    return methodNestingLevel.computeIfAbsent(tree, k -> methodNestingVisitor.getMaxNestingLevel(tree));
   }
 
   @VisibleForTesting
-  Map<Integer, List<Tree>> getMethodComplexityNodes() {
+  Map<Tree, List<Tree>> getMethodComplexityNodes() {
     return methodComplexityNodes;
   }
 
   @VisibleForTesting
-  Map<Integer, CognitiveComplexityVisitor.Result> getMethodComplexity() {
+  Map<Tree, CognitiveComplexityVisitor.Result> getMethodComplexity() {
     return methodComplexity;
   }
 
   @VisibleForTesting
-  Map<Integer, Integer> getCompilationUnityComplexity() {
+  Map<Tree, Integer> getCompilationUnityComplexity() {
     return compilationUnityComplexity;
   }
 
   @VisibleForTesting
-  Map<Integer, Integer> getMethodNumberOfAccessedVariables() {
+  Map<Tree, Integer> getMethodNumberOfAccessedVariables() {
     return methodNumberOfAccessedVariables;
   }
 
   @VisibleForTesting
-  Map<Integer, Integer> getTreeLinesOfCode() {
+  Map<Tree, Integer> getTreeLinesOfCode() {
     return treeLinesOfCode;
   }
 
   @VisibleForTesting
-  Map<Integer, Integer> getTreeNumberOfStatements() {
+  Map<Tree, Integer> getTreeNumberOfStatements() {
     return treeNumberOfStatements;
   }
 
   @VisibleForTesting
-  Map<Integer, Integer> getTreeNumberOfCommentedLines() {
-    return treeNumberOfCommentedLines;
-  }
-
-  @VisibleForTesting
-  Map<Integer, Set<Integer>> getTreeNoSonarLines() {
-    return treeNoSonarLines;
-  }
-
-  @VisibleForTesting
-  Map<Integer, Integer> getMethodNestingLevel() {
+  Map<Tree, Integer> getMethodNestingLevel() {
     return methodNestingLevel;
   }
 
@@ -0,0 +1,94 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.metrics;
+
+import java.util.BitSet;
+import org.sonar.java.ast.visitors.CommentLinesVisitor;
+import org.sonar.java.model.InternalSyntaxToken;
+import org.sonar.plugins.java.api.location.Position;
+import org.sonar.plugins.java.api.tree.CaseGroupTree;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.StatementTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Line based metrics of a compilation unit, computed in a single pass over its tokens: the comment lines, the NOSONAR lines
+ * and, for each line, the number of lines of code up to it. The lines of code of a tree spanning a contiguous range of
+ * tokens are then the difference between the counts at its first and last lines.
+ */
+final class TokenMetrics extends CommentLinesVisitor {
+
+  private final CompilationUnitTree compilationUnit;
+  private final BitSet codeLines = new BitSet();
+  private final int[] linesOfCodeUpToLine;
+
+  TokenMetrics(CompilationUnitTree compilationUnit) {
+    this.compilationUnit = compilationUnit;
+    analyzeCommentLines(compilationUnit);
+    linesOfCodeUpToLine = new int[Math.max(codeLines.length(), 1) + 1];
+    for (int line = 1; line < linesOfCodeUpToLine.length; line++) {
+      linesOfCodeUpToLine[line] = linesOfCodeUpToLine[line - 1] + (codeLines.get(line) ? 1 : 0);
+    }
+  }
+
+  @Override
+  public void visitToken(SyntaxToken syntaxToken) {
+    if (!((InternalSyntaxToken) syntaxToken).isEOF()) {
+      codeLines.set(Position.startOf(syntaxToken).line());
+    }
+    super.visitToken(syntaxToken);
+  }
+
+  CompilationUnitTree compilationUnit() {
+    return compilationUnit;
+  }
+
+  int linesOfCode() {
+    return linesOfCodeUpToLine[linesOfCodeUpToLine.length - 1];
+  }
+
+  /**
+   * Same value as {@link org.sonar.java.ast.visitors.LinesOfCodeVisitor#linesOfCode(Tree)} for a tree of this compilation unit.
+   */
+  int linesOfCode(Tree tree) {
+    SyntaxToken firstToken = tree.firstToken();
+    SyntaxToken lastToken = tree.lastToken();
+    if (firstToken == null || lastToken == null) {
+      return 0;
+    }
+    int lastIndex = linesOfCodeUpToLine.length - 1;
+    int firstLine = Math.min(Position.startOf(firstToken).line(), lastIndex);
+    int lastLine = Math.min(Position.startOf(lastToken).line(), lastIndex);
+    return linesOfCodeUpToLine[lastLine] - linesOfCodeUpToLine[firstLine - 1];
+  }
+
+  /**
+   * Only the tokens of these trees are sure to be contiguous: the type of a variable declared with others, as in
+   * {@code int a, b;}, is shared between the variables and the type of {@code int a[]} is split by the name.
+   */
+  static boolean hasContiguousTokens(Tree tree) {
+    return tree instanceof CompilationUnitTree
+      || tree instanceof ClassTree
+      || tree instanceof MethodTree
+      || tree instanceof CaseGroupTree
+      || (tree instanceof StatementTree && !tree.is(Tree.Kind.VARIABLE));
+  }
+
+}
@@ -28,7 +28,7 @@ import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.List;
 
-public class ArrayDimensionTreeImpl extends JavaTree implements ArrayDimensionTree {
+public class ArrayDimensionTreeImpl extends CompositeTree implements ArrayDimensionTree {
 
   private List<AnnotationTree> annotations;
   private final SyntaxToken openBracketToken;
@@ -0,0 +1,55 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import javax.annotation.Nullable;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+
+/**
+ * Tree made of other trees, as opposed to tokens and trivias, which keeps its first and last tokens.
+ * <p>
+ * They are computed once, when first requested after the tree has been attached to its compilation unit and can no longer
+ * change. Both are kept in a single array so that the trees which are never located only pay for one reference.
+ */
+public abstract class CompositeTree extends JavaTree {
+
+  @Nullable
+  private SyntaxToken[] tokenBounds;
+
+  @Override
+  @Nullable
+  public SyntaxToken firstToken() {
+    SyntaxToken[] bounds = tokenBounds();
+    return bounds == null ? super.firstToken() : bounds[0];
+  }
+
+  @Override
+  @Nullable
+  public SyntaxToken lastToken() {
+    SyntaxToken[] bounds = tokenBounds();
+    return bounds == null ? super.lastToken() : bounds[1];
+  }
+
+  @Nullable
+  private SyntaxToken[] tokenBounds() {
+    if (tokenBounds == null && root != null) {
+      tokenBounds = new SyntaxToken[] {super.firstToken(), super.lastToken()};
+    }
+    return tokenBounds;
+  }
+
+}
@@ -31,6 +31,7 @@ import org.sonar.java.metrics.MetricsScannerContext;
 import org.sonar.java.regex.RegexCache;
 import org.sonar.java.regex.RegexCheck;
 import org.sonar.java.regex.RegexScannerContext;
+import org.sonar.java.regex.SharedRegexCache;
 import org.sonar.java.reporting.AnalyzerMessage;
 import org.sonar.java.reporting.FluentReporting;
 import org.sonar.java.reporting.InternalJavaIssueBuilder;
@@ -42,6 +43,7 @@ import org.sonar.plugins.java.api.caching.CacheContext;
 import org.sonar.plugins.java.api.internal.EndOfAnalysis;
 import org.sonar.plugins.java.api.semantic.Sema;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.LiteralTree;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
@@ -62,11 +64,18 @@ public class DefaultJavaFileScannerContext extends DefaultInputFileScannerContex
   public DefaultJavaFileScannerContext(CompilationUnitTree tree, InputFile inputFile, Sema semanticModel,
                                        @Nullable SonarComponents sonarComponents, JavaVersion javaVersion,
                                        boolean fileParsed, boolean inAndroidContext, @Nullable CacheContext cacheContext) {
+    this(tree, inputFile, semanticModel, sonarComponents, javaVersion, fileParsed, inAndroidContext, cacheContext, null);
+  }
+
+  public DefaultJavaFileScannerContext(CompilationUnitTree tree, InputFile inputFile, Sema semanticModel,
+                                       @Nullable SonarComponents sonarComponents, JavaVersion javaVersion,
+                                       boolean fileParsed, boolean inAndroidContext, @Nullable CacheContext cacheContext,
+                                       @Nullable SharedRegexCache sharedRegexCache) {
     super(sonarComponents, inputFile, javaVersion, inAndroidContext, cacheContext);
     this.tree = (JavaTree.CompilationUnitTreeImpl) tree;
     this.semanticEnabled = semanticModel != null;
     this.complexityVisitor = new ComplexityVisitor();
-    this.regexCache = new RegexCache();
+    this.regexCache = new RegexCache(sharedRegexCache);
     this.metricsComputer = new MetricsComputer();
     this.fileParsed = fileParsed;
   }
@@ -140,6 +149,20 @@ public class DefaultJavaFileScannerContext extends DefaultInputFileScannerContex
     return regexCache.getRegexForLiterals(initialFlags, stringLiterals);
   }
 
+  @Override
+  public Optional<RegexParseResult> regexSite(ExpressionTree methodInvocationOrAnnotation,
+    Function<ExpressionTree, Optional<RegexParseResult>> regexFinder) {
+    return regexCache.getRegexSite(methodInvocationOrAnnotation, regexFinder);
+  }
+
+  /**
+   * To be called once all the scanners are done with the file, so that the regexes shared with the other files no longer refer
+   * to its trees.
+   */
+  public void endOfFile() {
+    regexCache.unbindSharedResults();
+  }
+
   @Override
   public void reportIssue(JavaCheck javaCheck, Tree syntaxNode, String message, List<Location> secondary, @Nullable Integer cost) {
     List<List<Location>> flows = secondary.stream().map(Collections::singletonList).toList();
@@ -26,10 +26,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.TextPointer;
 import org.sonar.api.batch.fs.TextRange;
@@ -44,6 +47,8 @@ import static java.lang.Math.min;
 public class GeneratedFile implements InputFile {
 
   private final Path path;
+  @Nullable
+  private final String key;
   private String contents = null;
   private String md5 = null;
 
@@ -52,8 +57,48 @@ public class GeneratedFile implements InputFile {
 
   private SourceMap sourceMap;
 
+  private boolean sourcesUnchanged = false;
+
   public GeneratedFile(Path path) {
+    this(path, null);
+  }
+
+  /**
+   * @param key identifies the file in the analysis cache, it should not depend on the machine running the analysis. When null,
+   *            the absolute path of the file is used, and the cache entries of the file are not reused on another machine.
+   */
+  public GeneratedFile(Path path, @Nullable String key) {
     this.path = path;
+    this.key = key;
+  }
+
+  /**
+   * Files from which this file was generated, as referenced by its source maps. Empty when some of them are not part of
+   * the analysis.
+   */
+  public Optional<Set<InputFile>> sourceFiles() {
+    Set<InputFile> sourceFiles = new LinkedHashSet<>();
+    for (SmapFile sm : smapFiles) {
+      for (SmapFile.FileInfo fileInfo : sm.getFileSection().values()) {
+        if (fileInfo.inputFile == null) {
+          return Optional.empty();
+        }
+        sourceFiles.add(fileInfo.inputFile);
+      }
+    }
+    return Optional.of(sourceFiles);
+  }
+
+  /**
+   * Only the generator knows whether the sources of this file changed since the previous analysis, it is the case when
+   * the generated code could be reused from the analysis cache.
+   */
+  public boolean hasUnchangedSources() {
+    return sourcesUnchanged;
+  }
+
+  public void setSourcesUnchanged(boolean sourcesUnchanged) {
+    this.sourcesUnchanged = sourcesUnchanged;
   }
 
   public SourceMap sourceMap() {
@@ -248,7 +293,7 @@ public class GeneratedFile implements InputFile {
 
   @Override
   public String key() {
-    return absolutePath();
+    return key != null ? key : absolutePath();
   }
 
   @Override
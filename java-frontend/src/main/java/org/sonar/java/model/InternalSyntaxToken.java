@@ -17,6 +17,7 @@
 package org.sonar.java.model;
 
 import java.util.List;
+import javax.annotation.Nullable;
 import org.sonar.java.model.location.InternalPosition;
 import org.sonar.plugins.java.api.location.Range;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -27,28 +28,40 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
 
   private final List<SyntaxTrivia> trivias;
-  private final Range range;
   private final String value;
+  /**
+   * The start position is kept as primitives, the {@link Range} is only created by the first call to {@link #range()}.
+   */
+  private final int line;
+  private final int columnOffset;
   private final boolean isEOF;
+  @Nullable
+  private Range range;
 
   protected InternalSyntaxToken(InternalSyntaxToken internalSyntaxToken) {
     this.value = internalSyntaxToken.value;
-    this.range = internalSyntaxToken.range;
+    this.line = internalSyntaxToken.line;
+    this.columnOffset = internalSyntaxToken.columnOffset;
     this.trivias = internalSyntaxToken.trivias;
     this.isEOF = internalSyntaxToken.isEOF;
+    this.range = internalSyntaxToken.range;
   }
 
   public InternalSyntaxToken(int line, int columnOffset, String value, List<SyntaxTrivia> trivias, boolean isEOF) {
     this.value = value;
+    this.line = line;
+    this.columnOffset = columnOffset;
     this.trivias = trivias;
     this.isEOF = isEOF;
-    range = value.startsWith("\"\"\"")
-      ? Range.at(InternalPosition.atOffset(line, columnOffset), value)
-      : Range.at(InternalPosition.atOffset(line, columnOffset), value.length());
   }
 
   @Override
   public Range range() {
+    if (range == null) {
+      range = value.startsWith("\"\"\"")
+        ? Range.at(InternalPosition.atOffset(line, columnOffset), value)
+        : Range.at(InternalPosition.atOffset(line, columnOffset), value.length());
+    }
     return range;
   }
 
@@ -79,17 +92,17 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
 
   @Override
   public int getLine() {
-    return range.start().line();
+    return line;
   }
 
   @Override
   public int line() {
-    return range.start().line();
+    return line;
   }
 
   @Override
   public int column() {
-    return range.start().columnOffset();
+    return columnOffset;
   }
 
   @Override
@@ -20,6 +20,8 @@ import com.sonar.sslr.api.RecognitionException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -250,6 +252,7 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TypeParameterTree;
 import org.sonar.plugins.java.api.tree.TypeTree;
 import org.sonar.plugins.java.api.tree.VariableTree;
+import org.sonarsource.performance.measure.PerformanceMeasure;
 
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class JParser {
@@ -269,6 +272,22 @@ public class JParser {
   private static final Predicate<IProblem> IS_SYNTAX_ERROR = error -> ((error.getID() & IProblem.Syntax) != 0) &&
     !WRONGLY_CATEGORIZED_AS_SYNTAX_ERROR.contains(error.getID());
 
+  /**
+   * Tokens whose text is not determined by their type, and which therefore do not share their text with other tokens.
+   */
+  private static final Set<TerminalToken> VARIABLE_TEXT_TOKENS = EnumSet.of(
+    TerminalToken.TokenNameIdentifier,
+    TerminalToken.TokenNameIntegerLiteral,
+    TerminalToken.TokenNameLongLiteral,
+    TerminalToken.TokenNameFloatingPointLiteral,
+    TerminalToken.TokenNameDoubleLiteral,
+    TerminalToken.TokenNameCharacterLiteral,
+    TerminalToken.TokenNameStringLiteral,
+    TerminalToken.TokenNameSingleQuoteStringLiteral,
+    TerminalToken.TokenNameTextBlock,
+    TerminalToken.TokenNameERROR
+  );
+
   private static final Predicate<IProblem> IS_UNDEFINED_TYPE_ERROR = error -> (error.getID() & IProblem.UndefinedType) != 0;
 
   /**
@@ -276,8 +295,16 @@ public class JParser {
    * @throws RecognitionException in case of syntax errors
    */
   public static JavaTree.CompilationUnitTreeImpl parse(ASTParser astParser, String version, String unitName, String source) {
+    return parse(astParser, version, unitName, source, true);
+  }
+
+  /**
+   * @param measurePerformance false when parsing concurrently with other files, as {@link PerformanceMeasure} is not thread-safe
+   */
+  static JavaTree.CompilationUnitTreeImpl parse(ASTParser astParser, String version, String unitName, String source, boolean measurePerformance) {
     astParser.setUnitName(unitName);
-    astParser.setSource(source.toCharArray());
+    char[] sourceChars = source.toCharArray();
+    astParser.setSource(sourceChars);
 
     CompilationUnit astNode;
     try {
@@ -287,14 +314,35 @@ public class JParser {
       throw new RecognitionException(-1, "ECJ: Unable to parse file.", e);
     }
 
-    return convert(version, unitName, source, astNode);
+    return convert(version, unitName, source, sourceChars, astNode, measurePerformance);
   }
 
   static JavaTree.CompilationUnitTreeImpl convert(String version, String unitName, String source, CompilationUnit astNode) {
+    return convert(version, unitName, source, astNode, true);
+  }
+
+  /**
+   * @param measurePerformance false when converting concurrently with other files, as {@link PerformanceMeasure} is not thread-safe
+   */
+  static JavaTree.CompilationUnitTreeImpl convert(String version, String unitName, String source, CompilationUnit astNode, boolean measurePerformance) {
+    return convert(version, unitName, source, source.toCharArray(), astNode, measurePerformance);
+  }
+
+  /**
+   * @param sourceChars the characters of {@code source}, shared with the ECJ parser when possible, from which the line starts
+   * and the tokens are computed. In batch mode, ECJ reads the files by itself and does not expose the characters it parsed,
+   * so the caller converts the source once and the same array is used for the line starts and the tokens. The line starts are
+   * still found in their own loop: the line ends recorded by the ECJ scanner do not follow our convention for line
+   * continuations in text blocks (see {@link LineColumnConverter}).
+   */
+  static JavaTree.CompilationUnitTreeImpl convert(String version, String unitName, String source, char[] sourceChars, CompilationUnit astNode,
+    boolean measurePerformance) {
     List<IProblem> errors = Stream.of(astNode.getProblems()).filter(IProblem::isError).toList();
     Optional<IProblem> possibleSyntaxError = errors.stream().filter(IS_SYNTAX_ERROR).findFirst();
-    LineColumnConverter lineColumnConverter = new LineColumnConverter(source);
+    PerformanceMeasure.Duration lexDuration = JParserConfig.startMeasure("Lex", measurePerformance);
+    LineColumnConverter lineColumnConverter = new LineColumnConverter(sourceChars);
     if (possibleSyntaxError.isPresent()) {
+      lexDuration.stop();
       IProblem syntaxError = possibleSyntaxError.get();
       LineColumnConverter.Pos pos = lineColumnConverter.toPos(syntaxError.getSourceStart());
       String message = String.format("Parse error at line %d column %d: %s", pos.line(), pos.columnOffset() + 1, syntaxError.getMessage());
@@ -313,8 +361,9 @@ public class JParser {
     converter.sema = new JSema(astNode.getAST());
     converter.sema.undefinedTypes.addAll(undefinedTypes);
     converter.compilationUnit = astNode;
-    converter.tokenManager = createTokenManager(version, unitName, source);
+    converter.tokenManager = createTokenManager(version, unitName, source, sourceChars);
     converter.lineColumnConverter = lineColumnConverter;
+    lexDuration.stop();
 
     JavaTree.CompilationUnitTreeImpl tree = converter.convertCompilationUnit(astNode);
     tree.sema = converter.sema;
@@ -328,7 +377,11 @@ public class JParser {
 
   @VisibleForTesting
   static TokenManager createTokenManager(String version, String unitName, String source) {
-    return new TokenManager(lex(version, unitName, source.toCharArray()), source, new DefaultCodeFormatterOptions(new HashMap<>()));
+    return createTokenManager(version, unitName, source, source.toCharArray());
+  }
+
+  private static TokenManager createTokenManager(String version, String unitName, String source, char[] sourceChars) {
+    return new TokenManager(lex(version, unitName, sourceChars), source, new DefaultCodeFormatterOptions(new HashMap<>()));
   }
 
   private static void setParents(Tree node) {
@@ -382,6 +435,11 @@ public class JParser {
   private TokenManager tokenManager;
   private LineColumnConverter lineColumnConverter;
 
+  /**
+   * Text of the last token of each type with a fixed text, shared by all the tokens of this type having the same text.
+   */
+  private final Map<TerminalToken, String> fixedTokenTexts = new EnumMap<>(TerminalToken.class);
+
   private JSema sema;
 
   private final Deque<JLabelSymbol> labels = new LinkedList<>();
@@ -489,12 +547,27 @@ public class JParser {
       value = "";
     } else {
       isEOF = false;
-      value = t.toString(tokenManager.getSource());
+      value = tokenText(t);
     }
     LineColumnConverter.Pos pos = lineColumnConverter.toPos(t.originalStart);
     return new InternalSyntaxToken(pos.line(), pos.columnOffset(), value, collectComments(tokenIndex), isEOF);
   }
 
+  private String tokenText(Token t) {
+    String source = tokenManager.getSource();
+    if (VARIABLE_TEXT_TOKENS.contains(t.tokenType)) {
+      return t.toString(source);
+    }
+    // keywords and operators can still be written with unicode escapes
+    int length = t.originalEnd - t.originalStart + 1;
+    String text = fixedTokenTexts.get(t.tokenType);
+    if (text == null || text.length() != length || !source.regionMatches(t.originalStart, text, 0, length)) {
+      text = t.toString(source);
+      fixedTokenTexts.put(t.tokenType, text);
+    }
+    return text;
+  }
+
   private InternalSyntaxToken createSpecialToken(int tokenIndex) {
     Token t = tokenManager.get(tokenIndex);
     List<SyntaxTrivia> comments = t.tokenType == TerminalToken.TokenNameGREATER
@@ -509,6 +582,9 @@ public class JParser {
     while (commentIndex > 0 && isComment(tokenManager.get(commentIndex - 1))) {
       commentIndex--;
     }
+    if (commentIndex == tokenIndex) {
+      return Collections.emptyList();
+    }
     List<SyntaxTrivia> comments = new ArrayList<>();
     for (int i = commentIndex; i < tokenIndex; i++) {
       Token t = tokenManager.get(i);
@@ -29,12 +29,14 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BooleanSupplier;
 import java.util.stream.StreamSupport;
+import javax.annotation.Nullable;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.FileASTRequestor;
+import org.eclipse.jdt.core.dom.SharedClasspath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
@@ -55,10 +57,15 @@ public abstract class JParserConfig {
 
   private static final String MAXIMUM_ECJ_WARNINGS = "42000";
   private static final Set<String> JRE_JARS = new HashSet<>(Arrays.asList("rt.jar", "jrt-fs.jar", "android.jar"));
+  private static final PerformanceMeasure.Duration IGNORED_DURATION = () -> {
+  };
 
   final JavaVersion javaVersion;
   final List<File> classpath;
   final boolean shouldIgnoreUnnamedModuleForSplitPackage;
+  @Nullable
+  SharedClasspath sharedClasspath;
+  boolean measurePerformance = true;
 
   private JParserConfig(JavaVersion javaVersion, List<File> classpath, boolean shouldIgnoreUnnamedModuleForSplitPackage) {
     this.javaVersion = javaVersion;
@@ -113,8 +120,46 @@ public abstract class JParserConfig {
     }
   }
 
+  /**
+   * Makes the batches parsed with this configuration resolve their types with the given classpath entries, instead of opening
+   * the jars of the classpath for each of them. The caller is responsible for cleaning up the entries.
+   */
+  public JParserConfig withSharedClasspath(SharedClasspath sharedClasspath) {
+    this.sharedClasspath = sharedClasspath;
+    return this;
+  }
+
+  /**
+   * Disables the performance measures of parsing, which are not thread-safe, when several configurations parse concurrently.
+   */
+  public JParserConfig withoutPerformanceMeasures() {
+    this.measurePerformance = false;
+    return this;
+  }
+
+  static PerformanceMeasure.Duration startMeasure(String name, boolean measurePerformance) {
+    return measurePerformance ? PerformanceMeasure.start(name) : IGNORED_DURATION;
+  }
+
+  /**
+   * Opens the given classpath, to be shared by several batches with {@link #withSharedClasspath}.
+   */
+  public static SharedClasspath sharedClasspath(List<File> classpath) {
+    return SharedClasspath.create(absolutePaths(classpath), includeRunningVMBootclasspath(classpath));
+  }
+
   public ASTParser astParser() {
     ASTParser astParser = ASTParser.newParser(AST.getJLSLatest());
+    astParser.setCompilerOptions(compilerOptions());
+    astParser.setEnvironment(absolutePaths(classpath), new String[] {}, new String[] {}, includeRunningVMBootclasspath(classpath));
+
+    astParser.setResolveBindings(true);
+    astParser.setBindingsRecovery(true);
+
+    return astParser;
+  }
+
+  Map<String, String> compilerOptions() {
     Map<String, String> options = new HashMap<>(JavaCore.getOptions());
     JavaCore.setComplianceOptions(javaVersion.effectiveJavaVersionAsString(), options);
     options.put(JavaCore.COMPILER_PB_MAX_PER_UNIT, MAXIMUM_ECJ_WARNINGS);
@@ -127,20 +172,18 @@ public abstract class JParserConfig {
     // enabling all supported compiler warnings
     JProblem.Type.compilerOptions()
       .forEach(option -> options.put(option, "warning"));
+    return options;
+  }
 
-    astParser.setCompilerOptions(options);
-
-    boolean includeRunningVMBootclasspath = classpath.stream()
-      .noneMatch(f -> JRE_JARS.contains(f.getName()));
-
-    astParser.setEnvironment(classpath.stream()
+  private static String[] absolutePaths(List<File> classpath) {
+    return classpath.stream()
       .map(File::getAbsolutePath)
-      .toArray(String[]::new), new String[] {}, new String[] {}, includeRunningVMBootclasspath);
-
-    astParser.setResolveBindings(true);
-    astParser.setBindingsRecovery(true);
+      .toArray(String[]::new);
+  }
 
-    return astParser;
+  private static boolean includeRunningVMBootclasspath(List<File> classpath) {
+    return classpath.stream()
+      .noneMatch(f -> JRE_JARS.contains(f.getName()));
   }
 
   @VisibleForTesting
@@ -168,29 +211,38 @@ public abstract class JParserConfig {
 
       ExecutionTimeReport executionTimeReport = new ExecutionTimeReport();
       ProgressMonitor monitor = new ProgressMonitor(isCanceled, analysisProgress);
-      PerformanceMeasure.Duration batchPerformance = PerformanceMeasure.start("ParseAsBatch");
+      PerformanceMeasure.Duration batchPerformance = startMeasure("ParseAsBatch", measurePerformance);
       try {
-        astParser().createASTs(sourceFilePaths.toArray(new String[0]), encodings.toArray(new String[0]), new String[0], new FileASTRequestor() {
+        FileASTRequestor requestor = new FileASTRequestor() {
           @Override
           public void acceptAST(String sourceFilePath, CompilationUnit ast) {
-            PerformanceMeasure.Duration convertDuration = PerformanceMeasure.start("Convert");
+            PerformanceMeasure.Duration convertDuration = startMeasure("Convert", measurePerformance);
             InputFile inputFile = inputs.get(new File(sourceFilePath));
             executionTimeReport.start(inputFile);
             Result result;
             try {
-              result = new Result(JParser.convert(javaVersion.effectiveJavaVersionAsString(), inputFile.filename(), inputFile.contents(), ast));
+              String source = inputFile.contents();
+              result = new Result(JParser.convert(javaVersion.effectiveJavaVersionAsString(), inputFile.filename(), source, source.toCharArray(), ast,
+                measurePerformance));
             } catch (Exception e) {
               result = new Result(e);
             }
             convertDuration.stop();
-            PerformanceMeasure.Duration analyzeDuration = PerformanceMeasure.start("Analyze");
+            PerformanceMeasure.Duration analyzeDuration = startMeasure("Analyze", measurePerformance);
             action.accept(inputFile, result);
 
             notYetAnalyzedFiles.remove(inputFile);
             executionTimeReport.end();
             analyzeDuration.stop();
           }
-        }, monitor);
+        };
+        String[] sourceFilePathsArray = sourceFilePaths.toArray(new String[0]);
+        String[] encodingsArray = encodings.toArray(new String[0]);
+        if (sharedClasspath != null) {
+          sharedClasspath.createASTs(sourceFilePathsArray, encodingsArray, requestor, AST.getJLSLatest(), compilerOptions(), monitor);
+        } else {
+          astParser().createASTs(sourceFilePathsArray, encodingsArray, new String[0], requestor, monitor);
+        }
         if (!notYetAnalyzedFiles.isEmpty()) {
           String message = String.format("%d/%d files were not analyzed by the batch mode", notYetAnalyzedFiles.size(), sourceFilePaths.size());
           throw new AnalysisException(message);
@@ -216,7 +268,7 @@ public abstract class JParserConfig {
         if (isCanceled.getAsBoolean()) {
           break;
         }
-        FileByFile.parse(astParser(), inputFile, javaVersion, action);
+        FileByFile.parse(astParser(), inputFile, javaVersion, action, measurePerformance);
       }
     }
 
@@ -247,7 +299,7 @@ public abstract class JParserConfig {
             break;
           }
           executionTimeReport.start(inputFile);
-          parse(astParser(), inputFile, javaVersion, action);
+          parse(astParser(), inputFile, javaVersion, action, measurePerformance);
           executionTimeReport.end();
           progressReport.nextFile();
         }
@@ -262,11 +314,13 @@ public abstract class JParserConfig {
       }
     }
 
-    private static void parse(ASTParser astParser, InputFile inputFile, JavaVersion javaVersion, BiConsumer<InputFile, Result> action) {
+    private static void parse(ASTParser astParser, InputFile inputFile, JavaVersion javaVersion, BiConsumer<InputFile, Result> action,
+      boolean measurePerformance) {
       Result result;
-      PerformanceMeasure.Duration parseDuration = PerformanceMeasure.start("JParser");
+      PerformanceMeasure.Duration parseDuration = startMeasure("JParser", measurePerformance);
       try {
-        result = new Result(JParser.parse(astParser, javaVersion.effectiveJavaVersionAsString(), inputFile.filename(), inputFile.contents()));
+        result = new Result(JParser.parse(astParser, javaVersion.effectiveJavaVersionAsString(), inputFile.filename(), inputFile.contents(),
+          measurePerformance));
       } catch (Exception e) {
         result = new Result(e);
       } finally {
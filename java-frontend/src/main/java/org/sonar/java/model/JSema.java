@@ -37,6 +37,7 @@ import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.semantic.Type;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.Tree;
+import org.sonarsource.performance.measure.PerformanceMeasure;
 
 public final class JSema implements Sema {
 
@@ -50,6 +51,8 @@ public final class JSema implements Sema {
   private final Map<Symbol.TypeSymbol, JInitializerBlockSymbol> staticInitializerBlockSymbols = new HashMap<>();
   private final Map<IAnnotationBinding, JSymbolMetadata.JAnnotationInstance> annotations = new HashMap<>();
   private final Map<String, Type> nameToTypeCache = new HashMap<>();
+  private final Map<ITypeBinding, Map<ITypeBinding, Boolean>> subtypeCache = new HashMap<>();
+  private final Map<ITypeBinding, Set<String>> supertypeNames = new HashMap<>();
 
   JSema(AST ast) {
     this.ast = ast;
@@ -115,6 +118,27 @@ public final class JSema implements Sema {
     }
   }
 
+  /**
+   * Memoized {@link JType#isSubtype(ITypeBinding, ITypeBinding)}, the same questions being asked by many rules on the same file.
+   */
+  boolean isSubtype(ITypeBinding left, ITypeBinding right) {
+    Map<ITypeBinding, Boolean> supertypes = subtypeCache.computeIfAbsent(left, k -> new HashMap<>());
+    Boolean result = supertypes.get(right);
+    if (result != null) {
+      PerformanceMeasure.start("SubtypeCache.hit").stop();
+      return result;
+    }
+    PerformanceMeasure.Duration duration = PerformanceMeasure.start("SubtypeCache.miss");
+    result = JType.isSubtype(left, right);
+    duration.stop();
+    supertypes.put(right, result);
+    return result;
+  }
+
+  Set<String> supertypeNames(ITypeBinding typeBinding) {
+    return supertypeNames.computeIfAbsent(typeBinding, JType::supertypeNames);
+  }
+
   @Override
   public Type getClassType(String fullyQualifiedName) {
     return nameToTypeCache.computeIfAbsent(fullyQualifiedName, t -> {
@@ -16,10 +16,15 @@
  */
 package org.sonar.java.model;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 import javax.annotation.Nullable;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.slf4j.Logger;
@@ -69,16 +74,52 @@ final class JType implements Type, Type.ArrayType {
 
   @Override
   public boolean isSubtypeOf(String fullyQualifiedName) {
-    return isSubtypeOf(sema.getClassType(fullyQualifiedName));
+    return sema.supertypeNames(typeBinding).contains(fullyQualifiedName)
+      || isSubtypeOf(sema.getClassType(fullyQualifiedName));
   }
 
   @Override
   public boolean isSubtypeOf(Type superType) {
     return !superType.isUnknown()
-      && isSubtype(this.typeBinding, ((JType) superType).typeBinding);
+      && sema.isSubtype(this.typeBinding, ((JType) superType).typeBinding);
   }
 
-  private static boolean isSubtype(ITypeBinding left, ITypeBinding right) {
+  /**
+   * @return binary names of the given type and of all its supertypes, or an empty set when the type
+   * is not a class, an interface or an enum with a fully resolved hierarchy
+   */
+  static Set<String> supertypeNames(ITypeBinding typeBinding) {
+    if (!isClassOrInterface(typeBinding)) {
+      return Collections.emptySet();
+    }
+    Set<String> names = new HashSet<>();
+    names.add("java.lang.Object");
+    Deque<ITypeBinding> toVisit = new ArrayDeque<>();
+    toVisit.add(typeBinding);
+    while (!toVisit.isEmpty()) {
+      ITypeBinding current = toVisit.pop();
+      if (!isClassOrInterface(current)) {
+        // incomplete hierarchy, let ECJ answer
+        return Collections.emptySet();
+      }
+      if (names.add(current.getErasure().getBinaryName())) {
+        ITypeBinding superclass = current.getSuperclass();
+        if (superclass != null) {
+          toVisit.push(superclass);
+        }
+        Collections.addAll(toVisit, current.getInterfaces());
+      }
+    }
+    return names;
+  }
+
+  private static boolean isClassOrInterface(ITypeBinding typeBinding) {
+    return (typeBinding.isClass() || typeBinding.isInterface() || typeBinding.isEnum())
+      && !typeBinding.isRecovered()
+      && typeBinding.getErasure().getBinaryName() != null;
+  }
+
+  static boolean isSubtype(ITypeBinding left, ITypeBinding right) {
     if (left.isRecovered()) {
       return false;
     }
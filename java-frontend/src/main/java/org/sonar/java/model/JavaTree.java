@@ -18,6 +18,7 @@ package org.sonar.java.model;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumMap;
@@ -34,6 +35,7 @@ import org.eclipse.jdt.core.dom.IVariableBinding;
 import org.sonar.java.Preconditions;
 import org.sonar.java.annotations.Beta;
 import org.sonar.java.ast.parser.QualifiedIdentifierListTreeImpl;
+import org.sonar.java.ast.visitors.VisitorPruning;
 import org.sonar.java.model.declaration.AnnotationTreeImpl;
 import org.sonar.java.model.expression.AssessableExpressionTree;
 import org.sonar.java.model.expression.TypeArgumentListTreeImpl;
@@ -156,7 +158,7 @@ public abstract class JavaTree implements Tree {
     return false;
   }
 
-  public static class CompilationUnitTreeImpl extends JavaTree implements CompilationUnitTree {
+  public static class CompilationUnitTreeImpl extends CompositeTree implements CompilationUnitTree, VisitorPruning.Indexed {
     @Nullable
     private final PackageDeclarationTree packageDeclaration;
     private final List<ImportClauseTree> imports;
@@ -168,6 +170,9 @@ public abstract class JavaTree implements Tree {
 
     private final Map<JProblem.Type, Set<JWarning>> warnings = new EnumMap<>(JProblem.Type.class);
 
+    @Nullable
+    private BitSet descendantKinds;
+
     public CompilationUnitTreeImpl(@Nullable PackageDeclarationTree packageDeclaration, List<ImportClauseTree> imports, List<Tree> types,
       @Nullable ModuleDeclarationTree moduleDeclaration, SyntaxToken eofToken) {
       this.root = this;
@@ -198,6 +203,17 @@ public abstract class JavaTree implements Tree {
       return Collections.unmodifiableList(new ArrayList<>(warnings.getOrDefault(type, Collections.emptySet())));
     }
 
+    @Nullable
+    @Override
+    public BitSet descendantKinds() {
+      return descendantKinds;
+    }
+
+    @Override
+    public void setDescendantKinds(BitSet descendantKinds) {
+      this.descendantKinds = descendantKinds;
+    }
+
     @Override
     public void accept(TreeVisitor visitor) {
       visitor.visitCompilationUnit(this);
@@ -238,7 +254,7 @@ public abstract class JavaTree implements Tree {
 
   }
 
-  public static class PackageDeclarationTreeImpl extends JavaTree implements PackageDeclarationTree {
+  public static class PackageDeclarationTreeImpl extends CompositeTree implements PackageDeclarationTree {
 
     private final List<AnnotationTree> annotations;
     private final SyntaxToken packageKeyword;
@@ -315,7 +331,7 @@ public abstract class JavaTree implements Tree {
     }
   }
 
-  public static class ImportTreeImpl extends JavaTree implements ImportTree {
+  public static class ImportTreeImpl extends CompositeTree implements ImportTree {
     private final boolean isStatic;
     private final Tree qualifiedIdentifier;
     private final SyntaxToken semicolonToken;
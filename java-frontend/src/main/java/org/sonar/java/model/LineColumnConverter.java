@@ -17,8 +17,6 @@
 package org.sonar.java.model;
 
 import java.util.Arrays;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.sonar.plugins.java.api.location.Position;
 
 /**
@@ -31,16 +29,27 @@ import org.sonar.plugins.java.api.location.Position;
  */
 public class LineColumnConverter {
 
-  private static final Pattern LINE_SEPARATOR_PATTERN = Pattern.compile("\r\n?|\n");
-
   private int[] lineStartIndexes = new int[64];
   private int lineStartIndexesLength = 0;
 
   public LineColumnConverter(String source) {
-    Matcher matcher = LINE_SEPARATOR_PATTERN.matcher(source);
+    this(source.toCharArray());
+  }
+
+  /**
+   * Line separators are "\r\n", "\r" and "\n".
+   */
+  public LineColumnConverter(char[] source) {
     addLineStartIndex(0);
-    while (matcher.find()) {
-      addLineStartIndex(matcher.end());
+    int length = source.length;
+    for (int i = 0; i < length; i++) {
+      char c = source[i];
+      if (c == '\r' && i + 1 < length && source[i + 1] == '\n') {
+        i++;
+        addLineStartIndex(i + 1);
+      } else if (c == '\r' || c == '\n') {
+        addLineStartIndex(i + 1);
+      }
     }
     addLineStartIndex(Integer.MAX_VALUE);
   }
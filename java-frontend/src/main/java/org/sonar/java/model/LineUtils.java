@@ -42,6 +42,9 @@ public final class LineUtils {
   }
 
   public static int startLine(SyntaxToken token) {
+    if (token instanceof InternalSyntaxToken internalSyntaxToken) {
+      return internalSyntaxToken.getLine();
+    }
     return Position.startOf(token).line();
   }
 
@@ -32,7 +32,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 import org.sonar.plugins.java.api.tree.TypeParameterTree;
 import org.sonar.plugins.java.api.tree.TypeTree;
 
-public class TypeParameterTreeImpl extends JavaTree implements TypeParameterTree {
+public class TypeParameterTreeImpl extends CompositeTree implements TypeParameterTree {
 
   private final IdentifierTreeImpl identifier;
   @Nullable
@@ -20,14 +20,15 @@ import com.sonar.sslr.api.RecognitionException;
 import java.io.File;
 import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.EnumMap;
 import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.StreamSupport;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,12 +41,16 @@ import org.sonar.java.ExceptionHandler;
 import org.sonar.java.IllegalRuleParameterException;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.annotations.VisibleForTesting;
+import org.sonar.java.ast.visitors.FusableSubscriptionVisitor;
 import org.sonar.java.ast.visitors.SonarSymbolTableVisitor;
 import org.sonar.java.ast.visitors.SubscriptionVisitor;
+import org.sonar.java.ast.visitors.VisitorPruning;
 import org.sonar.java.caching.CacheContextImpl;
+import org.sonar.java.caching.FileCacheRecords;
 import org.sonar.java.classpath.DependencyVersionInference;
 import org.sonar.java.exceptions.ApiMismatchException;
 import org.sonar.java.exceptions.ThrowableUtils;
+import org.sonar.java.regex.SharedRegexCache;
 import org.sonar.plugins.java.api.DependencyVersionAware;
 import org.sonar.plugins.java.api.InputFileScannerContext;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
@@ -60,8 +65,8 @@ import org.sonar.plugins.java.api.internal.EndOfAnalysis;
 import org.sonar.plugins.java.api.semantic.Sema;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
-import org.sonar.plugins.java.api.tree.Tree.Kind;
 import org.sonarsource.performance.measure.PerformanceMeasure;
 
 public class VisitorsBridge {
@@ -81,6 +86,7 @@ public class VisitorsBridge {
   @VisibleForTesting
   CacheContext cacheContext;
   private final DependencyVersionInference dependencyService;
+  private final SharedRegexCache sharedRegexCache = new SharedRegexCache();
 
   @VisibleForTesting
   public VisitorsBridge(JavaFileScanner visitor) {
@@ -131,8 +137,8 @@ public class VisitorsBridge {
     StreamSupport.stream(visitors.spliterator(), false)
       .filter(predicate)
       .forEach(visitor -> {
-        if (visitor instanceof IssuableSubscriptionVisitor issuableSubscriptionVisitor) {
-          runner.add(issuableSubscriptionVisitor);
+        if (visitor instanceof IssuableSubscriptionVisitor || visitor instanceof FusableSubscriptionVisitor) {
+          runner.add((SubscriptionVisitor) visitor);
         } else if (visitor instanceof JavaFileScanner javaFileScanner) {
           scanners.add(javaFileScanner);
         }
@@ -165,6 +171,16 @@ public class VisitorsBridge {
     return !(visitor instanceof EndOfAnalysis) && visitor.getClass().getCanonicalName().startsWith("org.sonar.java.checks.");
   }
 
+  /**
+   * Only the checks of this plugin declaring the kinds of trees they visit, see {@link VisitorPruning.Prunable}, are not
+   * run on the files which do not contain any of them.
+   */
+  static boolean canScannerSkipFile(JavaFileScanner scanner, CompilationUnitTree tree) {
+    return scanner instanceof VisitorPruning.Prunable prunable
+      && scanner.getClass().getName().startsWith("org.sonar.java.checks.")
+      && !VisitorPruning.containsAny(tree, prunable.visitedKinds());
+  }
+
   public JavaVersion getJavaVersion() {
     return javaVersion;
   }
@@ -195,7 +211,7 @@ public class VisitorsBridge {
       List<JavaFileScanner> scannersRequiringParsing = new ArrayList<>();
       List<JavaFileScanner> scannersNotRequiringParsing = new ArrayList<>();
 
-      var fileScannerContext = createScannerContext(sonarComponents, inputFile, javaVersion, inAndroidContext, cacheContext);
+      var fileScannerContext = createScannerContext(sonarComponents, inputFile, javaVersion, inAndroidContext, fileCacheContext(inputFile));
       for (var scanner : scannersThatCannotBeSkipped) {
         boolean exceptionIsBlownUp = false;
         PerformanceMeasure.Duration scannerDuration = PerformanceMeasure.start(scanner);
@@ -233,6 +249,10 @@ public class VisitorsBridge {
       LOG.trace("Scanners that do not require parsing of {}: {}", inputFile, scannersNotRequiringParsing);
       LOG.debug("Scanners that require parsing of {}: {}", inputFile, scannersRequiringParsing);
 
+      if (allScansSucceeded) {
+        // otherwise, the file is parsed and visited later on
+        fileCacheDone(inputFile);
+      }
       return allScansSucceeded;
     } else {
       return false;
@@ -262,17 +282,56 @@ public class VisitorsBridge {
     var scanners = getScanners(fileCanBeSkipped);
 
     PerformanceMeasure.Duration scannersDuration = PerformanceMeasure.start("Scanners");
-    for (JavaFileScanner scanner : scanners) {
-      PerformanceMeasure.Duration scannerDuration = PerformanceMeasure.start(scanner);
-      try {
-        runScanner(javaFileScannerContext, scanner);
-      } catch (CheckFailureException e) {
-        interruptIfFailFast(e);
-      } finally {
-        scannerDuration.stop();
+    try {
+      for (JavaFileScanner scanner : scanners) {
+        if (canScannerSkipFile(scanner, tree)) {
+          continue;
+        }
+        PerformanceMeasure.Duration scannerDuration = PerformanceMeasure.start(scanner);
+        try {
+          runScanner(javaFileScannerContext, scanner);
+        } catch (CheckFailureException e) {
+          interruptIfFailFast(e);
+        } finally {
+          scannerDuration.stop();
+        }
+      }
+    } finally {
+      if (javaFileScannerContext instanceof DefaultJavaFileScannerContext defaultJavaFileScannerContext) {
+        defaultJavaFileScannerContext.endOfFile();
       }
     }
     scannersDuration.stop();
+    fileCacheDone(currentFile);
+  }
+
+  protected CacheContext fileCacheContext(@Nullable InputFile inputFile) {
+    if (inputFile != null && cacheContext instanceof CacheContextImpl cacheContextImpl) {
+      return cacheContextImpl.forFile(inputFile);
+    }
+    return cacheContext;
+  }
+
+  /**
+   * Writes the cache record of the file, a failure is reported like the failure of a check writing to the cache.
+   */
+  private void fileCacheDone(@Nullable InputFile inputFile) {
+    FileCacheRecords fileCacheRecords = fileCacheRecords();
+    if (inputFile != null && fileCacheRecords != null) {
+      try {
+        fileCacheRecords.flush(inputFile);
+      } catch (AnalysisException e) {
+        LOG.warn(e.getMessage(), e.getCause());
+        if (sonarComponents != null && sonarComponents.shouldFailAnalysisOnException()) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  @CheckForNull
+  private FileCacheRecords fileCacheRecords() {
+    return cacheContext instanceof CacheContextImpl cacheContextImpl ? cacheContextImpl.fileCacheRecords() : null;
   }
 
   private void interruptIfFailFast(CheckFailureException e) {
@@ -288,27 +347,36 @@ public class VisitorsBridge {
   private void runScanner(Runnable action, JavaFileScanner scanner) throws CheckFailureException {
     try {
       action.run();
-    } catch (IllegalRuleParameterException e) {
+    } catch (RuntimeException e) {
+      throw checkFailure(e, scanner);
+    }
+  }
+
+  /**
+   * Either rethrows the given exception, when it has to interrupt the analysis, or logs it and returns the
+   * corresponding {@link CheckFailureException} for the caller to throw.
+   */
+  private CheckFailureException checkFailure(RuntimeException e, JavaFileScanner scanner) {
+    if (e instanceof IllegalRuleParameterException) {
       // bad configuration of a rule parameter, we want to fail analysis fast.
       throw new AnalysisException("Bad configuration of rule parameter", e);
-    } catch (Exception e) {
-      Throwable rootCause = ThrowableUtils.getRootCause(e);
-      if (rootCause instanceof InterruptedIOException
-        || rootCause instanceof InterruptedException
-        || rootCause instanceof CancellationException
-        || analysisCancelled()) {
-        throw e;
-      }
+    }
+    Throwable rootCause = ThrowableUtils.getRootCause(e);
+    if (rootCause instanceof InterruptedIOException
+      || rootCause instanceof InterruptedException
+      || rootCause instanceof CancellationException
+      || analysisCancelled()) {
+      throw e;
+    }
 
-      String message = String.format(
-        "Unable to run check %s - %s on file '%s', To help improve the SonarSource Java Analyzer, please report this problem to SonarSource: see https://community.sonarsource" +
-          ".com/",
-        scanner.getClass(), ruleKey(scanner), currentFile);
+    String message = String.format(
+      "Unable to run check %s - %s on file '%s', To help improve the SonarSource Java Analyzer, please report this problem to SonarSource: see https://community.sonarsource" +
+        ".com/",
+      scanner.getClass(), ruleKey(scanner), currentFile);
 
-      LOG.error(message, e);
+    LOG.error(message, e);
 
-      throw new CheckFailureException(message, e);
-    }
+    return new CheckFailureException(message, e);
   }
 
   private boolean analysisCancelled() {
@@ -344,7 +412,8 @@ public class VisitorsBridge {
       javaVersion,
       fileParsed,
       inAndroidContext,
-      cacheContext
+      fileCacheContext(currentFile),
+      sharedRegexCache
     );
   }
 
@@ -388,6 +457,11 @@ public class VisitorsBridge {
       LOG.info("Did not optimize analysis for any files, performed a full analysis for all {} files.", fullyScannedFileCount);
     }
 
+    FileCacheRecords fileCacheRecords = fileCacheRecords();
+    if (fileCacheRecords != null) {
+      fileCacheRecords.pendingFiles().forEach(this::fileCacheDone);
+    }
+
     var moduleContext = createScannerContext(sonarComponents, javaVersion, inAndroidContext, cacheContext);
 
     allScanners.stream()
@@ -397,18 +471,30 @@ public class VisitorsBridge {
   }
 
   private class IssuableSubscriptionVisitorsRunner implements JavaFileScanner, EndOfAnalysis {
-    private EnumMap<Tree.Kind, List<SubscriptionVisitor>> checks;
-    private List<SubscriptionVisitor> subscriptionVisitors;
+    private static final SubscriptionVisitor[] NO_VISITORS = new SubscriptionVisitor[0];
+    private static final int TOKEN = Tree.Kind.TOKEN.ordinal();
+    private static final int TRIVIA = Tree.Kind.TRIVIA.ordinal();
+
+    /**
+     * Subscribed visitors indexed by {@link Tree.Kind#ordinal()}, computed once so that visiting a node does not allocate.
+     */
+    private final SubscriptionVisitor[][] checks;
+    private final List<SubscriptionVisitor> subscriptionVisitors;
 
     IssuableSubscriptionVisitorsRunner() {
-      checks = new EnumMap<>(Tree.Kind.class);
+      checks = new SubscriptionVisitor[Tree.Kind.values().length][];
+      Arrays.fill(checks, NO_VISITORS);
       this.subscriptionVisitors = new ArrayList<>();
     }
 
     private void add(SubscriptionVisitor subscriptionVisitor) {
       this.subscriptionVisitors.add(subscriptionVisitor);
-      subscriptionVisitor.nodesToVisit()
-        .forEach(k -> checks.computeIfAbsent(k, key -> new ArrayList<>()).add(subscriptionVisitor));
+      for (Tree.Kind kind : subscriptionVisitor.nodesToVisit()) {
+        SubscriptionVisitor[] subscribed = checks[kind.ordinal()];
+        SubscriptionVisitor[] extended = Arrays.copyOf(subscribed, subscribed.length + 1);
+        extended[subscribed.length] = subscriptionVisitor;
+        checks[kind.ordinal()] = extended;
+      }
     }
 
     @Override
@@ -459,36 +545,54 @@ public class VisitorsBridge {
     private void visitChildren(Tree tree) throws CheckFailureException {
       JavaTree javaTree = (JavaTree) tree;
       if (!javaTree.isLeaf()) {
-        for (Tree next : javaTree.getChildren()) {
-          if (next != null) {
-            visit(next);
-          }
+        List<Tree> children = javaTree.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+          visit(children.get(i));
         }
       }
     }
 
     private void visit(Tree tree) throws CheckFailureException {
-      Kind kind = tree.kind();
-      List<SubscriptionVisitor> subscribed = checks.getOrDefault(kind, Collections.emptyList());
-      Consumer<SubscriptionVisitor> callback;
-      boolean isToken = (kind == Tree.Kind.TOKEN);
-      if (isToken) {
-        callback = s -> s.visitToken((SyntaxToken) tree);
-      } else {
-        callback = s -> s.visitNode(tree);
-      }
-      forEach(subscribed, callback);
-      if (isToken) {
-        forEach(checks.getOrDefault(Tree.Kind.TRIVIA, Collections.emptyList()), s -> ((SyntaxToken) tree).trivias().forEach(s::visitTrivia));
+      int kind = tree.kind().ordinal();
+      SubscriptionVisitor[] subscribed = checks[kind];
+      if (kind == TOKEN) {
+        for (SubscriptionVisitor visitor : subscribed) {
+          dispatch(Event.VISIT_TOKEN, visitor, tree);
+        }
+        for (SubscriptionVisitor visitor : checks[TRIVIA]) {
+          dispatch(Event.VISIT_TRIVIA, visitor, tree);
+        }
       } else {
+        for (SubscriptionVisitor visitor : subscribed) {
+          dispatch(Event.VISIT_NODE, visitor, tree);
+        }
         visitChildren(tree);
+        for (SubscriptionVisitor visitor : subscribed) {
+          dispatch(Event.LEAVE_NODE, visitor, tree);
+        }
       }
-      if (!isToken) {
-        forEach(subscribed, s -> s.leaveNode(tree));
+    }
+
+    private void dispatch(Event event, SubscriptionVisitor visitor, Tree tree) throws CheckFailureException {
+      PerformanceMeasure.Duration visitorDuration = PerformanceMeasure.start(visitor);
+      try {
+        switch (event) {
+          case VISIT_NODE -> visitor.visitNode(tree);
+          case LEAVE_NODE -> visitor.leaveNode(tree);
+          case VISIT_TOKEN -> visitor.visitToken((SyntaxToken) tree);
+          case VISIT_TRIVIA -> {
+            for (SyntaxTrivia trivia : ((SyntaxToken) tree).trivias()) {
+              visitor.visitTrivia(trivia);
+            }
+          }
+        }
+      } catch (RuntimeException e) {
+        throw checkFailure(e, visitor);
       }
+      visitorDuration.stop();
     }
 
-    private final void forEach(Collection<SubscriptionVisitor> visitors, Consumer<SubscriptionVisitor> callback) throws CheckFailureException {
+    private void forEach(Collection<SubscriptionVisitor> visitors, Consumer<SubscriptionVisitor> callback) throws CheckFailureException {
       for (SubscriptionVisitor visitor : visitors) {
         PerformanceMeasure.Duration visitorDuration = PerformanceMeasure.start(visitor);
         runScanner(() -> callback.accept(visitor), visitor);
@@ -496,4 +600,8 @@ public class VisitorsBridge {
       }
     }
   }
+
+  private enum Event {
+    VISIT_NODE, LEAVE_NODE, VISIT_TOKEN, VISIT_TRIVIA
+  }
 }
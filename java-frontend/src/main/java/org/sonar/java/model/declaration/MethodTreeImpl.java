@@ -27,9 +27,9 @@ import org.sonar.java.ast.parser.FormalParametersListTreeImpl;
 import org.sonar.java.ast.parser.QualifiedIdentifierListTreeImpl;
 import org.sonar.java.ast.parser.TypeParameterListTreeImpl;
 import org.sonar.java.cfg.CFG;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
 import org.sonar.java.model.JUtils;
-import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.ModifiersUtils;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
@@ -48,7 +48,7 @@ import org.sonar.plugins.java.api.tree.TypeParameters;
 import org.sonar.plugins.java.api.tree.TypeTree;
 import org.sonar.plugins.java.api.tree.VariableTree;
 
-public class MethodTreeImpl extends JavaTree implements MethodTree {
+public class MethodTreeImpl extends CompositeTree implements MethodTree {
 
   private ModifiersTree modifiers;
   private TypeParameters typeParameters;
@@ -16,12 +16,12 @@
  */
 package org.sonar.java.model.declaration;
 
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.ModuleDirectiveTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 
-public abstract class ModuleDirectiveTreeImpl extends JavaTree implements ModuleDirectiveTree {
+public abstract class ModuleDirectiveTreeImpl extends CompositeTree implements ModuleDirectiveTree {
 
   private final InternalSyntaxToken directiveKeyword;
   private final InternalSyntaxToken semicolonToken;
@@ -19,10 +19,10 @@ package org.sonar.java.model.declaration;
 import java.util.Arrays;
 import java.util.List;
 import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.expression.IdentifierTreeImpl;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
@@ -39,7 +39,7 @@ import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.Objects;
 
-public class VariableTreeImpl extends JavaTree implements VariableTree {
+public class VariableTreeImpl extends CompositeTree implements VariableTree {
   private ModifiersTree modifiers;
   private TypeTree type;
   private IdentifierTree simpleName;
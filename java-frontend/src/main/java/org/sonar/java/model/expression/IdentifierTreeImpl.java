@@ -114,6 +114,16 @@ public class IdentifierTreeImpl extends AssessableExpressionTree implements Iden
     return ListUtils.concat(annotations, Collections.singletonList(nameToken));
   }
 
+  @Override
+  public SyntaxToken firstToken() {
+    return annotations.isEmpty() ? nameToken : super.firstToken();
+  }
+
+  @Override
+  public SyntaxToken lastToken() {
+    return nameToken;
+  }
+
   @Override
   public List<AnnotationTree> annotations() {
     return annotations;
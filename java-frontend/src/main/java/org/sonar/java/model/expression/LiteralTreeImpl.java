@@ -61,4 +61,14 @@ public class LiteralTreeImpl extends AssessableExpressionTree implements Literal
     return Collections.<Tree>singletonList(token);
   }
 
+  @Override
+  public SyntaxToken firstToken() {
+    return token;
+  }
+
+  @Override
+  public SyntaxToken lastToken() {
+    return token;
+  }
+
 }
@@ -20,16 +20,16 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nullable;
+import org.sonar.java.model.CompositeTree;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.AssertStatementTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TreeVisitor;
 
-public class AssertStatementTreeImpl extends JavaTree implements AssertStatementTree {
+public class AssertStatementTreeImpl extends CompositeTree implements AssertStatementTree {
 
   private final InternalSyntaxToken assertToken;
   private final ExpressionTree condition;
@@ -19,9 +19,9 @@ package org.sonar.java.model.statement;
 import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nullable;
+import org.sonar.java.model.CompositeTree;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.BreakStatementTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
@@ -29,7 +29,7 @@ import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TreeVisitor;
 
-public class BreakStatementTreeImpl extends JavaTree implements BreakStatementTree {
+public class BreakStatementTreeImpl extends CompositeTree implements BreakStatementTree {
   private final InternalSyntaxToken breakToken;
   @Nullable
   private final ExpressionTree labelOrValue;
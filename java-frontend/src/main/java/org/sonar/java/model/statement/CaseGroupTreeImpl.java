@@ -18,8 +18,8 @@ package org.sonar.java.model.statement;
 
 import java.util.Collections;
 import org.sonar.java.ast.parser.StatementListTreeImpl;
+import org.sonar.java.model.CompositeTree;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.CaseGroupTree;
 import org.sonar.plugins.java.api.tree.CaseLabelTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
@@ -29,7 +29,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 import java.util.List;
 import java.util.Objects;
 
-public class CaseGroupTreeImpl extends JavaTree implements CaseGroupTree {
+public class CaseGroupTreeImpl extends CompositeTree implements CaseGroupTree {
   private final List<CaseLabelTree> labels;
   private final List<StatementTree> body;
 
@@ -19,16 +19,16 @@ package org.sonar.java.model.statement;
 import java.util.Collections;
 import java.util.List;
 import org.sonar.java.ast.api.JavaPunctuator;
+import org.sonar.java.model.CompositeTree;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.CaseLabelTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TreeVisitor;
 
-public class CaseLabelTreeImpl extends JavaTree implements CaseLabelTree {
+public class CaseLabelTreeImpl extends CompositeTree implements CaseLabelTree {
   private final InternalSyntaxToken caseOrDefaultKeyword;
   private final List<ExpressionTree> expressions;
   private final boolean isFallThrough;
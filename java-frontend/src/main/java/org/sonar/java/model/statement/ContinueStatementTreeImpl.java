@@ -17,9 +17,9 @@
 package org.sonar.java.model.statement;
 
 import java.util.List;
+import org.sonar.java.model.CompositeTree;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.expression.IdentifierTreeImpl;
 import org.sonar.plugins.java.api.tree.ContinueStatementTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
@@ -30,7 +30,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 import javax.annotation.Nullable;
 import java.util.Collections;
 
-public class ContinueStatementTreeImpl extends JavaTree implements ContinueStatementTree {
+public class ContinueStatementTreeImpl extends CompositeTree implements ContinueStatementTree {
   
   private final InternalSyntaxToken continueKeyword;
   @Nullable
@@ -18,8 +18,8 @@ package org.sonar.java.model.statement;
 
 import java.util.Arrays;
 import java.util.List;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.DoWhileStatementTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
@@ -29,7 +29,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 import java.util.Objects;
 
-public class DoWhileStatementTreeImpl extends JavaTree implements DoWhileStatementTree {
+public class DoWhileStatementTreeImpl extends CompositeTree implements DoWhileStatementTree {
   private final StatementTree statement;
   private final ExpressionTree condition;
   private final InternalSyntaxToken semicolonToken;
@@ -17,8 +17,8 @@
 package org.sonar.java.model.statement;
 
 import java.util.List;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.EmptyStatementTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
@@ -26,7 +26,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 import java.util.Collections;
 
-public class EmptyStatementTreeImpl extends JavaTree implements EmptyStatementTree {
+public class EmptyStatementTreeImpl extends CompositeTree implements EmptyStatementTree {
   private final InternalSyntaxToken semicolonToken;
 
   public EmptyStatementTreeImpl(InternalSyntaxToken semicolonToken) {
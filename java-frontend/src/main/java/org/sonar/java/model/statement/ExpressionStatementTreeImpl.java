@@ -17,9 +17,9 @@
 package org.sonar.java.model.statement;
 
 import java.util.List;
+import org.sonar.java.model.CompositeTree;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.ExpressionStatementTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -30,7 +30,7 @@ import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.Objects;
 
-public class ExpressionStatementTreeImpl extends JavaTree implements ExpressionStatementTree {
+public class ExpressionStatementTreeImpl extends CompositeTree implements ExpressionStatementTree {
 
   private final ExpressionTree expression;
   private final InternalSyntaxToken semicolonToken;
@@ -18,8 +18,8 @@ package org.sonar.java.model.statement;
 
 import java.util.Arrays;
 import java.util.List;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.declaration.VariableTreeImpl;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.ForEachStatement;
@@ -31,7 +31,7 @@ import org.sonar.plugins.java.api.tree.VariableTree;
 
 import java.util.Objects;
 
-public class ForEachStatementImpl extends JavaTree implements ForEachStatement {
+public class ForEachStatementImpl extends CompositeTree implements ForEachStatement {
   private final InternalSyntaxToken forKeyword;
   private final InternalSyntaxToken openParenToken;
   private final VariableTree variable;
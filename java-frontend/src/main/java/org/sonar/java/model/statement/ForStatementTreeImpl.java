@@ -19,8 +19,8 @@ package org.sonar.java.model.statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.ForStatementTree;
 import org.sonar.plugins.java.api.tree.ListTree;
@@ -32,7 +32,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 import javax.annotation.Nullable;
 import java.util.Objects;
 
-public class ForStatementTreeImpl extends JavaTree implements ForStatementTree {
+public class ForStatementTreeImpl extends CompositeTree implements ForStatementTree {
   private final InternalSyntaxToken forKeyword;
   private final InternalSyntaxToken openParenToken;
   private final ListTree<StatementTree> initializer;
@@ -18,9 +18,9 @@ package org.sonar.java.model.statement;
 
 import java.util.Arrays;
 import java.util.List;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
 import org.sonar.java.model.JLabelSymbol;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.LabeledStatementTree;
@@ -31,7 +31,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 import java.util.Objects;
 
-public class LabeledStatementTreeImpl extends JavaTree implements LabeledStatementTree {
+public class LabeledStatementTreeImpl extends CompositeTree implements LabeledStatementTree {
   private final IdentifierTree label;
   private final InternalSyntaxToken colonToken;
   private final StatementTree statement;
@@ -19,8 +19,8 @@ package org.sonar.java.model.statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.ReturnStatementTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -29,7 +29,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 import javax.annotation.Nullable;
 
-public class ReturnStatementTreeImpl extends JavaTree implements ReturnStatementTree {
+public class ReturnStatementTreeImpl extends CompositeTree implements ReturnStatementTree {
   private final InternalSyntaxToken returnKeyword;
   @Nullable
   private final ExpressionTree expression;
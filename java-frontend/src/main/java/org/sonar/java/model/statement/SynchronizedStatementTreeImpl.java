@@ -18,8 +18,8 @@ package org.sonar.java.model.statement;
 
 import java.util.Arrays;
 import java.util.List;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SynchronizedStatementTree;
@@ -29,7 +29,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 import java.util.Objects;
 
-public class SynchronizedStatementTreeImpl extends JavaTree implements SynchronizedStatementTree {
+public class SynchronizedStatementTreeImpl extends CompositeTree implements SynchronizedStatementTree {
   private final ExpressionTree expression;
   private final BlockTree block;
   private final InternalSyntaxToken synchronizedKeyword;
@@ -20,8 +20,8 @@ import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.sonar.java.ast.parser.ResourceListTreeImpl;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.CatchTree;
 import org.sonar.plugins.java.api.tree.ListTree;
@@ -30,7 +30,7 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TreeVisitor;
 import org.sonar.plugins.java.api.tree.TryStatementTree;
 
-public class TryStatementTreeImpl extends JavaTree implements TryStatementTree {
+public class TryStatementTreeImpl extends CompositeTree implements TryStatementTree {
 
   private InternalSyntaxToken tryToken;
 
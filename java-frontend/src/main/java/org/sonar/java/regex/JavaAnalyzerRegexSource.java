@@ -37,17 +37,41 @@ public class JavaAnalyzerRegexSource extends JavaRegexSource {
   /**
    * Maps an index of the regular expression to the TextSpan string literal that starts at the index
    */
-  private final TextSpanTracker indexToTextSpan = new TextSpanTracker();
+  private TextSpanTracker indexToTextSpan;
+
+  private static final TextSpanTracker EMPTY_TRACKER = new TextSpanTracker();
 
   public JavaAnalyzerRegexSource(List<LiteralTree> stringLiterals) {
     super(literalsToString(stringLiterals));
+    bindTo(stringLiterals);
+  }
+
+  /**
+   * Makes the locations of this source (and of the regex trees parsed from it) point to the given literals, which must
+   * represent the same regular expression. Used when a parsed regex is shared between several call sites.
+   */
+  void bindTo(List<LiteralTree> stringLiterals) {
+    TextSpanTracker tracker = new TextSpanTracker();
     for (LiteralTree literal : stringLiterals) {
       String text = getString(literal);
-      indexToTextSpan.addLiteral(literal, text.length());
+      tracker.addLiteral(literal, text.length());
     }
+    indexToTextSpan = tracker;
+  }
+
+  /**
+   * Forgets the literals this source is bound to, so that a regex shared between files does not keep the trees of the last
+   * file using it alive. The source must be bound again, with {@link #bindTo}, before its locations are used.
+   */
+  void unbind() {
+    indexToTextSpan = EMPTY_TRACKER;
+  }
+
+  boolean isBound() {
+    return indexToTextSpan != EMPTY_TRACKER;
   }
 
-  private static String literalsToString(List<LiteralTree> stringLiterals) {
+  static String literalsToString(List<LiteralTree> stringLiterals) {
     StringBuilder sb = new StringBuilder();
     for (LiteralTree literal : stringLiterals) {
       String text = getString(literal);
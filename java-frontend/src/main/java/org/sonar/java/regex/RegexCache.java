@@ -17,9 +17,16 @@
 package org.sonar.java.regex;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.LiteralTree;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.RegexParser;
@@ -28,16 +35,73 @@ import org.sonarsource.performance.measure.PerformanceMeasure;
 
 public final class RegexCache {
   private final Map<List<LiteralTree>, RegexParseResult> cache = new HashMap<>();
+  @Nullable
+  private final SharedRegexCache sharedCache;
+  // Results of the shared cache already bound to a call site of the current file
+  private final Set<RegexParseResult> boundSharedResults = Collections.newSetFromMap(new IdentityHashMap<>());
+  // Regexes constructed by the method calls and annotations of the current file
+  private final Map<ExpressionTree, Optional<RegexParseResult>> sites = new IdentityHashMap<>();
+
+  public RegexCache() {
+    this(null);
+  }
+
+  public RegexCache(@Nullable SharedRegexCache sharedCache) {
+    this.sharedCache = sharedCache;
+  }
 
   public RegexParseResult getRegexForLiterals(FlagSet initialFlags, LiteralTree... stringLiterals) {
-    return cache.computeIfAbsent(
-      Arrays.asList(stringLiterals),
-      k -> {
-        PerformanceMeasure.Duration regexForLiteralsDuration = PerformanceMeasure.start("RegexParser");
-        RegexParseResult result = new RegexParser(new JavaAnalyzerRegexSource(k), initialFlags).parse();
-        regexForLiteralsDuration.stop();
-        return result;
-      });
+    return cache.computeIfAbsent(Arrays.asList(stringLiterals), k -> parse(initialFlags, k));
+  }
+
+  public Optional<RegexParseResult> getRegexSite(ExpressionTree methodInvocationOrAnnotation,
+    Function<ExpressionTree, Optional<RegexParseResult>> regexFinder) {
+    Optional<RegexParseResult> site = sites.get(methodInvocationOrAnnotation);
+    if (site == null) {
+      site = regexFinder.apply(methodInvocationOrAnnotation);
+      sites.put(methodInvocationOrAnnotation, site);
+    }
+    return site;
+  }
+
+  /**
+   * Unbinds the shared results from the literals of the current file, to be called once the file is analyzed. Otherwise, every
+   * entry of the shared cache would keep the whole tree of the last file using it alive.
+   */
+  public void unbindSharedResults() {
+    for (RegexParseResult result : boundSharedResults) {
+      ((JavaAnalyzerRegexSource) result.getResult().getSource()).unbind();
+    }
+    boundSharedResults.clear();
+  }
+
+  private RegexParseResult parse(FlagSet initialFlags, List<LiteralTree> stringLiterals) {
+    if (sharedCache == null) {
+      return parse(new JavaAnalyzerRegexSource(stringLiterals), initialFlags);
+    }
+    String regex = JavaAnalyzerRegexSource.literalsToString(stringLiterals);
+    int flags = initialFlags.getMask();
+    RegexParseResult shared = sharedCache.get(regex, flags);
+    // A shared result can only point to the locations of a single call site per file
+    if (shared != null && boundSharedResults.add(shared)) {
+      PerformanceMeasure.start("RegexCache.hit").stop();
+      ((JavaAnalyzerRegexSource) shared.getResult().getSource()).bindTo(stringLiterals);
+      return shared;
+    }
+    PerformanceMeasure.start("RegexCache.miss").stop();
+    RegexParseResult result = parse(new JavaAnalyzerRegexSource(stringLiterals), initialFlags);
+    if (shared == null) {
+      sharedCache.put(regex, flags, result);
+      boundSharedResults.add(result);
+    }
+    return result;
+  }
+
+  private static RegexParseResult parse(JavaAnalyzerRegexSource source, FlagSet initialFlags) {
+    PerformanceMeasure.Duration regexForLiteralsDuration = PerformanceMeasure.start("RegexParser");
+    RegexParseResult result = new RegexParser(source, initialFlags).parse();
+    regexForLiteralsDuration.stop();
+    return result;
   }
 
 }
@@ -17,7 +17,10 @@
 package org.sonar.java.regex;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 import javax.annotation.Nullable;
+import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.LiteralTree;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
@@ -32,4 +35,15 @@ public interface RegexScannerContext {
 
   RegexParseResult regexForLiterals(FlagSet initialFlags, LiteralTree... stringLiterals);
 
+  /**
+   * @param methodInvocationOrAnnotation A method call or an annotation, possibly constructing a regex.
+   * @param regexFinder Finds the regex constructed by the given tree, if any.
+   * @return The regex found by {@code regexFinder}, which is only called for the first request of a tree so that all
+   *         the regex checks of a file share the discovery of its regexes.
+   */
+  default Optional<RegexParseResult> regexSite(ExpressionTree methodInvocationOrAnnotation,
+    Function<ExpressionTree, Optional<RegexParseResult>> regexFinder) {
+    return regexFinder.apply(methodInvocationOrAnnotation);
+  }
+
 }
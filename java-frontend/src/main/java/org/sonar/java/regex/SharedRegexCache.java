@@ -0,0 +1,70 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.regex;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.CheckForNull;
+import org.sonarsource.analyzer.commons.regex.RegexParseResult;
+
+/**
+ * Bounded cache of parsed regular expressions, shared by all the files of an analysis. Entries are keyed on the text of the
+ * regular expression and its initial flags, and the least recently used entries are evicted first.
+ * <p>
+ * A shared result is only handed to one call site per file (see {@link RegexCache}), and is re-bound to the literals of that call site
+ * before being returned, so that issues are reported on the right locations.
+ */
+public final class SharedRegexCache {
+
+  public static final int DEFAULT_MAX_SIZE = 10_000;
+
+  private final Map<Key, RegexParseResult> cache;
+
+  public SharedRegexCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  public SharedRegexCache(int maxSize) {
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, RegexParseResult> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  @CheckForNull
+  synchronized RegexParseResult get(String regex, int flags) {
+    return cache.get(new Key(regex, flags));
+  }
+
+  synchronized void put(String regex, int flags, RegexParseResult result) {
+    cache.putIfAbsent(new Key(regex, flags), result);
+  }
+
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  private record Key(String regex, int flags) {
+    private Key {
+      Objects.requireNonNull(regex);
+    }
+  }
+
+}
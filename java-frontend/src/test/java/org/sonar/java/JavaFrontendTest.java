@@ -19,6 +19,10 @@ package org.sonar.java;
 import com.google.common.io.Files;
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,6 +30,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.LongStream;
 import javax.annotation.Nullable;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.jetbrains.annotations.NotNull;
@@ -434,6 +439,7 @@ class JavaFrontendTest {
     assertThat(frontend.isFileByFileEnabled()).isFalse();
     assertThat(frontend.analysisCancelled()).isFalse();
     assertThat(frontend.getBatchModeSizeInKB()).isEqualTo(-1L);
+    assertThat(frontend.getBatchModeThreads()).isEqualTo(1);
   }
 
   @Test
@@ -529,6 +535,31 @@ class JavaFrontendTest {
     assertThat(mainCodeIssueScannerAndFilter.endOfAnalysisInvocationCount).isEqualTo(1);
   }
 
+  @Test
+  void test_end_of_analysis_should_be_called_once_with_concurrent_batches() throws IOException {
+    MapSettings settings = new MapSettings();
+    settings.setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0L);
+    settings.setProperty(SonarComponents.SONAR_BATCH_MODE_THREADS_KEY, 2);
+    scan(settings, SONARQUBE_RUNTIME, "class A {}", "class B { A a; }", "class C {}");
+    assertThat(sensorContext.allAnalysisErrors()).isEmpty();
+    assertThat(logTester.logs(Level.INFO)).contains("Parsing up to 2 batches concurrently.");
+    assertThat(mainCodeIssueScannerAndFilter.scanFileInvocationCount).isEqualTo(3);
+    assertThat(mainCodeIssueScannerAndFilter.endOfAnalysisInvocationCount).isEqualTo(1);
+  }
+
+  @Test
+  void failing_concurrent_batch_should_wait_for_the_other_batches_before_end_of_analysis() {
+    MapSettings settings = new MapSettings();
+    settings.setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0L);
+    settings.setProperty(SonarComponents.SONAR_BATCH_MODE_THREADS_KEY, 2);
+    mainCodeIssueScannerAndFilter.exceptionDuringScan = new IllegalRuleParameterException("Test AnalysisException", new NullPointerException());
+    assertThatThrownBy(() -> scan(settings, SONARQUBE_RUNTIME, "class A {}", "class B {}", "class C {}", "class D {}"))
+      .isInstanceOf(AnalysisException.class)
+      .hasMessage("Bad configuration of rule parameter");
+    assertThat(mainCodeIssueScannerAndFilter.endOfAnalysisInvocationCount).isEqualTo(1);
+    assertThat(mainCodeIssueScannerAndFilter.scanFileInvocationCount).isEqualTo(mainCodeIssueScannerAndFilter.scanFileInvocationCountAtEndOfAnalysis);
+  }
+
   @Test
   void should_handle_analysis_cancellation() throws IOException {
     mainCodeIssueScannerAndFilter.isCancelled = true;
@@ -813,6 +844,142 @@ class JavaFrontendTest {
     assertThat(generator.next()).isEmpty();
   }
 
+  @Test
+  void batch_generator_uses_the_updated_batch_size_for_the_next_batches() throws IOException {
+    if (sensorContext == null) {
+      File baseDir = temp.getRoot().getAbsoluteFile();
+      sensorContext = SensorContextTester.create(baseDir);
+      sensorContext.setSettings(new MapSettings());
+    }
+    InputFile fileA = addFile("class A {}", sensorContext);
+    InputFile fileB = addFile("class B {}", sensorContext);
+    InputFile fileC = addFile("class C {}", sensorContext);
+    JavaFrontend.BatchGenerator generator = new JavaFrontend.BatchGenerator(Arrays.asList(fileA, fileB, fileC).iterator(), 0);
+    assertThat(generator.next()).containsExactly(fileA);
+    generator.setBatchSizeInBytes(JavaFrontend.BatchGenerator.sizeInBytes(List.of(fileB, fileC)));
+    assertThat(generator.batchSizeInBytes()).isEqualTo(fileB.file().length() + fileC.file().length());
+    assertThat(generator.next()).containsExactly(fileB, fileC);
+    assertThat(generator.hasNext()).isFalse();
+  }
+
+  @Test
+  void group_by_directory_keeps_the_files_of_a_directory_together() throws IOException {
+    if (sensorContext == null) {
+      File baseDir = temp.getRoot().getAbsoluteFile();
+      sensorContext = SensorContextTester.create(baseDir);
+      sensorContext.setSettings(new MapSettings());
+    }
+    File otherDirectory = temp.newFolder("other");
+    InputFile fileA = addFile("class A {}", sensorContext);
+    InputFile fileB = generateInputFile("class B {}", sensorContext, new File(otherDirectory, "B.java"), InputFile.Type.MAIN);
+    InputFile fileC = addFile("class C {}", sensorContext);
+    InputFile fileD = generateInputFile("class D {}", sensorContext, new File(otherDirectory, "D.java"), InputFile.Type.MAIN);
+
+    assertThat(JavaFrontend.groupByDirectory(List.of(fileA, fileB, fileC, fileD))).containsExactly(fileA, fileC, fileB, fileD);
+    assertThat(JavaFrontend.groupByDirectory(List.of(fileB, fileA, fileC, fileD))).containsExactly(fileB, fileD, fileA, fileC);
+  }
+
+  @Test
+  void adaptive_batch_size_shrinks_when_the_heap_is_full_and_grows_when_it_is_empty() {
+    double[] heapOccupancy = {0.5};
+    JavaFrontend.AdaptiveBatchSize batchSize = new JavaFrontend.AdaptiveBatchSize(1_000L, () -> heapOccupancy[0]);
+    assertThat(batchSize.batchDone(1_000L, 1_000L)).isEqualTo(1_000L);
+
+    heapOccupancy[0] = 0.9;
+    assertThat(batchSize.batchDone(1_000L, 1_000L)).isEqualTo(500L);
+    assertThat(batchSize.batchDone(500L, 1_000L)).isEqualTo(250L);
+    // never below a quarter of the initial size
+    assertThat(batchSize.batchDone(250L, 1_000L)).isEqualTo(250L);
+
+    heapOccupancy[0] = 0.1;
+    assertThat(batchSize.batchDone(250L, 1_000L)).isEqualTo(375L);
+    assertThat(batchSize.batchDone(375L, 1_000L)).isEqualTo(562L);
+    for (int i = 0; i < 20; i++) {
+      batchSize.batchDone(0L, 0L);
+    }
+    // never above ten times the initial size
+    assertThat(batchSize.batchDone(0L, 0L)).isEqualTo(10_000L);
+  }
+
+  @Test
+  void adaptive_batch_size_only_changes_beyond_the_occupancy_thresholds() {
+    double[] heapOccupancy = {JavaFrontend.AdaptiveBatchSize.HIGH_HEAP_OCCUPANCY};
+    JavaFrontend.AdaptiveBatchSize batchSize = new JavaFrontend.AdaptiveBatchSize(1_000L, () -> heapOccupancy[0]);
+    assertThat(batchSize.batchDone(1_000L, 1_000L)).isEqualTo(1_000L);
+    heapOccupancy[0] = 0.71;
+    assertThat(batchSize.batchDone(1_000L, 1_000L)).isEqualTo(500L);
+
+    heapOccupancy[0] = JavaFrontend.AdaptiveBatchSize.LOW_HEAP_OCCUPANCY;
+    assertThat(batchSize.batchDone(500L, 1_000L)).isEqualTo(500L);
+    heapOccupancy[0] = 0.39;
+    assertThat(batchSize.batchDone(500L, 1_000L)).isEqualTo(750L);
+  }
+
+  @Test
+  void adaptive_batch_size_is_clamped_to_its_bounds() {
+    double[] heapOccupancy = {0.1};
+    JavaFrontend.AdaptiveBatchSize batchSize = new JavaFrontend.AdaptiveBatchSize(1_000L, () -> heapOccupancy[0]);
+    assertThat(LongStream.of(1_000L, 1_500L, 2_250L, 3_375L, 5_062L, 7_593L).map(size -> batchSize.batchDone(size, 0L)))
+      // 11_389 is clamped to ten times the initial size
+      .containsExactly(1_500L, 2_250L, 3_375L, 5_062L, 7_593L, 10_000L);
+    assertThat(batchSize.batchDone(10_000L, 0L)).isEqualTo(10_000L);
+
+    heapOccupancy[0] = 0.9;
+    assertThat(LongStream.of(10_000L, 5_000L, 2_500L, 1_250L, 625L, 312L).map(size -> batchSize.batchDone(size, 0L)))
+      // 156 is clamped to a quarter of the initial size
+      .containsExactly(5_000L, 2_500L, 1_250L, 625L, 312L, 250L);
+    assertThat(batchSize.batchDone(250L, 0L)).isEqualTo(250L);
+  }
+
+  @Test
+  void adaptive_batch_size_does_not_grow_beyond_the_target_duration() {
+    JavaFrontend.AdaptiveBatchSize batchSize = new JavaFrontend.AdaptiveBatchSize(1_000L, () -> 0.1);
+    long tooSlow = JavaFrontend.AdaptiveBatchSize.TARGET_BATCH_DURATION_NANOS;
+    assertThat(batchSize.batchDone(1_000L, tooSlow)).isEqualTo(1_000L);
+    long fastEnough = JavaFrontend.AdaptiveBatchSize.TARGET_BATCH_DURATION_NANOS / 2;
+    assertThat(batchSize.batchDone(1_000L, fastEnough)).isEqualTo(1_500L);
+  }
+
+  @Test
+  void heap_occupancy_is_a_ratio_of_the_maximum_heap() {
+    assertThat(JavaFrontend.AdaptiveBatchSize.heapOccupancyAfterLastGC()).isBetween(0.0, 1.0);
+  }
+
+  @Test
+  void heap_occupancy_uses_the_current_usage_of_the_pools_not_collected_yet() {
+    MemoryPoolMXBean oldGen = memoryPool("Old Gen", 300L, 0L);
+    MemoryPoolMXBean eden = memoryPool("Eden Space", 100L, 0L);
+    GarbageCollectorMXBean youngCollector = mock(GarbageCollectorMXBean.class);
+    when(youngCollector.getMemoryPoolNames()).thenReturn(new String[] {"Eden Space"});
+    when(youngCollector.getCollectionCount()).thenReturn(0L);
+    GarbageCollectorMXBean oldCollector = mock(GarbageCollectorMXBean.class);
+    when(oldCollector.getMemoryPoolNames()).thenReturn(new String[] {"Eden Space", "Old Gen"});
+    when(oldCollector.getCollectionCount()).thenReturn(0L);
+    List<MemoryPoolMXBean> pools = List.of(oldGen, eden);
+    List<GarbageCollectorMXBean> collectors = List.of(youngCollector, oldCollector);
+
+    // no collection yet: current usage
+    assertThat(JavaFrontend.AdaptiveBatchSize.heapOccupancyAfterLastGC(pools, collectors, 1_000L)).isEqualTo(0.4);
+
+    // after a young collection: usage after the collection of eden only
+    when(youngCollector.getCollectionCount()).thenReturn(1L);
+    assertThat(JavaFrontend.AdaptiveBatchSize.heapOccupancyAfterLastGC(pools, collectors, 1_000L)).isEqualTo(0.3);
+
+    // after a full collection: usage after the collection of all the pools
+    when(oldCollector.getCollectionCount()).thenReturn(1L);
+    when(oldGen.getCollectionUsage()).thenReturn(new MemoryUsage(0L, 200L, 1_000L, 1_000L));
+    assertThat(JavaFrontend.AdaptiveBatchSize.heapOccupancyAfterLastGC(pools, collectors, 1_000L)).isEqualTo(0.2);
+  }
+
+  private static MemoryPoolMXBean memoryPool(String name, long used, long usedAfterLastCollection) {
+    MemoryPoolMXBean pool = mock(MemoryPoolMXBean.class);
+    when(pool.getName()).thenReturn(name);
+    when(pool.getType()).thenReturn(MemoryType.HEAP);
+    when(pool.getUsage()).thenReturn(new MemoryUsage(0L, used, 1_000L, 1_000L));
+    when(pool.getCollectionUsage()).thenReturn(new MemoryUsage(0L, usedAfterLastCollection, 1_000L, 1_000L));
+    return pool;
+  }
+
   @Test
   void sonar_java_ignoreUnnamedModuleForSplitPackage_is_logged_at_debug_level_when_enabled() throws IOException {
     MapSettings settings = new MapSettings();
@@ -902,6 +1069,7 @@ class JavaFrontendTest {
     CompilationUnitTree lastScannedTree = null;
     int scanFileInvocationCount = 0;
     int endOfAnalysisInvocationCount = 0;
+    int scanFileInvocationCountAtEndOfAnalysis = 0;
     JavaFileScannerContext scannerContext;
     boolean isCancelled = false;
     RuntimeException exceptionDuringScan = null;
@@ -927,6 +1095,7 @@ class JavaFrontendTest {
     @Override
     public void endOfAnalysis(ModuleScannerContext context) {
       endOfAnalysisInvocationCount++;
+      scanFileInvocationCountAtEndOfAnalysis = scanFileInvocationCount;
     }
   }
 }
@@ -22,13 +22,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.internal.SonarRuntimeImpl;
 import org.sonar.api.issue.NoSonarFilter;
 import org.sonar.api.utils.PathUtils;
+import org.sonar.api.utils.Version;
+import org.sonar.java.metrics.MetricsComputer;
+import org.sonar.java.metrics.MetricsScannerContext;
+import org.sonar.java.model.JParserTestUtils;
 import org.sonar.java.model.JavaVersionImpl;
 import org.sonar.plugins.java.api.JavaCheck;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 class MeasurerTest {
 
@@ -83,6 +94,40 @@ class MeasurerTest {
     checkMetric("EmptyFile.java", "ncloc", 0);
   }
 
+  @Test
+  void scanning_a_file_on_its_own_saves_the_measures() {
+    InputFile inputFile = TestUtils.inputFile(PathUtils.sanitize(new File(BASE_DIR, "Methods.java").getPath()));
+    context.fileSystem().add(inputFile);
+    Measurer measurer = new Measurer(context, mock(NoSonarFilter.class));
+
+    measurer.scanFile(scannerContext(inputFile));
+
+    assertThat(context.measures(inputFile.key())).hasSize(NB_OF_METRICS);
+    assertThat(context.measure(inputFile.key(), "functions").value()).isEqualTo(8);
+  }
+
+  @Test
+  void scanning_a_file_on_its_own_saves_no_measure_in_sonarlint() {
+    context.setRuntime(SonarRuntimeImpl.forSonarLint(Version.create(8, 18)));
+    InputFile inputFile = TestUtils.inputFile(PathUtils.sanitize(new File(BASE_DIR, "Methods.java").getPath()));
+    context.fileSystem().add(inputFile);
+    NoSonarFilter noSonarFilter = mock(NoSonarFilter.class);
+    Measurer measurer = new Measurer(context, noSonarFilter);
+
+    measurer.scanFile(scannerContext(inputFile));
+
+    assertThat(context.measures(inputFile.key())).isEmpty();
+    verify(noSonarFilter).noSonarInFile(eq(inputFile), any());
+  }
+
+  private static JavaFileScannerContext scannerContext(InputFile inputFile) {
+    JavaFileScannerContext scannerContext = mock(JavaFileScannerContext.class, withSettings().extraInterfaces(MetricsScannerContext.class));
+    when(scannerContext.getInputFile()).thenReturn(inputFile);
+    when(scannerContext.getTree()).thenReturn(JParserTestUtils.parse(inputFile.file()));
+    when(((MetricsScannerContext) scannerContext).getMetricsComputer()).thenReturn(new MetricsComputer());
+    return scannerContext;
+  }
+
   /**
    * Utility method to quickly get metric out of a file.
    */
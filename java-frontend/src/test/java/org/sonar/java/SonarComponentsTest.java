@@ -17,6 +17,7 @@
 package org.sonar.java;
 
 import com.sonar.sslr.api.RecognitionException;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -59,6 +60,8 @@ import org.sonar.api.batch.rule.internal.ActiveRulesBuilder;
 import org.sonar.api.batch.rule.internal.NewActiveRule;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.highlighting.NewHighlighting;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.batch.sensor.issue.Issue;
 import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
@@ -72,6 +75,7 @@ import org.sonar.api.rule.RuleScope;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.api.utils.Version;
 import org.sonar.check.Rule;
+import org.sonar.java.caching.ContentHashAlgorithm;
 import org.sonar.java.classpath.ClasspathForMain;
 import org.sonar.java.classpath.ClasspathForTest;
 import org.sonar.java.exceptions.ApiMismatchException;
@@ -776,12 +780,21 @@ class SonarComponentsTest {
     assertThat(sonarComponents.isFileByFileEnabled()).isFalse();
     assertThat(sonarComponents.isAutoScanCheckFiltering()).isFalse();
     assertThat(sonarComponents.getBatchModeSizeInKB()).isPositive();
+    assertThat(sonarComponents.isBatchModeSizeConfigured()).isFalse();
+    assertThat(sonarComponents.getBatchModeThreads()).isEqualTo(1);
+
+    // concurrent batches
+    settings.setProperty("sonar.java.experimental.batchModeThreads", "4");
+    assertThat(sonarComponents.getBatchModeThreads()).isEqualTo(4);
+    settings.setProperty("sonar.java.experimental.batchModeThreads", "0");
+    assertThat(sonarComponents.getBatchModeThreads()).isEqualTo(1);
 
     // batch mode: when a batch mode size is explicitly set, we use this value
     settings.setProperty("sonar.java.experimental.batchModeSizeInKB", "1000");
     assertThat(sonarComponents.isAutoScan()).isFalse();
     assertThat(sonarComponents.isFileByFileEnabled()).isFalse();
     assertThat(sonarComponents.getBatchModeSizeInKB()).isEqualTo(1000L);
+    assertThat(sonarComponents.isBatchModeSizeConfigured()).isTrue();
 
     // autoscan is not compatible with batch mode size
     settings.setProperty("sonar.internal.analysis.autoscan", "true");
@@ -801,6 +814,22 @@ class SonarComponentsTest {
     assertThat(sonarComponents.getBatchModeSizeInKB()).isEqualTo(-1L);
   }
 
+  @Test
+  void content_hash_algorithm() {
+    MapSettings settings = new MapSettings();
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+    assertThat(sonarComponents.getContentHashAlgorithm()).isEqualTo(ContentHashAlgorithm.MD5);
+
+    settings.setProperty("sonar.java.caching.contentHashAlgorithm", "murmur3_128");
+    assertThat(sonarComponents.getContentHashAlgorithm()).isEqualTo(ContentHashAlgorithm.MURMUR3_128);
+
+    settings.setProperty("sonar.java.caching.contentHashAlgorithm", "unknown");
+    assertThat(sonarComponents.getContentHashAlgorithm()).isEqualTo(ContentHashAlgorithm.MD5);
+    assertThat(logTester.logs(Level.WARN))
+      .contains("Unsupported value 'unknown' for property 'sonar.java.caching.contentHashAlgorithm', falling back to MD5.");
+  }
+
   @ParameterizedTest
   @CsvSource({
     "50, 2",
@@ -920,6 +949,23 @@ class SonarComponentsTest {
     assertThat(sonarComponents.fileCanBeSkipped(inputFile)).isFalse();
   }
 
+  @Test
+  void fileCanBeSkipped_returns_true_for_generated_file_with_unchanged_sources() throws ApiMismatchException {
+    SonarComponents sonarComponents = mock(SonarComponents.class, CALLS_REAL_METHODS);
+    SensorContext contextMock = mock(SensorContext.class);
+    sonarComponents.setSensorContext(contextMock);
+
+    GeneratedFile generatedFile = new GeneratedFile(Path.of("non-existing-generated-file.java"));
+    generatedFile.setSourcesUnchanged(true);
+
+    when(sonarComponents.canSkipUnchangedFiles()).thenReturn(false);
+    assertThat(sonarComponents.fileCanBeSkipped(generatedFile)).isFalse();
+
+    sonarComponents.setSensorContext(contextMock);
+    when(sonarComponents.canSkipUnchangedFiles()).thenReturn(true);
+    assertThat(sonarComponents.fileCanBeSkipped(generatedFile)).isTrue();
+  }
+
   @Test
   void fileCanBeSkipped_always_returns_false_when_skipUnchangedFiles_is_false() throws ApiMismatchException {
 
@@ -957,6 +1003,29 @@ class SonarComponentsTest {
     assertThat(sonarComponents.fileCanBeSkipped(mock(InputFile.class))).isFalse();
   }
 
+  @Test
+  void fileCanBeSkipped_is_computed_once_per_file() throws ApiMismatchException, IOException {
+    SonarComponents sonarComponents = mock(SonarComponents.class, CALLS_REAL_METHODS);
+    SensorContextTester sensorContextTester = SensorContextTester.create(new File(""));
+    sensorContextTester.setCacheEnabled(true);
+    ReadCache readCache = mock(ReadCache.class);
+    when(readCache.read(anyString())).thenThrow(new IllegalArgumentException());
+    sensorContextTester.setPreviousCache(readCache);
+    sensorContextTester.setNextCache(mock(WriteCache.class));
+    sonarComponents.setSensorContext(sensorContextTester);
+    doReturn(true).when(sonarComponents).canSkipUnchangedFiles();
+
+    InputFile inputFile = mock(InputFile.class);
+    when(inputFile.key()).thenReturn("key");
+    when(inputFile.inputStream()).thenReturn(new ByteArrayInputStream("class A {}".getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(sonarComponents.fileCanBeSkipped(inputFile)).isFalse();
+    assertThat(sonarComponents.fileCanBeSkipped(inputFile)).isFalse();
+
+    verify(sonarComponents, times(1)).canSkipUnchangedFiles();
+    verify(inputFile, times(1)).inputStream();
+  }
+
   private static Stream<Arguments> fileCanBeSkipped_only_logs_on_first_call_input() throws ApiMismatchException {
     ApiMismatchException apiMismatchException = new ApiMismatchException(new NoSuchMethodError("API version mismatch :-("));
 
@@ -0,0 +1,70 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.ast.visitors;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class VisitorPruningTest {
+
+  private static final String SOURCE = """
+    class A {
+      void noInvocation(int a) {
+        int b = a + 1;
+      }
+      void invocation() {
+        noInvocation(42);
+      }
+    }
+    """;
+
+  @Test
+  void kinds_of_the_whole_compilation_unit_are_looked_up() {
+    CompilationUnitTree cut = JParserTestUtils.parse(SOURCE);
+
+    assertThat(VisitorPruning.containsAny(cut, Set.of(Tree.Kind.METHOD_INVOCATION))).isTrue();
+    assertThat(VisitorPruning.containsAny(cut, Set.of(Tree.Kind.LAMBDA_EXPRESSION, Tree.Kind.PLUS))).isTrue();
+    assertThat(VisitorPruning.containsAny(cut, Set.of(Tree.Kind.COMPILATION_UNIT))).isTrue();
+    assertThat(VisitorPruning.containsAny(cut, Set.of(Tree.Kind.LAMBDA_EXPRESSION, Tree.Kind.TRY_STATEMENT))).isFalse();
+    assertThat(VisitorPruning.containsAny(cut, Set.of())).isFalse();
+  }
+
+  @Test
+  void kinds_are_collected_once_per_compilation_unit() {
+    CompilationUnitTree cut = JParserTestUtils.parse(SOURCE);
+    VisitorPruning.Indexed indexed = (VisitorPruning.Indexed) cut;
+    assertThat(indexed.descendantKinds()).isNull();
+
+    VisitorPruning.containsAny(cut, Set.of(Tree.Kind.CLASS));
+    var kinds = indexed.descendantKinds();
+    assertThat(kinds).isNotNull();
+    VisitorPruning.containsAny(cut, Set.of(Tree.Kind.METHOD));
+    assertThat(indexed.descendantKinds()).isSameAs(kinds);
+  }
+
+  @Test
+  void trees_without_index_are_never_pruned() {
+    assertThat(VisitorPruning.containsAny(mock(CompilationUnitTree.class), Set.of(Tree.Kind.TRY_STATEMENT))).isTrue();
+  }
+
+}
@@ -21,6 +21,7 @@ import javax.annotation.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.slf4j.event.Level;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.cache.ReadCache;
 import org.sonar.api.batch.sensor.cache.WriteCache;
@@ -192,6 +193,47 @@ class CacheContextImplTest {
     verifyCacheContextUsesSonarLintCache(cci, sonarLintCache);
   }
 
+  @Test
+  void forFile_stores_the_entries_of_the_file_in_its_record_when_caching_is_enabled() {
+    var sensorContext = mockSensorContext();
+    doReturn(true).when(sensorContext).isCacheEnabled();
+    InputFile inputFile = mock(InputFile.class);
+    doReturn("module:A.java").when(inputFile).key();
+
+    CacheContextImpl cci = CacheContextImpl.of(mockSonarComponents(sensorContext, null));
+    assertThat(cci.fileCacheRecords()).isNotNull();
+    CacheContextImpl fileContext = cci.forFile(inputFile);
+    assertThat(fileContext.isCacheEnabled()).isTrue();
+    assertThat(fileContext.getReadCache())
+      .isInstanceOf(FileRecordCache.class)
+      .isSameAs(fileContext.getWriteCache());
+  }
+
+  @Test
+  void of_caches_gathers_the_entries_of_each_file_in_its_record() {
+    var readCache = mock(ReadCache.class);
+    var writeCache = mock(WriteCache.class);
+
+    CacheContextImpl cci = CacheContextImpl.of(readCache, writeCache);
+    assertThat(cci.isCacheEnabled()).isTrue();
+    assertThat(cci.getReadCache()).isEqualTo(new JavaReadCacheImpl(readCache));
+    assertThat(cci.getWriteCache()).isEqualTo(new JavaWriteCacheImpl(writeCache));
+    assertThat(cci.fileCacheRecords()).isNotNull();
+  }
+
+  @Test
+  void forFile_returns_the_same_context_without_file_records() {
+    InputFile inputFile = mock(InputFile.class);
+
+    CacheContextImpl dummyContext = CacheContextImpl.of(null);
+    assertThat(dummyContext.fileCacheRecords()).isNull();
+    assertThat(dummyContext.forFile(inputFile)).isSameAs(dummyContext);
+
+    CacheContextImpl sonarLintContext = CacheContextImpl.of(mockSonarComponents(null, mock(SonarLintCache.class)));
+    assertThat(sonarLintContext.fileCacheRecords()).isNull();
+    assertThat(sonarLintContext.forFile(inputFile)).isSameAs(sonarLintContext);
+  }
+
   private SensorContext mockSensorContext() {
     SensorContext sensorContext = mock(SensorContext.class);
     var readCache = mock(ReadCache.class);
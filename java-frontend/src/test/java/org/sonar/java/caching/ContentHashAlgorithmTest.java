@@ -0,0 +1,72 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentHashAlgorithmTest {
+
+  @Test
+  void md5_matches_message_digest() throws NoSuchAlgorithmException {
+    byte[] content = "class A {}".getBytes(StandardCharsets.UTF_8);
+    assertThat(hash(ContentHashAlgorithm.MD5, content, content.length))
+      .isEqualTo(MessageDigest.getInstance("MD5").digest(content));
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  void murmur3_matches_reference_implementation_for_any_length_and_chunking() throws NoSuchAlgorithmException {
+    Random random = new Random(42);
+    for (int length = 0; length < 100; length++) {
+      byte[] content = new byte[length];
+      random.nextBytes(content);
+      byte[] expected = Hashing.murmur3_128().hashBytes(content).asBytes();
+      for (int chunkSize : new int[] {1, 3, 7, 16, 17, 1024}) {
+        assertThat(hash(ContentHashAlgorithm.MURMUR3_128, content, chunkSize)).as("length %d, chunk %d", length, chunkSize).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  void cache_keys_are_versioned_by_algorithm() {
+    assertThat(ContentHashAlgorithm.MD5.cacheKeyPrefix()).isEqualTo("java:contentHash:MD5:");
+    assertThat(ContentHashAlgorithm.MURMUR3_128.cacheKeyPrefix()).isEqualTo("java:contentHash:MURMUR3_128:");
+  }
+
+  @Test
+  void fromName() {
+    assertThat(ContentHashAlgorithm.fromName("md5")).contains(ContentHashAlgorithm.MD5);
+    assertThat(ContentHashAlgorithm.fromName(" murmur3-128 ")).contains(ContentHashAlgorithm.MURMUR3_128);
+    assertThat(ContentHashAlgorithm.fromName("sha1")).isEmpty();
+  }
+
+  private static byte[] hash(ContentHashAlgorithm algorithm, byte[] content, int chunkSize) throws NoSuchAlgorithmException {
+    ContentHashAlgorithm.Hasher hasher = algorithm.newHasher();
+    for (int offset = 0; offset < content.length; offset += chunkSize) {
+      hasher.update(content, offset, Math.min(chunkSize, content.length - offset));
+    }
+    return hasher.digest();
+  }
+
+}
@@ -19,6 +19,7 @@ package org.sonar.java.caching;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
 import org.junit.jupiter.api.Assertions;
@@ -26,6 +27,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.slf4j.event.Level;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.cache.ReadCache;
 import org.sonar.api.batch.sensor.cache.WriteCache;
@@ -39,6 +41,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ContentHashCacheTest {
@@ -78,6 +84,21 @@ class ContentHashCacheTest {
     return logTester.logs(level);
   }
 
+  @Test
+  void hasSameHashCached_returns_false_when_the_charset_of_the_file_changed() throws IOException, NoSuchAlgorithmException {
+    InputFile latin1InputFile = new TestInputFileBuilder(file.getAbsoluteFile().getAbsolutePath(), new File(".").getCanonicalFile(), file.getCanonicalFile())
+      .setContents(inputFile.contents())
+      .setCharset(StandardCharsets.ISO_8859_1)
+      .setLanguage("java")
+      .setType(InputFile.Type.TEST)
+      .build();
+    assertThat(latin1InputFile.key()).isEqualTo(inputFile.key());
+    assertThat(latin1InputFile.inputStream().readAllBytes()).isEqualTo(inputFile.inputStream().readAllBytes());
+
+    ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(getSonarComponentsTester()));
+    Assertions.assertFalse(contentHashCache.hasSameHashCached(latin1InputFile));
+  }
+
   @Test
   void hasSameHashCached_returns_false_when_cache_is_disabled_and_input_file_status_is_same() {
     logTester.setLevel(Level.TRACE);
@@ -148,7 +169,7 @@ class ContentHashCacheTest {
     WriteCache writeCache = mock(WriteCache.class);
     sensorContext.setPreviousCache(readCache);
     sensorContext.setNextCache(writeCache);
-    when(inputFile1.contents()).thenThrow(new IOException());
+    when(inputFile1.inputStream()).thenThrow(new IOException());
     ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
     Assertions.assertFalse(contentHashCache.hasSameHashCached(inputFile1));
 
@@ -156,6 +177,21 @@ class ContentHashCacheTest {
       contains("Failed to compute content hash for file " + inputFile1.key());
   }
 
+  @Test
+  void content_hash_is_computed_once_per_file() throws IOException {
+    SensorContextTester sensorContext = getSensorContextTesterWithEmptyCache(true);
+    InputFile spiedInputFile = spy(inputFile);
+    ContentHashRegistry contentHashRegistry = new ContentHashRegistry();
+    ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext), contentHashRegistry);
+
+    Assertions.assertFalse(contentHashCache.hasSameHashCached(spiedInputFile));
+    contentHashCache.writeToCache(spiedInputFile);
+
+    verify(spiedInputFile, times(1)).inputStream();
+    verify(spiedInputFile, never()).contents();
+    assertThat(contentHashRegistry.size()).isEqualTo(1);
+  }
+
   @Test
   void contains_returns_true_when_file_is_in_cache() throws IOException, NoSuchAlgorithmException {
     ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(getSonarComponentsTester()));
@@ -191,7 +227,7 @@ class ContentHashCacheTest {
     WriteCache writeCache = mock(WriteCache.class);
     sensorContext.setNextCache(writeCache);
     doThrow(new IllegalArgumentException()).when(writeCache).write("java:contentHash:MD5:" + inputFile.key(),
-      FileHashingUtils.inputFileContentHash(file.getPath()));
+      FileHashingUtils.inputFileContentHash(inputFile));
     ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
     Assertions.assertFalse(contentHashCache.writeToCache(inputFile));
     return logTester.logs(level);
@@ -208,7 +244,7 @@ class ContentHashCacheTest {
     // mocking static method requires mockito-inline, which currently breaks the tests.
     InputFile inputFile1 = mock(InputFile.class);
     when(inputFile1.key()).thenReturn("key");
-    when(inputFile1.contents()).thenThrow(new IOException());
+    when(inputFile1.inputStream()).thenThrow(new IOException());
     ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
     Assertions.assertFalse(contentHashCache.writeToCache(inputFile1));
 
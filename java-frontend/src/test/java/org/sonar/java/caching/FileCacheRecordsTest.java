@@ -0,0 +1,378 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
+import org.sonar.java.AnalysisException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileCacheRecordsTest {
+
+  private static final String RECORD_KEY = "java:fileRecord:module:src/A.java";
+
+  private final InputFile fileA = inputFile("module:src/A.java");
+  private final InputFile fileB = inputFile("module:src/B.java");
+
+  @Test
+  void entries_of_a_file_are_written_in_a_single_record() {
+    var previous = previousCache(Map.of());
+    var next = nextCache(previous);
+    var records = new FileCacheRecords(previous, next);
+
+    records.write(fileA, "java:S1:module:src/A.java", bytes("one"));
+    records.write(fileA, "java:S2:module:src/A.java", bytes("two"));
+    assertThat(next.data).isEmpty();
+
+    records.flush(fileA);
+    assertThat(next.data).containsOnlyKeys(RECORD_KEY);
+
+    var nextRecords = new FileCacheRecords(previousCache(next.data), nextCache(previousCache(next.data)));
+    assertThat(nextRecords.read(fileA, "java:S1:module:src/A.java")).isEqualTo(bytes("one"));
+    assertThat(nextRecords.read(fileA, "java:S2:module:src/A.java")).isEqualTo(bytes("two"));
+    assertThat(nextRecords.contains(fileA, "java:S3:module:src/A.java")).isFalse();
+  }
+
+  @Test
+  void record_is_copied_when_all_its_entries_are_copied() {
+    var previous = previousCache(Map.of(RECORD_KEY, FileCacheRecords.encode(entries("java:S1:", "one", "java:S2:", "two"))));
+    var next = nextCache(previous);
+    var records = new FileCacheRecords(previous, next);
+
+    records.copyFromPrevious(fileA, "java:S1:module:src/A.java");
+    records.copyFromPrevious(fileA, "java:S2:module:src/A.java");
+    records.flush(fileA);
+
+    assertThat(next.copiedKeys).containsExactly(RECORD_KEY);
+    assertThat(next.data).containsOnlyKeys(RECORD_KEY);
+    assertThat(previous.readKeys).containsExactly(RECORD_KEY);
+  }
+
+  @Test
+  void record_is_rewritten_when_some_entries_change() throws IOException {
+    var previous = previousCache(Map.of(RECORD_KEY, FileCacheRecords.encode(entries("java:S1:", "one", "java:S2:", "two"))));
+    var next = nextCache(previous);
+    var records = new FileCacheRecords(previous, next);
+
+    records.copyFromPrevious(fileA, "java:S1:module:src/A.java");
+    records.write(fileA, "java:S2:module:src/A.java", bytes("deux"));
+    records.flush(fileA);
+
+    assertThat(next.copiedKeys).isEmpty();
+    assertThat(FileCacheRecords.decode(new ByteArrayInputStream(next.data.get(RECORD_KEY))))
+      .containsOnlyKeys("java:S1:", "java:S2:")
+      .containsEntry("java:S2:", bytes("deux"));
+  }
+
+  @Test
+  void record_is_rewritten_when_some_entries_are_not_copied() {
+    var previous = previousCache(Map.of(RECORD_KEY, FileCacheRecords.encode(entries("java:S1:", "one", "java:S2:", "two"))));
+    var next = nextCache(previous);
+    var records = new FileCacheRecords(previous, next);
+
+    records.copyFromPrevious(fileA, "java:S1:module:src/A.java");
+    records.flush(fileA);
+
+    assertThat(next.copiedKeys).isEmpty();
+    assertThat(next.data).containsOnlyKeys(RECORD_KEY);
+  }
+
+  @Test
+  void entries_are_read_from_their_own_keys_when_there_is_no_record() {
+    var previous = previousCache(Map.of("java:S1:module:src/A.java", bytes("one")));
+    var next = nextCache(previous);
+    var records = new FileCacheRecords(previous, next);
+
+    assertThat(records.read(fileA, "java:S1:module:src/A.java")).isEqualTo(bytes("one"));
+    assertThat(records.read(fileA, "java:S2:module:src/A.java")).isNull();
+    records.copyFromPrevious(fileA, "java:S1:module:src/A.java");
+    records.flush(fileA);
+
+    // the entry is copied under its own key, the record only gathers the entries written since
+    assertThat(next.copiedKeys).containsExactly("java:S1:module:src/A.java");
+    assertThat(next.data).containsOnlyKeys("java:S1:module:src/A.java");
+  }
+
+  @Test
+  void entries_missing_from_the_record_are_read_from_their_own_keys() {
+    var previous = previousCache(Map.of(
+      RECORD_KEY, FileCacheRecords.encode(entries("java:S1:", "one")),
+      "java:S2:module:src/A.java", bytes("two")));
+    var next = nextCache(previous);
+    var records = new FileCacheRecords(previous, next);
+
+    assertThat(records.read(fileA, "java:S2:module:src/A.java")).isEqualTo(bytes("two"));
+    records.copyFromPrevious(fileA, "java:S1:module:src/A.java");
+    records.copyFromPrevious(fileA, "java:S2:module:src/A.java");
+    records.flush(fileA);
+
+    assertThat(next.copiedKeys).containsExactlyInAnyOrder("java:S2:module:src/A.java", RECORD_KEY);
+  }
+
+  @Test
+  void only_the_entries_of_the_checks_are_file_entries() {
+    assertThat(FileCacheRecords.isFileEntry(fileA, "java:S1:module:src/A.java")).isTrue();
+    assertThat(FileCacheRecords.isFileEntry(fileA, "java:S1:module:src/B.java")).isFalse();
+    assertThat(FileCacheRecords.isFileEntry(fileA, "java:contentHash:MD5:module:src/A.java")).isFalse();
+    assertThat(FileCacheRecords.isFileEntry(fileA, "custom:rule:module:src/A.java")).isFalse();
+  }
+
+  @Test
+  void entries_are_written_once() {
+    var previous = previousCache(Map.of(RECORD_KEY, FileCacheRecords.encode(entries("java:S1:", "one", "java:S2:", "two"))));
+    var records = new FileCacheRecords(previous, nextCache(previous));
+
+    records.write(fileA, "java:S1:module:src/A.java", bytes("un"));
+    assertThatThrownBy(() -> records.write(fileA, "java:S1:module:src/A.java", bytes("uno")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Same key cannot be written to multiple times (java:S1:module:src/A.java)");
+    assertThatThrownBy(() -> records.copyFromPrevious(fileA, "java:S1:module:src/A.java"))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> records.copyFromPrevious(fileA, "java:S3:module:src/A.java"))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("No cache data available for key 'java:S3:module:src/A.java'");
+  }
+
+  @Test
+  void flush_ignores_files_without_entries() {
+    var previous = previousCache(Map.of());
+    var next = nextCache(previous);
+    var records = new FileCacheRecords(previous, next);
+
+    records.read(fileA, "java:S1:module:src/A.java");
+    records.flush(fileA);
+    records.flush(fileB);
+    assertThat(next.data).isEmpty();
+  }
+
+  @Test
+  void flush_fails_when_the_record_cannot_be_written() {
+    var previous = previousCache(Map.of());
+    var next = nextCache(previous);
+    var records = new FileCacheRecords(previous, next);
+
+    records.write(fileA, "java:S1:module:src/A.java", bytes("one"));
+    records.flush(fileA);
+    records.write(fileA, "java:S1:module:src/A.java", bytes("one"));
+    assertThatThrownBy(() -> records.flush(fileA))
+      .isInstanceOf(AnalysisException.class)
+      .hasMessage("Failed to write the cache record of file " + fileA)
+      .hasCauseInstanceOf(IllegalArgumentException.class);
+    assertThat(next.data).containsOnlyKeys(RECORD_KEY);
+  }
+
+  @Test
+  void flush_fails_when_the_record_cannot_be_copied() {
+    var previous = previousCache(Map.of(RECORD_KEY, FileCacheRecords.encode(entries("java:S1:", "one"))));
+    // the cache of the next analysis does not know about the previous one
+    var records = new FileCacheRecords(previous, previousCache(Map.of()));
+
+    records.copyFromPrevious(fileA, "java:S1:module:src/A.java");
+    assertThatThrownBy(() -> records.flush(fileA))
+      .isInstanceOf(AnalysisException.class)
+      .hasCauseInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void pending_files_are_the_files_not_flushed_yet() {
+    var previous = previousCache(Map.of());
+    var next = nextCache(previous);
+    var records = new FileCacheRecords(previous, next);
+
+    records.write(fileA, "java:S1:module:src/A.java", bytes("one"));
+    records.write(fileB, "java:S1:module:src/B.java", bytes("two"));
+    assertThat(records.pendingFiles()).containsExactlyInAnyOrder(fileA, fileB);
+
+    records.flush(fileA);
+    assertThat(records.pendingFiles()).containsExactly(fileB);
+  }
+
+  @Test
+  void records_are_expanded_into_the_entries_they_gather() {
+    Map<String, byte[]> cacheData = Map.of(
+      RECORD_KEY, FileCacheRecords.encode(entries("java:S1:", "one", "java:S2:", "two")),
+      "java:project:wide", bytes("wide"));
+
+    assertThat(FileCacheRecords.withExpandedRecords(cacheData))
+      .containsOnlyKeys("java:S1:module:src/A.java", "java:S2:module:src/A.java", "java:project:wide")
+      .containsEntry("java:S1:module:src/A.java", bytes("one"))
+      .containsEntry("java:S2:module:src/A.java", bytes("two"))
+      .containsEntry("java:project:wide", bytes("wide"));
+  }
+
+  @Test
+  void unreadable_record_throws_CacheReadException() throws IOException {
+    ReadCache previous = mock(ReadCache.class);
+    InputStream in = mock(InputStream.class);
+    when(in.read()).thenThrow(new IOException("boom"));
+    when(in.read(any(), anyInt(), anyInt()))
+      .thenThrow(new IOException("boom"));
+    when(previous.contains(RECORD_KEY)).thenReturn(true);
+    when(previous.read(RECORD_KEY)).thenReturn(in);
+    var records = new FileCacheRecords(previous, previousCache(Map.of()));
+
+    assertThatThrownBy(() -> records.read(fileA, "java:S1:module:src/A.java"))
+      .isInstanceOf(CacheReadException.class)
+      .hasMessage("Unable to read data for key '" + RECORD_KEY + "'");
+  }
+
+  @Test
+  void file_record_cache_stores_the_entries_of_its_file_in_the_record() throws IOException {
+    var previous = previousCache(Map.of(
+      RECORD_KEY, FileCacheRecords.encode(entries("java:S1:", "one")),
+      "java:project:wide", bytes("wide")));
+    var next = nextCache(previous);
+    var records = new FileCacheRecords(previous, next);
+    var cache = new FileRecordCache(records, fileA, new JavaReadCacheImpl(previous), new JavaWriteCacheImpl(next));
+
+    assertThat(cache.contains("java:S1:module:src/A.java")).isTrue();
+    assertThat(cache.readBytes("java:S1:module:src/A.java")).isEqualTo(bytes("one"));
+    assertThat(cache.read("java:S1:module:src/A.java").readAllBytes()).isEqualTo(bytes("one"));
+    assertThat(cache.contains("java:S2:module:src/A.java")).isFalse();
+    assertThat(cache.readBytes("java:S2:module:src/A.java")).isNull();
+    assertThatThrownBy(() -> cache.read("java:S2:module:src/A.java"))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("No cache data available for key 'java:S2:module:src/A.java'");
+
+    assertThat(cache.contains("java:project:wide")).isTrue();
+    assertThat(cache.readBytes("java:project:wide")).isEqualTo(bytes("wide"));
+    assertThat(cache.read("java:project:wide").readAllBytes()).isEqualTo(bytes("wide"));
+
+    cache.copyFromPrevious("java:S1:module:src/A.java");
+    cache.write("java:S2:module:src/A.java", bytes("two"));
+    cache.write("java:S3:module:src/A.java", new ByteArrayInputStream(bytes("three")));
+    cache.copyFromPrevious("java:project:wide");
+    cache.write("java:contentHash:MD5:module:src/A.java", bytes("hash"));
+    cache.write("java:other:1", bytes("1"));
+    cache.write("java:other:2", new ByteArrayInputStream(bytes("2")));
+    assertThat(next.data).containsOnlyKeys("java:project:wide", "java:contentHash:MD5:module:src/A.java", "java:other:1", "java:other:2");
+
+    records.flush(fileA);
+    assertThat(FileCacheRecords.decode(new ByteArrayInputStream(next.data.get(RECORD_KEY))))
+      .containsOnlyKeys("java:S1:", "java:S2:", "java:S3:");
+  }
+
+  @Test
+  void file_record_cache_fails_on_unreadable_stream() throws IOException {
+    var previous = previousCache(Map.of());
+    var records = new FileCacheRecords(previous, nextCache(previous));
+    var cache = new FileRecordCache(records, fileA, new JavaReadCacheImpl(previous), new JavaWriteCacheImpl(nextCache(previous)));
+    InputStream in = mock(InputStream.class);
+    when(in.readAllBytes()).thenThrow(new IOException("boom"));
+
+    assertThatThrownBy(() -> cache.write("java:S1:module:src/A.java", in))
+      .isInstanceOf(UncheckedIOException.class)
+      .hasMessageContaining("boom");
+  }
+
+  private static InputFile inputFile(String key) {
+    InputFile inputFile = mock(InputFile.class);
+    when(inputFile.key()).thenReturn(key);
+    return inputFile;
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static Map<String, byte[]> entries(String... namesAndValues) {
+    Map<String, byte[]> entries = new LinkedHashMap<>();
+    for (int i = 0; i < namesAndValues.length; i += 2) {
+      entries.put(namesAndValues[i], bytes(namesAndValues[i + 1]));
+    }
+    return entries;
+  }
+
+  private static MapCache previousCache(Map<String, byte[]> data) {
+    return new MapCache(Map.of(), new HashMap<>(data));
+  }
+
+  private static MapCache nextCache(MapCache previousCache) {
+    return new MapCache(previousCache.data, new HashMap<>());
+  }
+
+  private static class MapCache implements ReadCache, WriteCache {
+    private final Map<String, byte[]> previousData;
+    private final Map<String, byte[]> data;
+    private final Set<String> copiedKeys = new HashSet<>();
+    private final Set<String> readKeys = new HashSet<>();
+
+    MapCache(Map<String, byte[]> previousData, Map<String, byte[]> data) {
+      this.previousData = previousData;
+      this.data = data;
+    }
+
+    @Override
+    public InputStream read(String key) {
+      readKeys.add(key);
+      if (!data.containsKey(key)) {
+        throw new IllegalArgumentException("No cache entry for key " + key);
+      }
+      return new ByteArrayInputStream(data.get(key));
+    }
+
+    @Override
+    public boolean contains(String key) {
+      return data.containsKey(key);
+    }
+
+    @Override
+    public void write(String key, InputStream data) {
+      try {
+        write(key, data.readAllBytes());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public void write(String key, byte[] data) {
+      if (this.data.containsKey(key)) {
+        throw new IllegalArgumentException("Same key cannot be written to multiple times (" + key + ")");
+      }
+      this.data.put(key, data);
+    }
+
+    @Override
+    public void copyFromPrevious(String key) {
+      if (!previousData.containsKey(key)) {
+        throw new IllegalArgumentException("No cache data available for key " + key);
+      }
+      copiedKeys.add(key);
+      write(key, previousData.get(key));
+    }
+  }
+
+}
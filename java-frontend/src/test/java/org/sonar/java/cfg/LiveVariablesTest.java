@@ -18,6 +18,7 @@ package org.sonar.java.cfg;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.sonar.java.model.JParserTestUtils;
 import org.sonar.plugins.java.api.semantic.Symbol;
@@ -137,6 +138,33 @@ class LiveVariablesTest {
     assertFieldsByMethodEntry("void foo(int a) { B that = new B(); foo(that.field1); }");
   }
 
+  @Test
+  void more_symbols_than_a_bitset_word() {
+    StringBuilder declarations = new StringBuilder();
+    StringBuilder reads = new StringBuilder();
+    for (int i = 0; i < 70; i++) {
+      declarations.append("int v").append(i).append(" = a; ");
+      reads.append("foo(v").append(i).append("); ");
+    }
+    CFG cfg = buildCFG("void foo(int a) { " + declarations + "if (a > 0) { " + reads + "} }");
+    LiveVariables liveVariables = LiveVariables.analyze(cfg);
+
+    Set<Symbol> liveAtBranch = liveVariables.getOut(cfg.entryBlock());
+    assertThat(liveAtBranch).hasSize(70);
+    assertThat(liveAtBranch.stream().map(Symbol::name)).contains("v0", "v63", "v64", "v69");
+    assertThat(liveVariables.getIn(cfg.entryBlock())).containsOnly(
+      ((MethodTree) cfg.methodSymbol().declaration()).parameters().get(0).symbol());
+  }
+
+  @Test
+  void blocks_of_other_cfg_are_unknown() {
+    CFG cfg = buildCFG("void foo(int a) { foo(a); }");
+    CFG other = buildCFG("void foo(int a) { foo(a); }");
+    LiveVariables liveVariables = LiveVariables.analyze(cfg);
+    assertThat(liveVariables.getIn(other.entryBlock())).isNull();
+    assertThat(liveVariables.getOut(other.entryBlock())).isNull();
+  }
+
   private void assertFieldsByMethodEntry(String methodCode, Object... inEntryNames) {
     CFG cfg = buildCFG(methodCode);
     LiveVariables liveVariables = LiveVariables.analyzeWithFields(cfg);
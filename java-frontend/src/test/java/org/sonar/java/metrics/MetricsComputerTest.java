@@ -18,9 +18,13 @@ package org.sonar.java.metrics;
 
 import org.junit.jupiter.api.Test;
 import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.ForStatementTree;
+import org.sonar.plugins.java.api.tree.IfStatementTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.VariableTree;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -47,42 +51,41 @@ class MetricsComputerTest implements MetricsScannerContext {
         "}");
     
     MethodTree methodTree = (MethodTree) ((ClassTree) cut.types().get(0)).members().get(0);
+    BlockTree ifBlock = (BlockTree) ((IfStatementTree) methodTree.block().body().get(0)).thenStatement();
 
     assertThat(mc.getMethodComplexityNodes()).isEmpty();
     mc.getComplexityNodes(methodTree).size();
-    assertThat(mc.getMethodComplexityNodes()).containsKey(methodTree.hashCode());
+    assertThat(mc.getMethodComplexityNodes()).containsKey(methodTree);
 
     assertThat(mc.getMethodComplexity()).isEmpty();
     mc.getMethodComplexity(methodTree);
-    assertThat(mc.getMethodComplexity()).containsKey(methodTree.hashCode());
+    assertThat(mc.getMethodComplexity()).containsKey(methodTree);
     
     assertThat(mc.getMethodNumberOfAccessedVariables()).isEmpty();
     mc.getNumberOfAccessedVariables(methodTree);
-    assertThat(mc.getMethodNumberOfAccessedVariables()).containsKey(methodTree.hashCode());
+    assertThat(mc.getMethodNumberOfAccessedVariables()).containsKey(methodTree);
     
     assertThat(mc.getTreeLinesOfCode()).isEmpty();
-    mc.getLinesOfCode(methodTree);
-    assertThat(mc.getTreeLinesOfCode()).containsKey(methodTree.hashCode());
+    assertThat(mc.getLinesOfCode(methodTree)).isEqualTo(1);
+    assertThat(mc.getTreeLinesOfCode()).isEmpty();
+    VariableTree variableTree = (VariableTree) ((ForStatementTree) ifBlock.body().get(0)).initializer().get(0);
+    assertThat(mc.getLinesOfCode(variableTree)).isEqualTo(1);
+    assertThat(mc.getTreeLinesOfCode()).containsKey(variableTree);
     
     assertThat(mc.getTreeNumberOfStatements()).isEmpty();
     mc.getNumberOfStatements(methodTree);
-    assertThat(mc.getTreeNumberOfStatements()).containsKey(methodTree.hashCode());
-    
-    assertThat(mc.getTreeNumberOfCommentedLines()).isEmpty();
-    mc.getNumberOfCommentedLines(cut);
-    assertThat(mc.getTreeNumberOfCommentedLines()).containsKey(cut.hashCode());
+    assertThat(mc.getTreeNumberOfStatements()).containsKey(methodTree);
     
-    assertThat(mc.getTreeNoSonarLines()).isEmpty();
-    mc.getNoSonarLines(cut);
-    assertThat(mc.getTreeNoSonarLines()).containsKey(cut.hashCode());
+    assertThat(mc.getNumberOfCommentedLines(cut)).isZero();
+    assertThat(mc.getNoSonarLines(cut)).isEmpty();
     
     assertThat(mc.getCompilationUnityComplexity()).isEmpty();
     mc.getCompilationUnitComplexity(cut);
-    assertThat(mc.getCompilationUnityComplexity()).containsKey(cut.hashCode());
+    assertThat(mc.getCompilationUnityComplexity()).containsKey(cut);
     
     assertThat(mc.getMethodNestingLevel()).isEmpty();
     mc.getMethodNestingLevel(methodTree);
-    assertThat(mc.getMethodNestingLevel()).containsKey(methodTree.hashCode());
+    assertThat(mc.getMethodNestingLevel()).containsKey(methodTree);
     
   }
   
@@ -0,0 +1,118 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.metrics;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.sonar.java.ast.visitors.CommentLinesVisitor;
+import org.sonar.java.ast.visitors.LinesOfCodeVisitor;
+import org.sonar.java.ast.visitors.SubscriptionVisitor;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenMetricsTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {"Classes.java", "CognitiveComplexity.java", "Comments.java", "Complexity.java", "EmptyFile.java",
+    "Java15SwitchExpression.java", "Lines.java", "LinesOfCode.java", "Methods.java", "NoSonar.java", "Statements.java", "TextBlock.java"})
+  void same_metrics_as_the_visitors(String fileName) {
+    CompilationUnitTree cut = JParserTestUtils.parse(new File("src/test/files/metrics", fileName));
+    TokenMetrics tokenMetrics = new TokenMetrics(cut);
+
+    CommentLinesVisitor commentLinesVisitor = new CommentLinesVisitor();
+    commentLinesVisitor.analyzeCommentLines(cut);
+    assertThat(tokenMetrics.commentLinesMetric()).isEqualTo(commentLinesVisitor.commentLinesMetric());
+    assertThat(tokenMetrics.noSonarLines()).isEqualTo(commentLinesVisitor.noSonarLines());
+
+    LinesOfCodeVisitor linesOfCodeVisitor = new LinesOfCodeVisitor();
+    assertThat(tokenMetrics.linesOfCode()).isEqualTo(linesOfCodeVisitor.linesOfCode(cut));
+    for (Tree tree : treesWithContiguousTokens(cut)) {
+      assertThat(tokenMetrics.linesOfCode(tree))
+        .as("lines of code of %s at line %s", tree.kind(), tree.firstToken() == null ? "-" : tree.firstToken().range().start().line())
+        .isEqualTo(linesOfCodeVisitor.linesOfCode(tree));
+    }
+  }
+
+  @Test
+  void lines_of_code_of_trees() {
+    CompilationUnitTree cut = JParserTestUtils.parse("""
+      class A {
+
+        void foo() {
+          int a = 1; int b = 2;
+          // comment
+          bar(a,
+            b);
+        }
+      }
+      """);
+    TokenMetrics tokenMetrics = new TokenMetrics(cut);
+    ClassTree classTree = (ClassTree) cut.types().get(0);
+    MethodTree methodTree = (MethodTree) classTree.members().get(0);
+
+    assertThat(tokenMetrics.linesOfCode()).isEqualTo(7);
+    assertThat(tokenMetrics.linesOfCode(cut)).isEqualTo(7);
+    assertThat(tokenMetrics.linesOfCode(classTree)).isEqualTo(7);
+    assertThat(tokenMetrics.linesOfCode(methodTree)).isEqualTo(5);
+    assertThat(tokenMetrics.linesOfCode(methodTree.block().body().get(2))).isEqualTo(2);
+    assertThat(tokenMetrics.commentLinesMetric()).isEqualTo(1);
+  }
+
+  @Test
+  void empty_file() {
+    CompilationUnitTree cut = JParserTestUtils.parse("");
+    TokenMetrics tokenMetrics = new TokenMetrics(cut);
+    assertThat(tokenMetrics.linesOfCode()).isZero();
+    assertThat(tokenMetrics.linesOfCode(cut)).isZero();
+  }
+
+  private static List<Tree> treesWithContiguousTokens(CompilationUnitTree cut) {
+    return new TreeCollector().collect(cut);
+  }
+
+  private static class TreeCollector extends SubscriptionVisitor {
+    private final List<Tree> trees = new ArrayList<>();
+
+    List<Tree> collect(Tree tree) {
+      scanTree(tree);
+      return trees;
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return Arrays.asList(Tree.Kind.values());
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      if (TokenMetrics.hasContiguousTokens(tree)) {
+        trees.add(tree);
+      }
+    }
+  }
+
+}
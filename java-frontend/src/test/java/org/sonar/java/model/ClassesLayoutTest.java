@@ -41,23 +41,23 @@ class ClassesLayoutTest {
   @Test
   void token() {
     assertAll(
-      () -> assertThat(instanceSize(InternalSyntaxToken.class, X86_64)).isEqualTo(72),
-      () -> assertThat(instanceSize(InternalSyntaxToken.class, X86_64_COOPS)).isEqualTo(40)
+      () -> assertThat(instanceSize(InternalSyntaxToken.class, X86_64)).isEqualTo(80),
+      () -> assertThat(instanceSize(InternalSyntaxToken.class, X86_64_COOPS)).isEqualTo(48)
     );
   }
 
   @Test
   void identifier() {
     assertAll(
-      () -> assertThat(instanceSize(IdentifierTreeImpl.class, X86_64)).isEqualTo(88),
-      () -> assertThat(instanceSize(IdentifierTreeImpl.class, X86_64_COOPS)).isEqualTo(48)
+      () -> assertThat(instanceSize(IdentifierTreeImpl.class, X86_64)).isEqualTo(96),
+      () -> assertThat(instanceSize(IdentifierTreeImpl.class, X86_64_COOPS)).isEqualTo(56)
     );
   }
 
   @Test
   void literal() {
     assertAll(
-      () -> assertThat(instanceSize(LiteralTreeImpl.class, X86_64)).isEqualTo(64),
+      () -> assertThat(instanceSize(LiteralTreeImpl.class, X86_64)).isEqualTo(72),
       () -> assertThat(instanceSize(LiteralTreeImpl.class, X86_64_COOPS)).isEqualTo(40)
     );
   }
@@ -65,7 +65,7 @@ class ClassesLayoutTest {
   @Test
   void variable_declaration() {
     assertAll(
-      () -> assertThat(instanceSize(VariableTreeImpl.class, X86_64)).isEqualTo(96),
+      () -> assertThat(instanceSize(VariableTreeImpl.class, X86_64)).isEqualTo(104),
       () -> assertThat(instanceSize(VariableTreeImpl.class, X86_64_COOPS)).isEqualTo(56)
     );
   }
@@ -73,7 +73,7 @@ class ClassesLayoutTest {
   @Test
   void member_select() {
     assertAll(
-      () -> assertThat(instanceSize(MemberSelectExpressionTreeImpl.class, X86_64)).isEqualTo(80),
+      () -> assertThat(instanceSize(MemberSelectExpressionTreeImpl.class, X86_64)).isEqualTo(88),
       () -> assertThat(instanceSize(MemberSelectExpressionTreeImpl.class, X86_64_COOPS)).isEqualTo(48)
     );
   }
@@ -81,7 +81,7 @@ class ClassesLayoutTest {
   @Test
   void method_invocation() {
     assertAll(
-      () -> assertThat(instanceSize(MethodInvocationTreeImpl.class, X86_64)).isEqualTo(80),
+      () -> assertThat(instanceSize(MethodInvocationTreeImpl.class, X86_64)).isEqualTo(88),
       () -> assertThat(instanceSize(MethodInvocationTreeImpl.class, X86_64_COOPS)).isEqualTo(48)
     );
   }
@@ -21,6 +21,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -88,6 +89,13 @@ class GeneratedFileTest {
     assertEquals(expected.toString(), actual.toString());
   }
 
+  @Test
+  void key_is_the_given_one_when_the_generator_provides_it() {
+    GeneratedFile withKey = new GeneratedFile(expected, "module:src/file.jsp:file_jsp.java");
+    assertEquals("module:src/file.jsp:file_jsp.java", withKey.key());
+    assertEquals(expected.toAbsolutePath().toString(), withKey.absolutePath());
+  }
+
   @Test
   void test_not_implemented() {
     assertThrows(UnsupportedOperationException.class, () -> actual.type());
@@ -217,6 +225,48 @@ class GeneratedFileTest {
     assertThat(sourceMap.getLocation(1, 2).get().file()).isEqualTo(indexJsp);
   }
 
+  @Test
+  void source_files_are_the_input_files_of_the_source_maps() {
+    String smap = """
+      SMAP
+      index_jsp.java
+      JSP
+      *S JSP
+      *F
+      + 0 index.jsp
+      index.jsp
+      + 1 header.jsp
+      header.jsp
+      *L
+      1:1
+      2#1:2
+      *E
+      """;
+
+    Path uriRoot = tmp.resolve("src/main/webapp");
+    InputFile indexJsp = inputFileFromPath(uriRoot.resolve("index.jsp"));
+    fs.add(indexJsp);
+    GeneratedFile generatedFile = new GeneratedFile(tmp.resolve("index_jsp.java"));
+    assertThat(generatedFile.sourceFiles()).contains(Set.of());
+
+    generatedFile.addSmap(new SmapFile(tmp, smap, uriRoot, fs));
+    // header.jsp is not part of the analysis
+    assertThat(generatedFile.sourceFiles()).isEmpty();
+
+    InputFile headerJsp = inputFileFromPath(uriRoot.resolve("header.jsp"));
+    fs.add(headerJsp);
+    generatedFile = new GeneratedFile(tmp.resolve("index_jsp.java"));
+    generatedFile.addSmap(new SmapFile(tmp, smap, uriRoot, fs));
+    assertThat(generatedFile.sourceFiles()).hasValueSatisfying(files -> assertThat(files).containsExactlyInAnyOrder(indexJsp, headerJsp));
+  }
+
+  @Test
+  void sources_are_not_unchanged_by_default() {
+    assertThat(actual.hasUnchangedSources()).isFalse();
+    actual.setSourcesUnchanged(true);
+    assertThat(actual.hasUnchangedSources()).isTrue();
+  }
+
   private InputFile inputFileFromPath(Path path) {
     return new TestInputFileBuilder("", tmp.toFile(), path.toFile()).build();
   }
@@ -55,4 +55,12 @@ class JParserConfigTest {
     JParserConfig.Mode.BATCH.create(new JavaVersionImpl(17), Collections.emptyList(), true);
     assertThat(logTester.logs()).containsExactly("The Java analyzer will ignore the unnamed module for split packages.");
   }
+
+  @Test
+  void performance_measures_can_be_disabled_for_concurrent_parsing() {
+    JParserConfig config = JParserConfig.Mode.BATCH.create(new JavaVersionImpl(17), Collections.emptyList());
+    assertThat(config.measurePerformance).isTrue();
+    assertThat(config.withoutPerformanceMeasures()).isSameAs(config);
+    assertThat(config.measurePerformance).isFalse();
+  }
 }
@@ -44,6 +44,7 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.SharedClasspath;
 import org.eclipse.jdt.internal.compiler.parser.TerminalToken;
 import org.eclipse.jdt.internal.formatter.Token;
 import org.eclipse.jdt.internal.formatter.TokenManager;
@@ -79,6 +80,7 @@ import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.RecordPatternTree;
 import org.sonar.plugins.java.api.tree.ReturnStatementTree;
 import org.sonar.plugins.java.api.tree.SwitchExpressionTree;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia.CommentKind;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TryStatementTree;
@@ -283,6 +285,33 @@ class JParserTest {
     assertThat(s2.simpleName().isUnnamedVariable()).isFalse();
   }
 
+  @Test
+  void tokens_with_a_fixed_text_share_it() {
+    CompilationUnitTree t = test("class C { void m() { int a; /* b */ int \\u0062; } }");
+    ClassTree c = (ClassTree) t.types().get(0);
+    MethodTree m = (MethodTree) c.members().get(0);
+    VariableTree a = (VariableTree) m.block().body().get(0);
+    VariableTree b = (VariableTree) m.block().body().get(1);
+    assertSame(a.type().firstToken().text(), b.type().firstToken().text());
+    assertSame(a.endToken().text(), b.endToken().text());
+    assertThat(a.simpleName().name()).isEqualTo("a");
+    assertThat(b.simpleName().name()).isEqualTo("\\u0062");
+
+    assertThat(a.type().firstToken().trivias()).isEmpty();
+    assertThat(b.type().firstToken().trivias()).extracting(SyntaxTrivia::comment).containsExactly("/* b */");
+  }
+
+  @Test
+  void fixed_text_tokens_written_with_unicode_escapes_keep_their_text() {
+    CompilationUnitTree t = test("class C { void m() { int a; \\u0069nt b; } }");
+    ClassTree c = (ClassTree) t.types().get(0);
+    MethodTree m = (MethodTree) c.members().get(0);
+    VariableTree a = (VariableTree) m.block().body().get(0);
+    VariableTree b = (VariableTree) m.block().body().get(1);
+    assertThat(a.type().firstToken().text()).isEqualTo("int");
+    assertThat(b.type().firstToken().text()).isEqualTo("\\u0069nt");
+  }
+
   @Test
   void parse_static_method_invocation_on_a_conditional_expression_with_null_literal_on_the_else_operand() {
     List<File> classpath = List.of();
@@ -665,6 +694,38 @@ class JParserTest {
     assertResultsOfParsing(results, inputFilesProcessed);
   }
 
+  @Test
+  void test_parse_batches_with_shared_classpath(@TempDir Path tempFolder) throws Exception {
+    File junitJar = new File(Test.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    List<File> classpath = List.of(junitJar);
+    Path source = tempFolder.resolve("A.java");
+    Files.writeString(source, "class A { org.junit.jupiter.api.Test test; String s; }");
+    InputFile inputFile = TestUtils.inputFile(source.toFile());
+
+    SharedClasspath sharedClasspath = JParserConfig.sharedClasspath(classpath);
+    List<String> fieldTypes = new ArrayList<>();
+    try {
+      for (int batch = 0; batch < 2; batch++) {
+        BATCH
+          .create(MAXIMUM_SUPPORTED_JAVA_VERSION, classpath)
+          .withSharedClasspath(sharedClasspath)
+          .parse(List.of(inputFile), () -> false, new AnalysisProgress(1), (input, result) -> {
+            try {
+              ClassTree classTree = (ClassTree) result.get().types().get(0);
+              classTree.members().forEach(member -> fieldTypes.add(((VariableTree) member).type().symbolType().fullyQualifiedName()));
+            } catch (Exception e) {
+              throw new IllegalStateException(e);
+            }
+          });
+      }
+    } finally {
+      sharedClasspath.cleanup();
+    }
+    assertThat(fieldTypes).containsExactly(
+      "org.junit.jupiter.api.Test", "java.lang.String",
+      "org.junit.jupiter.api.Test", "java.lang.String");
+  }
+
   @Test
   void failing_batch_mode_should_continue_file_by_file() {
     List<InputFile> inputFiles = Arrays.asList(
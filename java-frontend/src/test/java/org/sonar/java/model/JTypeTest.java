@@ -41,6 +41,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.sonar.java.model.assertions.TypeAssert.assertThat;
 
@@ -295,6 +297,45 @@ class JTypeTest {
       .containsExactly("NullPointerException while resolving isSubTypeCompatible()");
   }
 
+  @Test
+  void is_subtype_of_is_computed_once_per_pair_of_types() {
+    JType objectType = type("java.lang.Object");
+    ITypeBinding stringBinding = spy(Objects.requireNonNull(sema.resolveType("java.lang.String")));
+    JType stringType = new JType(sema, stringBinding);
+
+    assertThat(stringType.isSubtypeOf(objectType)).isTrue();
+    assertThat(stringType.isSubtypeOf(objectType)).isTrue();
+    assertThat(stringType.isSubtypeOf(type("java.lang.Integer"))).isFalse();
+    assertThat(stringType.isSubtypeOf(type("java.lang.Integer"))).isFalse();
+
+    verify(stringBinding, times(2)).isSubTypeCompatible(any());
+  }
+
+  @Test
+  void supertype_names() {
+    JavaTree.CompilationUnitTreeImpl cu = test("class C<T> { java.util.ArrayList<String> a; java.util.Map.Entry<T, T> e; T t; int[] i; Unknown u; }");
+    ClassTreeImpl c = (ClassTreeImpl) cu.types().get(0);
+    JType[] fieldTypes = c.members().stream()
+      .map(member -> cu.sema.type(Objects.requireNonNull(((AbstractTypedTree) ((VariableTreeImpl) member).type()).typeBinding)))
+      .toArray(JType[]::new);
+
+    assertThat(JType.supertypeNames(fieldTypes[0].typeBinding))
+      .contains("java.util.ArrayList", "java.util.AbstractList", "java.util.List", "java.util.Collection", "java.lang.Iterable", "java.lang.Object")
+      .doesNotContain("java.util.Map");
+    assertThat(JType.supertypeNames(fieldTypes[1].typeBinding))
+      .containsExactlyInAnyOrder("java.util.Map$Entry", "java.lang.Object");
+    assertThat(JType.supertypeNames(fieldTypes[2].typeBinding)).isEmpty();
+    assertThat(JType.supertypeNames(fieldTypes[3].typeBinding)).isEmpty();
+    assertThat(JType.supertypeNames(fieldTypes[4].typeBinding)).isEmpty();
+
+    assertThat(fieldTypes[0].isSubtypeOf("java.util.Collection")).isTrue();
+    assertThat(fieldTypes[0].isSubtypeOf("java.util.Map")).isFalse();
+    assertThat(fieldTypes[1].isSubtypeOf("java.util.Map$Entry")).isTrue();
+    assertThat(fieldTypes[2].isSubtypeOf("java.lang.Object")).isTrue();
+    assertThat(fieldTypes[3].isSubtypeOf("java.lang.Object")).isTrue();
+    assertThat(fieldTypes[3].isSubtypeOf("java.lang.Cloneable")).isTrue();
+  }
+
   @Test
   void wildcard() {
     JavaTree.CompilationUnitTreeImpl cu = test("class C<T1, T2, T3> { C<? extends String, ? extends String, ? super String> f; }");
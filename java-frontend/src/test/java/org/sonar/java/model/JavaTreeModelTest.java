@@ -106,6 +106,27 @@ class JavaTreeModelTest {
     assertThat(((JavaTree) classTree.modifiers()).getLine()).isEqualTo(-1);
   }
 
+  @Test
+  void first_and_last_tokens_of_tree() {
+    MethodTree method = (MethodTree) firstTypeMember("class A { @Deprecated java.lang.@Nullable String m() { return \"a\"; } }");
+    assertThat(method.firstToken()).is("@");
+    assertThat(method.lastToken()).is("}");
+    assertThat(method.firstToken()).isSameAs(method.modifiers().firstToken());
+
+    IdentifierTree annotatedIdentifier = ((MemberSelectExpressionTree) method.returnType()).identifier();
+    assertThat(annotatedIdentifier.firstToken()).is("@");
+    assertThat(annotatedIdentifier.lastToken()).is("String");
+    assertThat(method.simpleName().firstToken()).isSameAs(method.simpleName().identifierToken());
+
+    LiteralTree literal = (LiteralTree) ((ReturnStatementTree) method.block().body().get(0)).expression();
+    assertThat(literal.firstToken()).isSameAs(literal.token());
+    assertThat(literal.lastToken()).isSameAs(literal.token());
+
+    CompilationUnitTree empty = compilationUnit("");
+    assertThat(empty.firstToken()).isSameAs(empty.eofToken());
+    assertThat(((ClassTree) firstType("class A {}")).modifiers().firstToken()).isNull();
+  }
+
   @Test
   void primitive_type() {
     PrimitiveTypeTree tree = (PrimitiveTypeTree) ((MethodTree) firstTypeMember("class T { int m() { return null; } }")).returnType();
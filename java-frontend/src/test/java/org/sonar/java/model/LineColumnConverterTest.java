@@ -84,6 +84,23 @@ class LineColumnConverterTest {
       "400:(201,0)");
   }
 
+  @Test
+  void test_to_pos_mixed_line_ending() {
+    char[] source = "a\rb\r\nc\n\rd".toCharArray();
+    var converter = new LineColumnConverter(source);
+    var out = new ArrayList<String>();
+    for (int i = 0; i <= source.length; i++) {
+      var pos = converter.toPos(i);
+      out.add(i + ":(" + pos.line() + "," + pos.columnOffset() + ")");
+    }
+    assertThat(out).containsExactly(
+      "0:(1,0)", "1:(1,1)",
+      "2:(2,0)", "3:(2,1)", "4:(2,2)",
+      "5:(3,0)", "6:(3,1)",
+      "7:(4,0)",
+      "8:(5,0)", "9:(5,1)");
+  }
+
   /** Check that position 0 in String corresponds to FIRST_LINE:FIRST_COLUMN. */
   @Test
   void testToPosition() {
@@ -32,16 +32,21 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import org.slf4j.event.Level;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.config.internal.MapSettings;
 import org.sonar.java.AnalysisException;
 import org.sonar.java.CheckFailureException;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.TestUtils;
+import org.sonar.java.ast.visitors.FusableSubscriptionVisitor;
 import org.sonar.java.ast.visitors.SubscriptionVisitor;
 import org.sonar.java.checks.EndOfAnalysisVisitor;
+import org.sonar.java.checks.PrunableVisitor;
 import org.sonar.java.checks.VisitorThatCanBeSkipped;
 import org.sonar.java.exceptions.ApiMismatchException;
+import org.sonar.java.notchecks.PrunableNotInChecksPackage;
 import org.sonar.java.notchecks.VisitorNotInChecksPackage;
 import org.sonar.java.testing.ThreadLocalLogTester;
 import org.sonar.plugins.java.api.DependencyVersionAware;
@@ -64,6 +69,7 @@ import org.sonar.plugins.java.api.tree.Tree.Kind;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -206,6 +212,72 @@ class VisitorsBridgeTest {
     assertThat(logTester.logs(Level.ERROR)).isEmpty();
   }
 
+  @Test
+  void subscription_visitors_are_notified_in_tree_order() {
+    List<String> events = new ArrayList<>();
+    IssuableSubscriptionVisitor visitor = new IssuableSubscriptionVisitor() {
+      @Override
+      public List<Kind> nodesToVisit() {
+        return Arrays.asList(Kind.CLASS, Kind.METHOD, Kind.TRIVIA);
+      }
+
+      @Override
+      public void visitNode(Tree tree) {
+        events.add("visit " + tree.kind());
+      }
+
+      @Override
+      public void leaveNode(Tree tree) {
+        events.add("leave " + tree.kind());
+      }
+
+      @Override
+      public void visitTrivia(SyntaxTrivia syntaxTrivia) {
+        events.add("trivia " + syntaxTrivia.comment());
+      }
+    };
+    visitorsBridge(visitor, true).visitFile(COMPILATION_UNIT_TREE, false);
+    assertThat(events).containsExactly(
+      "visit CLASS",
+      "visit METHOD",
+      "trivia // this is a trivia",
+      "leave METHOD",
+      "leave CLASS");
+  }
+
+  @Test
+  void fusable_subscription_visitors_share_the_traversal_of_rules() {
+    List<String> events = new ArrayList<>();
+    class FusedVisitor extends FusableSubscriptionVisitor {
+      @Override
+      public List<Kind> nodesToVisit() {
+        return Collections.singletonList(Kind.METHOD);
+      }
+
+      @Override
+      public void scanFile(JavaFileScannerContext context) {
+        throw new IllegalStateException("Should not drive its own traversal");
+      }
+
+      @Override
+      public void setContext(JavaFileScannerContext context) {
+        events.add("setContext");
+      }
+
+      @Override
+      public void visitNode(Tree tree) {
+        events.add("visit " + tree.kind());
+      }
+
+      @Override
+      public void leaveFile(JavaFileScannerContext context) {
+        events.add("leaveFile");
+      }
+    }
+    visitorsBridge(new FusedVisitor(), true).visitFile(COMPILATION_UNIT_TREE, false);
+    assertThat(events).containsExactly("setContext", "visit METHOD", "leaveFile");
+  }
+
   @Test
   void should_not_create_symbol_table_for_generated() {
     SonarComponents specificSonarComponents = mock(SonarComponents.class);
@@ -404,6 +476,21 @@ class VisitorsBridgeTest {
     verify(incompatibleVisitor, never()).visitNode(any());
   }
 
+  @Test
+  void checks_declaring_their_visited_kinds_are_not_run_on_files_without_them() {
+    PrunableVisitor prunableCheck = spy(new PrunableVisitor());
+    PrunableNotInChecksPackage prunableVisitor = spy(new PrunableNotInChecksPackage());
+    VisitorsBridge visitorsBridge = new VisitorsBridge(List.of(prunableCheck, prunableVisitor), Collections.emptyList(), null);
+
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+    verify(prunableCheck, never()).scanFile(any());
+    verify(prunableVisitor, times(1)).scanFile(any());
+
+    visitorsBridge.visitFile(JParserTestUtils.parse("class A { Runnable r = () -> {}; }"), false);
+    verify(prunableCheck, times(1)).scanFile(any());
+    verify(prunableVisitor, times(2)).scanFile(any());
+  }
+
   @Test
   void endOfAnalysis_logs_nothing_when_no_file_has_been_analyzed() {
     VisitorsBridge visitorsBridge = new VisitorsBridge(
@@ -586,6 +673,66 @@ class VisitorsBridgeTest {
       assertThat(logTester.logs(Level.WARN)).containsExactly(expectedLogMessage);
     }
 
+    @Test
+    void cache_entries_of_a_file_are_written_in_its_record_once_the_file_is_done() throws ApiMismatchException {
+      SensorContext sensorContext = mock(SensorContext.class);
+      doReturn(true).when(sensorContext).isCacheEnabled();
+      ReadCache readCache = mock(ReadCache.class);
+      WriteCache writeCache = mock(WriteCache.class);
+      doReturn(readCache).when(sensorContext).previousCache();
+      doReturn(writeCache).when(sensorContext).nextCache();
+      SonarComponents specificSonarComponents = mock(SonarComponents.class);
+      doReturn(sensorContext).when(specificSonarComponents).context();
+      doReturn(true).when(specificSonarComponents).fileCanBeSkipped(any(InputFile.class));
+      doReturn(true).when(specificSonarComponents).canSkipUnchangedFiles();
+      InputFile inputFile = mock(InputFile.class);
+      doReturn("module:A.java").when(inputFile).key();
+
+      JavaFileScanner scanner = new ScannerWritingToCache();
+
+      assertThat(scan_without_parsing(specificSonarComponents, scanner, inputFile)).isTrue();
+      verify(writeCache, times(1)).write(eq("java:fileRecord:module:A.java"), any(byte[].class));
+      verify(writeCache, never()).write(eq("java:S42:module:A.java"), any(byte[].class));
+      verify(writeCache, times(1)).write(eq("java:test:project"), any(byte[].class));
+    }
+
+    @Test
+    void failing_to_write_the_cache_record_of_a_file_is_logged_when_fail_fast_is_disabled() throws ApiMismatchException {
+      InputFile inputFile = mock(InputFile.class);
+      doReturn("module:A.java").when(inputFile).key();
+
+      assertThat(scan_without_parsing(sonarComponentsWithFailingRecordWrites(false), new ScannerWritingToCache(), inputFile)).isTrue();
+      assertThat(logTester.logs(Level.WARN)).containsExactly("Failed to write the cache record of file " + inputFile);
+    }
+
+    @Test
+    void failing_to_write_the_cache_record_of_a_file_fails_the_analysis_when_fail_fast_is_enabled() throws ApiMismatchException {
+      InputFile inputFile = mock(InputFile.class);
+      doReturn("module:A.java").when(inputFile).key();
+      SonarComponents specificSonarComponents = sonarComponentsWithFailingRecordWrites(true);
+      JavaFileScanner scanner = new ScannerWritingToCache();
+
+      assertThatThrownBy(() -> scan_without_parsing(specificSonarComponents, scanner, inputFile))
+        .isInstanceOf(AnalysisException.class)
+        .hasMessage("Failed to write the cache record of file " + inputFile)
+        .hasRootCauseMessage("boom");
+    }
+
+    private SonarComponents sonarComponentsWithFailingRecordWrites(boolean failOnException) {
+      SensorContext sensorContext = mock(SensorContext.class);
+      doReturn(true).when(sensorContext).isCacheEnabled();
+      WriteCache writeCache = mock(WriteCache.class);
+      doThrow(new IllegalArgumentException("boom")).when(writeCache).write(eq("java:fileRecord:module:A.java"), any(byte[].class));
+      doReturn(mock(ReadCache.class)).when(sensorContext).previousCache();
+      doReturn(writeCache).when(sensorContext).nextCache();
+      SonarComponents specificSonarComponents = mock(SonarComponents.class);
+      doReturn(sensorContext).when(specificSonarComponents).context();
+      doReturn(true).when(specificSonarComponents).fileCanBeSkipped(any(InputFile.class));
+      doReturn(true).when(specificSonarComponents).canSkipUnchangedFiles();
+      doReturn(failOnException).when(specificSonarComponents).shouldFailAnalysisOnException();
+      return specificSonarComponents;
+    }
+
     private boolean scan_without_parsing(JavaFileScanner scanner) throws ApiMismatchException {
       SonarComponents specificSonarComponents = mock(SonarComponents.class);
       doReturn(true).when(specificSonarComponents).fileCanBeSkipped(any(InputFile.class));
@@ -754,6 +901,20 @@ class VisitorsBridgeTest {
     }
   }
 
+  private static class ScannerWritingToCache implements JavaFileScanner {
+    @Override
+    public boolean scanWithoutParsing(InputFileScannerContext context) {
+      context.getCacheContext().getWriteCache().write("java:S42:" + context.getInputFile().key(), new byte[] {42});
+      context.getCacheContext().getWriteCache().write("java:test:project", new byte[] {42});
+      return true;
+    }
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      /* Do nothing */
+    }
+  }
+
   private static class ScannerThatCannotScanWithoutParsing implements EndOfAnalysis, JavaFileScanner {
     /**
      * Always fail
@@ -17,10 +17,16 @@
 package org.sonar.java.regex;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import org.junit.jupiter.api.Test;
 import org.sonar.java.model.JParserTestUtils;
+import org.sonar.java.reporting.AnalyzerMessage;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.LiteralTree;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.VariableTree;
@@ -82,4 +88,128 @@ class RegexCacheTest {
     assertThat(resultForS1S0).isSameAs(cache.getRegexForLiterals(new FlagSet(), s1, s0));
   }
 
+  @Test
+  void shared_result_is_reused_across_files_and_bound_to_each_call_site() {
+    LiteralTree literalInFirstFile = firstLiteral(JParserTestUtils.parse("""
+        class A {
+          String s = "a+b";
+        }
+        """));
+    LiteralTree literalInSecondFile = firstLiteral(JParserTestUtils.parse("""
+        class B {
+
+          String other = "a+b";
+        }
+        """));
+
+    SharedRegexCache sharedCache = new SharedRegexCache();
+    RegexParseResult first = new RegexCache(sharedCache).getRegexForLiterals(new FlagSet(), literalInFirstFile);
+    assertThat(textSpansOf(first)).containsExactly(new AnalyzerMessage.TextSpan(2, 14, 2, 17));
+
+    RegexParseResult second = new RegexCache(sharedCache).getRegexForLiterals(new FlagSet(), literalInSecondFile);
+    assertThat(second).isSameAs(first);
+    assertThat(textSpansOf(second)).containsExactly(new AnalyzerMessage.TextSpan(3, 18, 3, 21));
+    assertThat(sharedCache.size()).isEqualTo(1);
+
+    // different flags, different result
+    RegexParseResult withFlags = new RegexCache(sharedCache).getRegexForLiterals(new FlagSet(Pattern.CASE_INSENSITIVE), literalInSecondFile);
+    assertThat(withFlags).isNotSameAs(first);
+    assertThat(sharedCache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void shared_result_is_bound_to_a_single_call_site_per_file() {
+    CompilationUnitTree cut = JParserTestUtils.parse("""
+        class A {
+          String s0 = "abc";
+          String s1 = "abc";
+        }
+        """);
+    List<Tree> fields = ((ClassTree) cut.types().get(0)).members();
+    LiteralTree s0 = (LiteralTree) ((VariableTree) fields.get(0)).initializer();
+    LiteralTree s1 = (LiteralTree) ((VariableTree) fields.get(1)).initializer();
+
+    RegexCache cache = new RegexCache(new SharedRegexCache());
+    RegexParseResult resultForS0 = cache.getRegexForLiterals(new FlagSet(), s0);
+    RegexParseResult resultForS1 = cache.getRegexForLiterals(new FlagSet(), s1);
+
+    assertThat(resultForS0).isNotSameAs(resultForS1);
+    assertThat(textSpansOf(resultForS0)).containsExactly(new AnalyzerMessage.TextSpan(2, 15, 2, 18));
+    assertThat(textSpansOf(resultForS1)).containsExactly(new AnalyzerMessage.TextSpan(3, 15, 3, 18));
+  }
+
+  @Test
+  void shared_results_are_unbound_from_the_file_once_analyzed() {
+    LiteralTree literal = firstLiteral(JParserTestUtils.parse("""
+        class A {
+          String s = "a+b";
+        }
+        """));
+
+    SharedRegexCache sharedCache = new SharedRegexCache();
+    RegexCache cache = new RegexCache(sharedCache);
+    RegexParseResult result = cache.getRegexForLiterals(new FlagSet(), literal);
+    JavaAnalyzerRegexSource source = (JavaAnalyzerRegexSource) result.getResult().getSource();
+    assertThat(source.isBound()).isTrue();
+
+    cache.unbindSharedResults();
+    assertThat(source.isBound()).isFalse();
+
+    RegexParseResult inNextFile = new RegexCache(sharedCache).getRegexForLiterals(new FlagSet(), literal);
+    assertThat(inNextFile).isSameAs(result);
+    assertThat(source.isBound()).isTrue();
+    assertThat(textSpansOf(inNextFile)).containsExactly(new AnalyzerMessage.TextSpan(2, 14, 2, 17));
+  }
+
+  @Test
+  void shared_cache_is_bounded() {
+    CompilationUnitTree cut = JParserTestUtils.parse("""
+        class A {
+          String s0 = "a";
+          String s1 = "b";
+          String s2 = "c";
+        }
+        """);
+    SharedRegexCache sharedCache = new SharedRegexCache(2);
+    RegexCache cache = new RegexCache(sharedCache);
+    ((ClassTree) cut.types().get(0)).members()
+      .forEach(field -> cache.getRegexForLiterals(new FlagSet(), (LiteralTree) ((VariableTree) field).initializer()));
+    assertThat(sharedCache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void regex_sites_are_found_once_per_tree() {
+    CompilationUnitTree cut = JParserTestUtils.parse("""
+        class A {
+          String s0 = "a";
+          String s1 = "b";
+        }
+        """);
+    List<Tree> fields = ((ClassTree) cut.types().get(0)).members();
+    LiteralTree s0 = (LiteralTree) ((VariableTree) fields.get(0)).initializer();
+    LiteralTree s1 = (LiteralTree) ((VariableTree) fields.get(1)).initializer();
+
+    RegexCache cache = new RegexCache();
+    AtomicInteger calls = new AtomicInteger();
+    Function<ExpressionTree, Optional<RegexParseResult>> finder = tree -> {
+      calls.incrementAndGet();
+      return tree == s0 ? Optional.of(cache.getRegexForLiterals(new FlagSet(), s0)) : Optional.empty();
+    };
+
+    Optional<RegexParseResult> site = cache.getRegexSite(s0, finder);
+    assertThat(site).isPresent();
+    assertThat(cache.getRegexSite(s0, finder)).containsSame(site.get());
+    assertThat(cache.getRegexSite(s1, finder)).isEmpty();
+    assertThat(cache.getRegexSite(s1, finder)).isEmpty();
+    assertThat(calls).hasValue(2);
+  }
+
+  private static LiteralTree firstLiteral(CompilationUnitTree cut) {
+    return (LiteralTree) ((VariableTree) ((ClassTree) cut.types().get(0)).members().get(0)).initializer();
+  }
+
+  private static List<AnalyzerMessage.TextSpan> textSpansOf(RegexParseResult result) {
+    return new RegexCheck.RegexIssueLocation(result.getResult(), "").locations();
+  }
+
 }
@@ -244,6 +244,38 @@ class MethodMatchersTest {
     assertThat(findMatchesOnSymbol(source, MethodMatchers.none())).isEmpty();
   }
 
+  @Test
+  void test_or_of_indexed_and_not_indexed_matchers() {
+    String source = "" +
+      /* 01 */ "package pkg;\n" +
+      /* 02 */ "class A {\n" +
+      /* 03 */ "  void f() { }\n" +
+      /* 04 */ "  void f(int x) { }\n" +
+      /* 05 */ "  void g(int x) { }\n" +
+      /* 06 */ "  void h(String x, int y) { }\n" +
+      /* 07 */ "  void main() {\n" +
+      /* 08 */ "    f();\n" +
+      /* 09 */ "    f(1);\n" +
+      /* 10 */ "    g(1);\n" +
+      /* 11 */ "    h(\"\", 1);\n" +
+      /* 12 */ "  }\n" +
+      /* 13 */ "}\n";
+
+    MethodMatchers fWithOneParameter = MethodMatchers.create().ofTypes("pkg.A").names("f", "g").addParametersMatcher("int").build();
+    MethodMatchers anyNameWithTwoParameters = MethodMatchers.create().ofAnyType().anyName().addParametersMatcher(ANY, "int").build();
+    MethodMatchers customName = MethodMatchers.create().ofAnyType().name(name -> name.startsWith("ma")).withAnyParameters().build();
+    MethodMatchers fWithoutParameter = MethodMatchers.create().ofSubTypes("java.lang.Object").names("f").addWithoutParametersMatcher().build();
+
+    assertThat(findMatchesOnTree(source, MethodMatchers.or(fWithOneParameter, anyNameWithTwoParameters)))
+      .containsExactly(4, 5, 6, 9, 10, 11);
+    assertThat(findMatchesOnSymbol(source, MethodMatchers.or(fWithOneParameter, anyNameWithTwoParameters)))
+      .containsExactly(4, 5, 6, 9, 10, 11);
+    assertThat(findMatchesOnTree(source, MethodMatchers.or(customName, MethodMatchers.none(), MethodMatchers.or(fWithoutParameter))))
+      .containsExactly(3, 7, 8);
+    assertThat(findMatchesOnTree(source, MethodMatchers.or(MethodMatchers.or(fWithOneParameter), fWithoutParameter)))
+      .containsExactly(3, 4, 5, 8, 9, 10);
+  }
+
   @Test
   void test_inheritance() {
     String source = "" +
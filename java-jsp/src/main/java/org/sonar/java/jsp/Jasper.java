@@ -31,9 +31,20 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.StreamSupport;
 import javax.servlet.jsp.JspFactory;
@@ -62,6 +73,11 @@ public class Jasper {
 
   public static final String JSP_LANGUAGE_KEY = "jsp";
 
+  /**
+   * Number of threads transpiling the JSP files, they are transpiled one at a time by default.
+   */
+  public static final String SONAR_JSP_TRANSPILATION_THREADS_KEY = "sonar.java.jsp.transpilationThreads";
+
   private static final String SONAR_EXCLUSIONS_PROPERTY = "sonar.exclusions";
 
   private static final Logger LOG = LoggerFactory.getLogger(Jasper.class);
@@ -92,27 +108,54 @@ public class Jasper {
       JspCServletContext servletContext = new ServletContext(uriRoot.toUri().toURL(), classLoader);
       JasperOptions options = getJasperOptions(outputDir, servletContext);
       JspRuntimeContext runtimeContext = new JspRuntimeContext(servletContext, options);
+      TranspilationCache transpilationCache = new TranspilationCache(sensorContext, javaClasspath, outputDir, uriRoot);
 
-      boolean errorTranspiling = false;
-      Map<Path, GeneratedFile> generatedJavaFiles = new HashMap<>();
-      for (InputFile jsp : jspFiles) {
-        try {
-          transpileJsp(jsp.path(), uriRoot, classLoader, servletContext, options, runtimeContext, javaExclusionFilter)
-            .ifPresent(generatedFile -> generatedJavaFiles.put(generatedFile, new GeneratedFile(generatedFile)));
-        } catch (Exception | LinkageError e) {
-          errorTranspiling = true;
-          StringWriter w = new StringWriter();
-          e.printStackTrace(new PrintWriter(w));
-          String stackTrace = w.toString();
-          LOG.debug("Error transpiling {}. Error:\n{}", jsp, stackTrace);
+      int threads = transpilationThreads(sensorContext);
+      // As JspC does when compiling with several threads, the workers share the runtime context, which collects the source
+      // maps in a concurrent map, while each JSP gets its own compilation context.
+      ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads, transpilerThreadFactory(classLoader)) : null;
+      try {
+        List<Future<Optional<Path>>> transpilations = new ArrayList<>(jspFiles.size());
+        Map<Path, GeneratedFile> restoredJavaFiles = new HashMap<>();
+        for (InputFile jsp : jspFiles) {
+          Optional<GeneratedFile> restored = transpilationCache.restore(jsp);
+          if (restored.isPresent()) {
+            Path javaFile = restored.get().path();
+            restoredJavaFiles.put(javaFile, restored.get());
+            Optional<Path> includedJavaFile = Optional.of(javaFile).filter(file -> !javaExclusionFilter.test(file.toString()));
+            transpilations.add(CompletableFuture.completedFuture(includedJavaFile));
+            continue;
+          }
+          Callable<Optional<Path>> transpilation = () ->
+            transpileJsp(jsp.path(), uriRoot, classLoader, servletContext, options, runtimeContext, javaExclusionFilter);
+          transpilations.add(executor == null ? runInCurrentThread(transpilation) : executor.submit(transpilation));
+        }
+
+        // generated files are returned in the order of the JSP files, whatever the order in which they were transpiled
+        Map<Path, GeneratedFile> generatedJavaFiles = new LinkedHashMap<>();
+        Map<Path, InputFile> sourceJspFiles = new HashMap<>();
+        boolean errorTranspiling = collectGeneratedFiles(jspFiles, transpilations, outputDir, restoredJavaFiles, generatedJavaFiles,
+          sourceJspFiles);
+        if (errorTranspiling) {
+          LOG.warn("Some JSP pages failed to transpile. Enable debug log for details.");
+        }
+        Map<Path, List<TranspilationCache.Smap>> smapsByJavaFile = new HashMap<>();
+        runtimeContext.getSmaps().values().forEach(smap ->
+          processSourceMap(uriRoot, generatedJavaFiles, smap, sensorContext.fileSystem(), smapsByJavaFile));
+        sourceJspFiles.forEach((javaFile, jsp) ->
+          transpilationCache.write(jsp, generatedJavaFiles.get(javaFile), smapsByJavaFile.getOrDefault(javaFile, Collections.emptyList())));
+        return generatedJavaFiles.values();
+      } finally {
+        if (executor != null) {
+          // on failure or interruption, the transpilations still running are stopped before the class loader is restored
+          executor.shutdownNow();
+          awaitTermination(executor);
         }
       }
-      if (errorTranspiling) {
-        LOG.warn("Some JSP pages failed to transpile. Enable debug log for details.");
-      }
-      runtimeContext.getSmaps().values().forEach(smap ->
-        processSourceMap(uriRoot, generatedJavaFiles, smap, sensorContext.fileSystem()));
-      return generatedJavaFiles.values();
+    } catch (InterruptedException e) {
+      LOG.warn("Interrupted while transpiling JSP files.");
+      Thread.currentThread().interrupt();
+      return Collections.emptyList();
     } catch (Exception e) {
       LOG.warn("Failed to transpile JSP files.", e);
       return Collections.emptyList();
@@ -121,6 +164,83 @@ public class Jasper {
     }
   }
 
+  /**
+   * @param sourceJspFiles filled with the JSP files transpiled by this analysis, by generated file
+   * @return true if some JSP files failed to transpile
+   */
+  private static boolean collectGeneratedFiles(List<InputFile> jspFiles, List<Future<Optional<Path>>> transpilations, Path outputDir,
+    Map<Path, GeneratedFile> restoredJavaFiles, Map<Path, GeneratedFile> generatedJavaFiles, Map<Path, InputFile> sourceJspFiles)
+    throws InterruptedException {
+    boolean errorTranspiling = false;
+    for (int i = 0; i < jspFiles.size(); i++) {
+      InputFile jsp = jspFiles.get(i);
+      try {
+        transpilations.get(i).get().ifPresent(javaFile -> {
+          GeneratedFile restored = restoredJavaFiles.get(javaFile);
+          if (restored != null) {
+            generatedJavaFiles.put(javaFile, restored);
+          } else {
+            generatedJavaFiles.put(javaFile, new GeneratedFile(javaFile, generatedFileKey(jsp, outputDir, javaFile)));
+            sourceJspFiles.put(javaFile, jsp);
+          }
+        });
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Error error && !(cause instanceof LinkageError)) {
+          throw error;
+        }
+        errorTranspiling = true;
+        StringWriter w = new StringWriter();
+        cause.printStackTrace(new PrintWriter(w));
+        String stackTrace = w.toString();
+        LOG.debug("Error transpiling {}. Error:\n{}", jsp, stackTrace);
+      }
+    }
+    return errorTranspiling;
+  }
+
+  /**
+   * Waits for the transpilations still running, so that none of them uses the class loader of the plugin once it is no longer the
+   * context class loader.
+   */
+  private static void awaitTermination(ExecutorService executor) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+          break;
+        }
+        LOG.debug("Waiting for the JSP transpilations still running to stop.");
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static int transpilationThreads(SensorContext sensorContext) {
+    return Math.max(1, sensorContext.config().getInt(SONAR_JSP_TRANSPILATION_THREADS_KEY).orElse(1));
+  }
+
+  private static ThreadFactory transpilerThreadFactory(ClassLoader classLoader) {
+    AtomicInteger threadCount = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, "jsp-transpiler-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      // Jasper instantiates some classes through the context class loader, see generateFiles
+      thread.setContextClassLoader(classLoader);
+      return thread;
+    };
+  }
+
+  private static <T> Future<T> runInCurrentThread(Callable<T> callable) {
+    FutureTask<T> task = new FutureTask<>(callable);
+    task.run();
+    return task;
+  }
+
   private static boolean isAllJavaJspExcluded(List<String> sonarExclusions) {
     return sonarExclusions.contains("**/*_jsp.java");
   }
@@ -139,12 +259,16 @@ public class Jasper {
     };
   }
 
-  private static void processSourceMap(Path uriRoot, Map<Path, GeneratedFile> generatedJavaFiles, SmapStratum smap, FileSystem fileSystem) {
+  private static void processSourceMap(Path uriRoot, Map<Path, GeneratedFile> generatedJavaFiles, SmapStratum smap, FileSystem fileSystem,
+    Map<Path, List<TranspilationCache.Smap>> smapsByJavaFile) {
     Path smapRoot = Paths.get(smap.getClassFileName()).getParent();
-    SmapFile smapFile = new SmapFile(smapRoot, smap.getSmapString(), uriRoot, fileSystem);
+    String smapString = smap.getSmapString();
+    SmapFile smapFile = new SmapFile(smapRoot, smapString, uriRoot, fileSystem);
     GeneratedFile generatedFile = generatedJavaFiles.get(smapFile.getGeneratedFile());
     if (generatedFile != null) {
       generatedFile.addSmap(smapFile);
+      smapsByJavaFile.computeIfAbsent(smapFile.getGeneratedFile(), javaFile -> new ArrayList<>())
+        .add(new TranspilationCache.Smap(smapRoot, smapString));
     }
   }
 
@@ -223,6 +347,15 @@ public class Jasper {
   }
 
 
+  /**
+   * The key of a generated file is made of the key of its JSP file and of its path relative to the output directory, so that
+   * its cache entries are reused whatever the machine and the directory the analysis runs from.
+   */
+  static String generatedFileKey(InputFile jsp, Path outputDir, Path javaFile) {
+    String relativePath = outputDir.toAbsolutePath().relativize(javaFile.toAbsolutePath()).toString().replace('\\', '/');
+    return jsp.key() + ":" + relativePath;
+  }
+
   static Path outputDir(SensorContext sensorContext) {
     Path path = sensorContext.fileSystem().workDir().toPath().resolve("jsp");
     try {
@@ -0,0 +1,369 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.jsp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.annotations.VisibleForTesting;
+import org.sonar.java.caching.CacheContextImpl;
+import org.sonar.java.caching.ContentHashAlgorithm;
+import org.sonar.java.caching.ContentHashRegistry;
+import org.sonar.java.model.GeneratedFile;
+import org.sonar.java.model.SmapFile;
+
+/**
+ * Keeps in the analysis cache the Java code and the source maps generated for each JSP file, so that a JSP file is not
+ * transpiled again as long as the files it was generated from and the tag libraries available to it did not change.
+ * <p>
+ * The tag libraries are fingerprinted from the classpath and from the tag files and descriptors of the WEB-INF directory, with
+ * the content hash algorithm configured for the analysis.
+ * Paths are stored relatively to the output and base directories, so that the cache can be reused on another machine.
+ */
+class TranspilationCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TranspilationCache.class);
+
+  @VisibleForTesting
+  static final String CACHE_KEY_PREFIX = "java:jsp:transpilation:";
+
+  private static final List<String> WEB_INF_TAG_LIBRARY_EXTENSIONS = List.of(".tld", ".tag", ".tagx", ".xml");
+  private static final List<String> TAG_LIBRARY_DESCRIPTOR_EXTENSIONS = List.of(".tld");
+  private static final Pattern TAG_LIBRARY_CLASS = Pattern.compile(
+    "<(?:tag-?class|tei-?class|validator-class|function-class)>\\s*([\\w.$]+)\\s*</");
+
+  private final FileSystem fileSystem;
+  private final Path outputDir;
+  private final Path uriRoot;
+  private final boolean enabled;
+  private ReadCache readCache;
+  private WriteCache writeCache;
+  private byte[] tagLibrariesFingerprint;
+  private final ContentHashRegistry contentHashes;
+
+  TranspilationCache(SensorContext context, List<File> classpath, Path outputDir, Path uriRoot) {
+    this.fileSystem = context.fileSystem();
+    this.outputDir = outputDir.toAbsolutePath();
+    this.uriRoot = uriRoot;
+    this.contentHashes = new ContentHashRegistry(SonarComponents.getContentHashAlgorithm(context));
+    this.enabled = isCachingEnabled(context) && initTagLibrariesFingerprint(classpath);
+    if (enabled) {
+      readCache = context.previousCache();
+      writeCache = context.nextCache();
+    }
+  }
+
+  private static boolean isCachingEnabled(SensorContext context) {
+    try {
+      return CacheContextImpl.isCachingEnabled(context);
+    } catch (NoSuchMethodError error) {
+      LOG.debug("Missing cache related method from sonar-plugin-api: {}.", error.getMessage());
+      return false;
+    }
+  }
+
+  private boolean initTagLibrariesFingerprint(List<File> classpath) {
+    try {
+      tagLibrariesFingerprint = tagLibrariesFingerprint(classpath, uriRoot.resolve("WEB-INF"), contentHashes.algorithm());
+      return true;
+    } catch (IOException | NoSuchAlgorithmException e) {
+      LOG.debug("JSP transpilations will not be cached, failed to fingerprint the tag libraries: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Jars are identified by the name, CRC and size of their entries, read from their central directory, as their path and
+   * modification date depend on the machine running the analysis. Tag library descriptors of the classpath directories, the tag
+   * handler classes they reference and tag library files of WEB-INF are hashed.
+   */
+  @VisibleForTesting
+  static byte[] tagLibrariesFingerprint(List<File> classpath, Path webInf, ContentHashAlgorithm algorithm)
+    throws IOException, NoSuchAlgorithmException {
+    ContentHashAlgorithm.Hasher hasher = algorithm.newHasher();
+    List<Path> classDirectories = new ArrayList<>();
+    Set<String> tagLibraryClasses = new TreeSet<>();
+    for (File entry : classpath) {
+      if (entry.isFile()) {
+        hashJar(hasher, entry);
+      } else if (entry.isDirectory()) {
+        classDirectories.add(entry.toPath());
+        tagLibraryClasses.addAll(hashFiles(hasher, entry.toPath().resolve("META-INF"), TAG_LIBRARY_DESCRIPTOR_EXTENSIONS));
+      }
+    }
+    tagLibraryClasses.addAll(hashFiles(hasher, webInf, WEB_INF_TAG_LIBRARY_EXTENSIONS));
+    for (Path classDirectory : classDirectories) {
+      hashClassFiles(hasher, classDirectory, tagLibraryClasses);
+    }
+    return hasher.digest();
+  }
+
+  private static void hashJar(ContentHashAlgorithm.Hasher hasher, File jar) throws IOException {
+    try (ZipFile zipFile = new ZipFile(jar)) {
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        update(hasher, entry.getName() + ":" + entry.getCrc() + ":" + entry.getSize() + "\n");
+      }
+    } catch (ZipException e) {
+      // not an archive, its whole content is hashed
+      update(hasher, Files.readAllBytes(jar.toPath()));
+    }
+  }
+
+  /**
+   * @return the classes referenced by the tag library descriptors among the hashed files
+   */
+  private static Set<String> hashFiles(ContentHashAlgorithm.Hasher hasher, Path directory, List<String> extensions) throws IOException {
+    Set<String> referencedClasses = new TreeSet<>();
+    if (!Files.isDirectory(directory)) {
+      return referencedClasses;
+    }
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(directory)) {
+      files = walk
+        .filter(path -> hasExtension(path, extensions) && Files.isRegularFile(path))
+        .sorted()
+        .toList();
+    }
+    for (Path file : files) {
+      byte[] content = Files.readAllBytes(file);
+      update(hasher, relativePath(directory, file));
+      update(hasher, content);
+      if (hasExtension(file, TAG_LIBRARY_DESCRIPTOR_EXTENSIONS)) {
+        Matcher matcher = TAG_LIBRARY_CLASS.matcher(new String(content, StandardCharsets.UTF_8));
+        while (matcher.find()) {
+          referencedClasses.add(matcher.group(1));
+        }
+      }
+    }
+    return referencedClasses;
+  }
+
+  private static void hashClassFiles(ContentHashAlgorithm.Hasher hasher, Path classDirectory, Set<String> classNames) throws IOException {
+    for (String className : classNames) {
+      Path classFile = classDirectory.resolve(className.replace('.', '/') + ".class");
+      if (Files.isRegularFile(classFile)) {
+        update(hasher, className);
+        update(hasher, Files.readAllBytes(classFile));
+      }
+    }
+  }
+
+  private static void update(ContentHashAlgorithm.Hasher hasher, String value) {
+    update(hasher, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void update(ContentHashAlgorithm.Hasher hasher, byte[] bytes) {
+    hasher.update(bytes, 0, bytes.length);
+  }
+
+  private static boolean hasExtension(Path path, List<String> extensions) {
+    String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+    return extensions.stream().anyMatch(fileName::endsWith);
+  }
+
+  /**
+   * Writes back to the output directory the Java file generated for the given JSP file during the previous analysis,
+   * if the JSP file, its included files and the tag libraries did not change since then.
+   */
+  Optional<GeneratedFile> restore(InputFile jsp) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    String cacheKey = cacheKey(jsp);
+    if (!readCache.contains(cacheKey)) {
+      return Optional.empty();
+    }
+    try (InputStream in = readCache.read(cacheKey)) {
+      Transpilation transpilation = Transpilation.decode(in);
+      if (!isUpToDate(transpilation)) {
+        LOG.debug("JSP file {} or the files it depends on changed since the previous analysis.", jsp);
+        return Optional.empty();
+      }
+      Path javaFile = outputDir.resolve(transpilation.javaFile);
+      Files.createDirectories(javaFile.getParent());
+      Files.write(javaFile, transpilation.javaCode);
+      GeneratedFile generatedFile = new GeneratedFile(javaFile, Jasper.generatedFileKey(jsp, outputDir, javaFile));
+      for (Smap smap : transpilation.smaps) {
+        generatedFile.addSmap(new SmapFile(outputDir.resolve(smap.root()), smap.content(), uriRoot, fileSystem));
+      }
+      generatedFile.setSourcesUnchanged(true);
+      writeCache.copyFromPrevious(cacheKey);
+      LOG.debug("Reusing the transpilation of JSP file {} from the previous analysis.", jsp);
+      return Optional.of(generatedFile);
+    } catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+      LOG.debug("Failed to reuse the transpilation of JSP file {} from the previous analysis: {}", jsp, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  void write(InputFile jsp, GeneratedFile generatedFile, List<Smap> smaps) {
+    if (!enabled) {
+      return;
+    }
+    Optional<Set<InputFile>> sourceFiles = generatedFile.sourceFiles();
+    if (sourceFiles.isEmpty()) {
+      LOG.debug("Transpilation of JSP file {} is not cached, it depends on files which are not part of the analysis.", jsp);
+      return;
+    }
+    String cacheKey = cacheKey(jsp);
+    try {
+      Transpilation transpilation = new Transpilation(tagLibrariesFingerprint,
+        relativePath(outputDir, generatedFile.path().toAbsolutePath()),
+        Files.readAllBytes(generatedFile.path()));
+      smaps.forEach(smap -> transpilation.smaps.add(new Smap(outputDir.relativize(smap.root().toAbsolutePath()), smap.content())));
+      transpilation.sourceHashes.put(relativePath(jsp), contentHash(jsp));
+      for (InputFile sourceFile : sourceFiles.get()) {
+        transpilation.sourceHashes.put(relativePath(sourceFile), contentHash(sourceFile));
+      }
+      writeCache.write(cacheKey, transpilation.encode());
+    } catch (IllegalArgumentException e) {
+      LOG.trace("Tried to write multiple times to cache key {}. Ignoring writes after the first.", cacheKey);
+    } catch (IOException | NoSuchAlgorithmException e) {
+      LOG.debug("Failed to cache the transpilation of JSP file {}: {}", jsp, e.getMessage());
+    }
+  }
+
+  private boolean isUpToDate(Transpilation transpilation) throws IOException, NoSuchAlgorithmException {
+    if (!MessageDigest.isEqual(tagLibrariesFingerprint, transpilation.tagLibrariesFingerprint)) {
+      return false;
+    }
+    for (Map.Entry<String, byte[]> sourceHash : transpilation.sourceHashes.entrySet()) {
+      InputFile sourceFile = fileSystem.inputFile(fileSystem.predicates().hasPath(sourceHash.getKey()));
+      if (sourceFile == null || !MessageDigest.isEqual(contentHash(sourceFile), sourceHash.getValue())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private byte[] contentHash(InputFile inputFile) throws IOException, NoSuchAlgorithmException {
+    return contentHashes.contentHash(inputFile);
+  }
+
+  private String relativePath(InputFile inputFile) {
+    return relativePath(fileSystem.baseDir().toPath().toAbsolutePath(), inputFile.path().toAbsolutePath());
+  }
+
+  private static String relativePath(Path root, Path path) {
+    return root.relativize(path).toString().replace('\\', '/');
+  }
+
+  private static String cacheKey(InputFile jsp) {
+    return CACHE_KEY_PREFIX + jsp.key();
+  }
+
+  /**
+   * Content of a source map, with the directory of the class file it refers to.
+   */
+  record Smap(Path root, String content) {
+  }
+
+  @VisibleForTesting
+  static class Transpilation {
+
+    final byte[] tagLibrariesFingerprint;
+    final String javaFile;
+    final byte[] javaCode;
+    final List<Smap> smaps = new ArrayList<>();
+    final Map<String, byte[]> sourceHashes = new LinkedHashMap<>();
+
+    Transpilation(byte[] tagLibrariesFingerprint, String javaFile, byte[] javaCode) {
+      this.tagLibrariesFingerprint = tagLibrariesFingerprint;
+      this.javaFile = javaFile;
+      this.javaCode = javaCode;
+    }
+
+    byte[] encode() throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (DataOutputStream out = new DataOutputStream(bytes)) {
+        writeBytes(out, tagLibrariesFingerprint);
+        out.writeUTF(javaFile);
+        writeBytes(out, javaCode);
+        out.writeInt(smaps.size());
+        for (Smap smap : smaps) {
+          out.writeUTF(smap.root().toString().replace('\\', '/'));
+          writeBytes(out, smap.content().getBytes(StandardCharsets.UTF_8));
+        }
+        out.writeInt(sourceHashes.size());
+        for (Map.Entry<String, byte[]> sourceHash : sourceHashes.entrySet()) {
+          out.writeUTF(sourceHash.getKey());
+          writeBytes(out, sourceHash.getValue());
+        }
+      }
+      return bytes.toByteArray();
+    }
+
+    static Transpilation decode(InputStream in) throws IOException {
+      DataInputStream data = new DataInputStream(in);
+      Transpilation transpilation = new Transpilation(readBytes(data), data.readUTF(), readBytes(data));
+      int smapCount = data.readInt();
+      for (int i = 0; i < smapCount; i++) {
+        transpilation.smaps.add(new Smap(Path.of(data.readUTF()), new String(readBytes(data), StandardCharsets.UTF_8)));
+      }
+      int sourceCount = data.readInt();
+      for (int i = 0; i < sourceCount; i++) {
+        transpilation.sourceHashes.put(data.readUTF(), readBytes(data));
+      }
+      return transpilation;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+      byte[] bytes = new byte[in.readInt()];
+      in.readFully(bytes);
+      return bytes;
+    }
+  }
+
+}
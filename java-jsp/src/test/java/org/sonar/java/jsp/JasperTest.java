@@ -16,13 +16,18 @@
  */
 package org.sonar.java.jsp;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
@@ -39,6 +44,8 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
@@ -304,6 +311,87 @@ class JasperTest {
 
   }
 
+  @Test
+  void test_parallel_transpilation() throws Exception {
+    SensorContextTester ctx = SensorContextTester.create(tempFolder);
+    ctx.fileSystem().setWorkDir(workDir);
+    ctx.setSettings(new MapSettings().setProperty(Jasper.SONAR_JSP_TRANSPILATION_THREADS_KEY, "4"));
+    for (String name : List.of("d", "b", "a", "c", "e", "f", "g")) {
+      addJspFile(ctx, JSP_SOURCE, webInf.resolve("jsp/" + name + ".jsp"));
+    }
+    addJspFile(ctx, "<%=", webInf.resolve("jsp/failing.jsp"));
+
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList());
+
+    List<String> expectedFileNames = new ArrayList<>();
+    ctx.fileSystem().inputFiles(ctx.fileSystem().predicates().hasLanguage("jsp")).forEach(jsp -> {
+      if (!"failing.jsp".equals(jsp.filename())) {
+        expectedFileNames.add(jsp.filename().replace(".jsp", "_jsp.java"));
+      }
+    });
+    assertThat(generatedFiles)
+      .extracting(GeneratedFile::filename)
+      .containsExactlyElementsOf(expectedFileNames);
+    assertThat(generatedFiles).allMatch(generatedFile -> generatedFile.sourceMap() != null);
+    assertThat(logTester.logs(Level.DEBUG))
+      .matches(logs -> logs.stream().anyMatch(line ->
+        line.startsWith("Error transpiling src/main/webapp/WEB-INF/jsp/failing.jsp. Error:\norg.apache.jasper.JasperException:")));
+    assertThat(logTester.logs(Level.WARN)).contains("Some JSP pages failed to transpile. Enable debug log for details.");
+  }
+
+  @Test
+  void test_transpilation_reused_from_cache() throws Exception {
+    Map<String, byte[]> firstCache = new HashMap<>();
+    SensorContextTester ctx = jspContext(JSP_SOURCE);
+    enableCache(ctx, new HashMap<>(), firstCache);
+    GeneratedFile transpiled = new Jasper().generateFiles(ctx, emptyList()).iterator().next();
+    assertThat(transpiled.hasUnchangedSources()).isFalse();
+    assertThat(firstCache).hasSize(1);
+    assertThat(firstCache.keySet()).allMatch(key -> key.startsWith(TranspilationCache.CACHE_KEY_PREFIX) && key.endsWith("test.jsp"));
+    String transpiledCode = Files.readString(transpiled.path());
+    PathUtils.delete(Jasper.outputDir(ctx));
+
+    Map<String, byte[]> secondCache = new HashMap<>();
+    enableCache(ctx, firstCache, secondCache);
+    GeneratedFile restored = new Jasper().generateFiles(ctx, emptyList()).iterator().next();
+    assertThat(restored.hasUnchangedSources()).isTrue();
+    assertThat(restored.path()).isEqualTo(transpiled.path());
+    // the cache entries of the generated file do not depend on the directory the analysis runs from
+    assertThat(restored.key())
+      .isEqualTo(transpiled.key())
+      .contains("src/main/webapp/WEB-INF/jsp/test.jsp:")
+      .endsWith("test_jsp.java")
+      .doesNotContain(tempFolder.toAbsolutePath().toString());
+    assertThat(Files.readString(restored.path())).isEqualTo(transpiledCode);
+    assertThat(restored.sourceFiles()).isEqualTo(transpiled.sourceFiles());
+    assertThat(logTester.logs(Level.DEBUG)).contains("Reusing the transpilation of JSP file src/main/webapp/WEB-INF/jsp/test.jsp from the previous analysis.");
+    assertThat(secondCache).containsOnlyKeys(firstCache.keySet());
+
+    SensorContextTester changedCtx = jspContext(JSP_SOURCE.replace("Hello", "Bye"));
+    enableCache(changedCtx, secondCache, new HashMap<>());
+    GeneratedFile retranspiled = new Jasper().generateFiles(changedCtx, emptyList()).iterator().next();
+    assertThat(retranspiled.hasUnchangedSources()).isFalse();
+    assertThat(Files.readString(retranspiled.path())).contains("Bye World!");
+  }
+
+  @Test
+  void test_transpilation_not_reused_when_tag_libraries_change() throws Exception {
+    Map<String, byte[]> firstCache = new HashMap<>();
+    SensorContextTester ctx = jspContext(JSP_SOURCE);
+    enableCache(ctx, new HashMap<>(), firstCache);
+    new Jasper().generateFiles(ctx, emptyList());
+
+    enableCache(ctx, firstCache, new HashMap<>());
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, singletonList(springJar));
+    assertThat(generatedFiles).singleElement().matches(generatedFile -> !generatedFile.hasUnchangedSources());
+  }
+
+  private static void enableCache(SensorContextTester ctx, Map<String, byte[]> previousCache, Map<String, byte[]> nextCache) {
+    ctx.setCacheEnabled(true);
+    ctx.setPreviousCache(new MapCache(previousCache, previousCache));
+    ctx.setNextCache(new MapCache(previousCache, nextCache));
+  }
+
   private SensorContextTester jspContext(String jspSource) throws IOException {
     return jspContext(jspSource, webInf.resolve("jsp/test.jsp"));
   }
@@ -320,10 +408,66 @@ class JasperTest {
     return ctx;
   }
 
+  private void addJspFile(SensorContextTester ctx, String jspSource, Path path) throws IOException {
+    Path file = createJspFile(jspSource, path);
+    ctx.fileSystem().add(TestInputFileBuilder.create("", tempFolder.toFile(), file.toFile())
+      .setLanguage("jsp")
+      .setContents(jspSource)
+      .build());
+  }
+
   private Path createJspFile(String content, Path path) throws IOException {
     Files.createDirectories(path.getParent());
     Files.write(path, content.getBytes(StandardCharsets.UTF_8));
     return path;
   }
 
+  private static class MapCache implements ReadCache, WriteCache {
+    private final Map<String, byte[]> previousData;
+    private final Map<String, byte[]> data;
+
+    MapCache(Map<String, byte[]> previousData, Map<String, byte[]> data) {
+      this.previousData = previousData;
+      this.data = data;
+    }
+
+    @Override
+    public InputStream read(String key) {
+      if (!data.containsKey(key)) {
+        throw new IllegalArgumentException("No cache entry for key " + key);
+      }
+      return new ByteArrayInputStream(data.get(key));
+    }
+
+    @Override
+    public boolean contains(String key) {
+      return data.containsKey(key);
+    }
+
+    @Override
+    public void write(String key, InputStream data) {
+      try {
+        write(key, data.readAllBytes());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public void write(String key, byte[] data) {
+      if (this.data.containsKey(key)) {
+        throw new IllegalArgumentException("Same key cannot be written to multiple times (" + key + ")");
+      }
+      this.data.put(key, data);
+    }
+
+    @Override
+    public void copyFromPrevious(String key) {
+      if (!previousData.containsKey(key)) {
+        throw new IllegalArgumentException("No cache data available for key " + key);
+      }
+      write(key, previousData.get(key));
+    }
+  }
+
 }
@@ -0,0 +1,134 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.jsp;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.java.caching.ContentHashAlgorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TranspilationCacheTest {
+
+  @TempDir
+  Path tmp;
+
+  @Test
+  void tag_libraries_fingerprint_depends_on_jar_entries() throws Exception {
+    Path webInf = tmp.resolve("WEB-INF");
+    File jar = createJar(tmp.resolve("lib/taglib.jar"), "META-INF/c.tld", "<taglib/>");
+    File sameJarElsewhere = createJar(tmp.resolve("other/renamed.jar"), "META-INF/c.tld", "<taglib/>");
+    File changedJar = createJar(tmp.resolve("changed/taglib.jar"), "META-INF/c.tld", "<taglib><tag/></taglib>");
+
+    byte[] fingerprint = TranspilationCache.tagLibrariesFingerprint(List.of(jar), webInf, ContentHashAlgorithm.MD5);
+    assertThat(TranspilationCache.tagLibrariesFingerprint(List.of(sameJarElsewhere), webInf, ContentHashAlgorithm.MD5)).isEqualTo(fingerprint);
+    assertThat(TranspilationCache.tagLibrariesFingerprint(List.of(changedJar), webInf, ContentHashAlgorithm.MD5)).isNotEqualTo(fingerprint);
+    assertThat(TranspilationCache.tagLibrariesFingerprint(List.of(), webInf, ContentHashAlgorithm.MD5)).isNotEqualTo(fingerprint);
+    assertThat(TranspilationCache.tagLibrariesFingerprint(List.of(jar), webInf, ContentHashAlgorithm.MURMUR3_128)).isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  void tag_libraries_fingerprint_depends_on_the_content_of_files_which_are_not_archives() throws Exception {
+    Path webInf = tmp.resolve("WEB-INF");
+    File file = createFile(tmp.resolve("lib/taglib.jar"), "not an archive");
+    File sameSizeFile = createFile(tmp.resolve("other/taglib.jar"), "not a zip file");
+
+    byte[] fingerprint = TranspilationCache.tagLibrariesFingerprint(List.of(file), webInf, ContentHashAlgorithm.MD5);
+    assertThat(TranspilationCache.tagLibrariesFingerprint(List.of(sameSizeFile), webInf, ContentHashAlgorithm.MD5)).isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  void tag_libraries_fingerprint_depends_on_tag_files_of_web_inf_and_classpath_directories() throws Exception {
+    Path webInf = tmp.resolve("WEB-INF");
+    Path classes = tmp.resolve("classes");
+    createFile(webInf.resolve("jsp/index.jsp"), "<html/>");
+    createFile(classes.resolve("META-INF/custom.tld"), "<taglib/>");
+    List<File> classpath = List.of(classes.toFile());
+
+    byte[] fingerprint = TranspilationCache.tagLibrariesFingerprint(classpath, webInf, ContentHashAlgorithm.MD5);
+    createFile(webInf.resolve("jsp/index.jsp"), "<body/>");
+    assertThat(TranspilationCache.tagLibrariesFingerprint(classpath, webInf, ContentHashAlgorithm.MD5)).isEqualTo(fingerprint);
+
+    createFile(classes.resolve("META-INF/custom.tld"), "<taglib><tag/></taglib>");
+    byte[] classpathChanged = TranspilationCache.tagLibrariesFingerprint(classpath, webInf, ContentHashAlgorithm.MD5);
+    assertThat(classpathChanged).isNotEqualTo(fingerprint);
+
+    createFile(webInf.resolve("tags/custom.tag"), "<%@ tag %>");
+    assertThat(TranspilationCache.tagLibrariesFingerprint(classpath, webInf, ContentHashAlgorithm.MD5)).isNotEqualTo(classpathChanged);
+  }
+
+  @Test
+  void tag_libraries_fingerprint_depends_on_the_tag_handler_classes_referenced_by_descriptors() throws Exception {
+    Path webInf = tmp.resolve("WEB-INF");
+    Path classes = tmp.resolve("classes");
+    createFile(webInf.resolve("custom.tld"), "<taglib><tag><tag-class> org.example.CustomTag </tag-class></tag></taglib>");
+    createFile(classes.resolve("org/example/CustomTag.class"), "version 1");
+    createFile(classes.resolve("org/example/Other.class"), "version 1");
+    List<File> classpath = List.of(classes.toFile());
+
+    byte[] fingerprint = TranspilationCache.tagLibrariesFingerprint(classpath, webInf, ContentHashAlgorithm.MD5);
+    createFile(classes.resolve("org/example/Other.class"), "version 2");
+    assertThat(TranspilationCache.tagLibrariesFingerprint(classpath, webInf, ContentHashAlgorithm.MD5)).isEqualTo(fingerprint);
+
+    createFile(classes.resolve("org/example/CustomTag.class"), "version 2");
+    assertThat(TranspilationCache.tagLibrariesFingerprint(classpath, webInf, ContentHashAlgorithm.MD5)).isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  void transpilation_encoding() throws Exception {
+    byte[] javaCode = "class index_jsp {}".getBytes(StandardCharsets.UTF_8);
+    TranspilationCache.Transpilation transpilation = new TranspilationCache.Transpilation(new byte[] {1, 2, 3},
+      "org/apache/jsp/index_jsp.java", javaCode);
+    transpilation.smaps.add(new TranspilationCache.Smap(Path.of("org", "apache", "jsp"), "SMAP\nindex_jsp.java\nJSP\n"));
+    transpilation.sourceHashes.put("src/main/webapp/index.jsp", new byte[] {4, 5});
+    transpilation.sourceHashes.put("src/main/webapp/header.jsp", new byte[] {6});
+
+    TranspilationCache.Transpilation decoded = TranspilationCache.Transpilation.decode(new ByteArrayInputStream(transpilation.encode()));
+
+    assertThat(decoded.tagLibrariesFingerprint).containsExactly(1, 2, 3);
+    assertThat(decoded.javaFile).isEqualTo("org/apache/jsp/index_jsp.java");
+    assertThat(decoded.javaCode).isEqualTo(javaCode);
+    assertThat(decoded.smaps).containsExactly(new TranspilationCache.Smap(Path.of("org/apache/jsp"), "SMAP\nindex_jsp.java\nJSP\n"));
+    assertThat(decoded.sourceHashes).containsOnlyKeys("src/main/webapp/index.jsp", "src/main/webapp/header.jsp");
+    assertThat(decoded.sourceHashes.get("src/main/webapp/header.jsp")).containsExactly(6);
+  }
+
+  private static File createJar(Path path, String entryName, String entryContent) throws Exception {
+    Files.createDirectories(path.getParent());
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(path))) {
+      out.putNextEntry(new ZipEntry(entryName));
+      out.write(entryContent.getBytes(StandardCharsets.UTF_8));
+      out.closeEntry();
+    }
+    return path.toFile();
+  }
+
+  private static File createFile(Path path, String content) throws Exception {
+    Files.createDirectories(path.getParent());
+    Files.writeString(path, content);
+    return path.toFile();
+  }
+
+}